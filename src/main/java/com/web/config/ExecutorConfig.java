@@ -0,0 +1,33 @@
+package com.web.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    // Pool acotado para el hashing de contraseñas: un pico de logins no agota los hilos de Tomcat.
+    // Se inyecta por calificador; applicationTaskExecutor de Boot se mantiene (spring.task.execution.mode=force)
+    @Bean(name = "loginExecutor")
+    @Qualifier("loginExecutor")
+    public ThreadPoolTaskExecutor loginExecutor(
+            @Value("${auth.login.pool-size:0}") int poolSize,
+            @Value("${auth.login.queue-capacity:200}") int queueCapacity) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("login-");
+        // Cola llena -> RejectedExecutionException, el controller responde 503
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,64 @@
+package com.web.config;
+
+import com.web.util.QueryCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Histograma de consultas SQL por endpoint (http.server.requests.queries en /actuator/metrics)
+// y aviso en el log cuando un request supera el presupuesto: los N+1 se ven sin perfilar
+@Slf4j
+@Configuration
+public class QueryMetricsConfig implements WebMvcConfigurer {
+
+    private static final String METRIC = "http.server.requests.queries";
+
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+
+    public QueryMetricsConfig(
+            MeterRegistry meterRegistry,
+            @Value("${datasource.query-budget.warn-threshold:30}") int warnThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                QueryCounter.reset();
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                        Object handler, Exception ex) {
+                int queries = QueryCounter.count();
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+                DistributionSummary.builder(METRIC)
+                        .description("Sentencias SQL por request")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri)
+                        .serviceLevelObjectives(1, 3, 5, 10, 20, 50)
+                        .register(meterRegistry)
+                        .record(queries);
+
+                if (queries > warnThreshold) {
+                    log.warn("Posible N+1: {} {} ejecutó {} consultas", request.getMethod(), uri, queries);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package com.web.config.datasource;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Usuarios que acaban de escribir: sus lecturas van al primario durante la ventana
+// para que vean su propia compra aunque la réplica todavía no la tenga
+public class ReadYourWritesPins {
+
+    private final Map<Long, Instant> pinnedUsers = new ConcurrentHashMap<>();
+    private final long windowMs;
+
+    public ReadYourWritesPins(long windowMs) {
+        this.windowMs = windowMs;
+    }
+
+    public void pin(Long userId) {
+        pinnedUsers.put(userId, Instant.now().plusMillis(windowMs));
+    }
+
+    public boolean isPinned(Long userId) {
+        Instant until = pinnedUsers.get(userId);
+        return until != null && until.isAfter(Instant.now());
+    }
+
+    @Scheduled(fixedRate = 60000) // Cada minuto
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        pinnedUsers.values().removeIf(until -> !until.isAfter(now));
+    }
+}
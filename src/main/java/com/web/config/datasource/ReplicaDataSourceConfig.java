@@ -0,0 +1,87 @@
+package com.web.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Solo se activa con réplicas configuradas; si no, Spring Boot arma el DataSource único de siempre
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.replicas", name = "urls")
+public class ReplicaDataSourceConfig {
+
+    // Migraciones siempre contra el primario
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    // Los pools de réplica los administra el monitor (y los cierra al apagar)
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            DataSourceProperties properties,
+            Environment environment,
+            @Value("${datasource.replicas.urls}") List<String> urls,
+            @Value("${datasource.replicas.pool-size:10}") int poolSize,
+            @Value("${datasource.replicas.max-lag-ms:2000}") long maxLagMs) {
+        Binder binder = Binder.get(environment);
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            replicas.put("replica-" + i, replicaDataSource(properties, binder, urls.get(i).trim(), "replica-" + i, poolSize));
+        }
+        return new ReplicaLagMonitor(replicas, maxLagMs);
+    }
+
+    // Mismos spring.datasource.hikari.* que el primario (timeouts, prepareThreshold, caché de sentencias);
+    // solo cambian la URL, el nombre, el tamaño del pool y el modo de solo lectura
+    static HikariDataSource replicaDataSource(DataSourceProperties properties, Binder binder,
+                                              String url, String poolName, int poolSize) {
+        HikariDataSource replica = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+        replica.setJdbcUrl(url);
+        replica.setPoolName(poolName);
+        replica.setMaximumPoolSize(poolSize);
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    public ReadYourWritesPins readYourWritesPins(@Value("${datasource.replicas.read-your-writes-ms:5000}") long windowMs) {
+        return new ReadYourWritesPins(windowMs);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            HikariDataSource primaryDataSource,
+            ReplicaLagMonitor replicaLagMonitor,
+            ReadYourWritesPins readYourWritesPins) {
+        Map<Object, Object> targets = new HashMap<>(replicaLagMonitor.replicas());
+        targets.put(ReplicaRoutingDataSource.PRIMARY, primaryDataSource);
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(replicaLagMonitor, readYourWritesPins);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+
+        // La conexión real se pide en la primera sentencia, cuando ya se sabe si la transacción es readOnly
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
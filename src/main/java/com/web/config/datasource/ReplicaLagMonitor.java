@@ -0,0 +1,87 @@
+package com.web.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Mide el retraso de cada réplica; solo las que están bajo el tope reciben lecturas.
+// Hasta la primera medición todas las lecturas van al primario.
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    // Réplica al día (todo lo recibido ya aplicado) = 0 aunque el primario lleve rato sin escrituras.
+    // Eso solo vale si el receptor sigue conectado: sin streaming da NULL y la réplica sale de rotación
+    // (el usuario de la réplica necesita pg_monitor para leer pg_stat_wal_receiver.status)
+    private static final String LAG_MS_SQL = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN NULL
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+            END
+            """;
+
+    private final Map<String, HikariDataSource> replicas;
+    private final Map<String, JdbcTemplate> probes = new LinkedHashMap<>();
+    private final long maxLagMs;
+    private volatile List<String> healthy = List.of();
+
+    public ReplicaLagMonitor(Map<String, HikariDataSource> replicas, long maxLagMs) {
+        this.replicas = Map.copyOf(replicas);
+        replicas.forEach((key, dataSource) -> {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.setQueryTimeout(2);
+            probes.put(key, jdbcTemplate);
+        });
+        this.maxLagMs = maxLagMs;
+    }
+
+    public Map<String, HikariDataSource> replicas() {
+        return replicas;
+    }
+
+    public List<String> healthyReplicas() {
+        return healthy;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replicas.lag-check-interval-ms:1000}")
+    public void checkLag() {
+        List<String> current = new ArrayList<>(probes.size());
+        probes.forEach((key, jdbcTemplate) -> {
+            try {
+                Double lagMs = jdbcTemplate.queryForObject(LAG_MS_SQL, Double.class);
+                if (lagMs != null && lagMs <= maxLagMs) {
+                    current.add(key);
+                } else if (healthy.contains(key)) {
+                    if (lagMs == null) {
+                        log.warn("Réplica {} fuera de rotación: sin conexión de streaming con el primario", key);
+                    } else {
+                        log.warn("Réplica {} fuera de rotación: retraso de {} ms", key, lagMs);
+                    }
+                }
+            } catch (DataAccessException e) {
+                if (healthy.contains(key)) {
+                    log.warn("Réplica {} fuera de rotación: {}", key, e.getMessage());
+                }
+            }
+        });
+
+        List<String> previous = healthy;
+        healthy = List.copyOf(current);
+        if (!previous.equals(healthy)) {
+            log.info("Réplicas en rotación: {}", healthy);
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.values().forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,63 @@
+package com.web.config.datasource;
+
+import com.web.security.AuthenticatedUser;
+import com.web.util.TransactionCallbacks;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Elige primario o réplica al pedir la conexión. Va detrás de un LazyConnectionDataSourceProxy:
+// así el flag readOnly de la transacción ya está fijado cuando se resuelve la clave.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesPins pins;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(ReplicaLagMonitor lagMonitor, ReadYourWritesPins pins) {
+        this.lagMonitor = lagMonitor;
+        this.pins = pins;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        // Sin transacción (Flyway, jobs con JdbcTemplate) siempre al primario
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+
+        Long userId = currentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // La ventana empieza al confirmar la escritura, no al abrirla
+            if (userId != null) {
+                TransactionCallbacks.afterCommit(() -> pins.pin(userId));
+            }
+            return PRIMARY;
+        }
+
+        // Lectura justo después de una escritura del mismo usuario: la réplica podría no tenerla aún
+        if (userId != null && pins.isPinned(userId)) {
+            return PRIMARY;
+        }
+
+        List<String> healthy = lagMonitor.healthyReplicas();
+        if (healthy.isEmpty()) {
+            return PRIMARY;
+        }
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+    }
+
+    private Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.id();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,116 @@
+package com.web.config.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Registra solo las sentencias que superan el umbral, con sus parámetros.
+// Reemplaza a show-sql en producción: el costo es un proxy por sentencia y un System.nanoTime por ejecución.
+@Slf4j
+public class SlowQueryDataSource extends DelegatingDataSource {
+
+    private static final int MAX_PARAMETER_LENGTH = 100;
+
+    private final long thresholdNanos;
+
+    public SlowQueryDataSource(DataSource target, long thresholdMs) {
+        super(target);
+        this.thresholdNanos = thresholdMs * 1_000_000;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(super.getConnection(username, password));
+    }
+
+    private Connection wrapConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    String name = method.getName();
+                    if (result instanceof CallableStatement statement && name.equals("prepareCall")) {
+                        return wrapStatement(statement, CallableStatement.class, (String) args[0]);
+                    }
+                    if (result instanceof PreparedStatement statement && name.equals("prepareStatement")) {
+                        return wrapStatement(statement, PreparedStatement.class, (String) args[0]);
+                    }
+                    if (result instanceof Statement statement && name.equals("createStatement")) {
+                        return wrapStatement(statement, Statement.class, null);
+                    }
+                    return result;
+                });
+    }
+
+    private Object wrapStatement(Statement statement, Class<? extends Statement> type, String preparedSql) {
+        InvocationHandler handler = new InvocationHandler() {
+            // Índice -> valor de los set* desde la última ejecución
+            private final Map<Integer, Object> parameters = new TreeMap<>();
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    parameters.put(index, args[1]);
+                } else if (name.equals("clearParameters")) {
+                    parameters.clear();
+                }
+                if (!name.startsWith("execute")) {
+                    return SlowQueryDataSource.invoke(statement, method, args);
+                }
+
+                long startedAt = System.nanoTime();
+                try {
+                    return SlowQueryDataSource.invoke(statement, method, args);
+                } finally {
+                    long elapsed = System.nanoTime() - startedAt;
+                    if (elapsed >= thresholdNanos) {
+                        String sql = preparedSql != null ? preparedSql
+                                : args != null && args.length > 0 && args[0] instanceof String text ? text : "?";
+                        log.warn("Consulta lenta ({} ms, {}): {} | parámetros: {}",
+                                elapsed / 1_000_000, name, sql, describe(parameters));
+                    }
+                }
+            }
+        };
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    // Valores largos (hashes, JSON) se recortan para no inflar el log
+    private static String describe(Map<Integer, Object> parameters) {
+        StringBuilder description = new StringBuilder("{");
+        parameters.forEach((index, value) -> {
+            if (description.length() > 1) {
+                description.append(", ");
+            }
+            String text = String.valueOf(value);
+            description.append(index).append('=')
+                    .append(text.length() > MAX_PARAMETER_LENGTH ? text.substring(0, MAX_PARAMETER_LENGTH) + "…" : text);
+        });
+        return description.append('}').toString();
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.web.config.datasource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+// Opt-in: con datasource.slow-query.threshold-ms definido se envuelve el DataSource principal
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.slow-query", name = "threshold-ms")
+public class SlowQueryLoggingConfig {
+
+    // Estático para que el post-procesador no adelante la creación de esta configuración
+    @Bean
+    public static BeanPostProcessor slowQueryDataSourcePostProcessor(Environment environment) {
+        long thresholdMs = environment.getRequiredProperty("datasource.slow-query.threshold-ms", Long.class);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Solo el DataSource que usan JPA y JdbcTemplate; los pools internos conservan su tipo
+                if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                    return new SlowQueryDataSource(dataSource, thresholdMs);
+                }
+                return bean;
+            }
+        };
+    }
+}
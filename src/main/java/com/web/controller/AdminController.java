@@ -2,19 +2,22 @@ package com.web.controller;
 
 import com.web.dto.admin.ConfigResponse;
 import com.web.dto.admin.ConfigUpdateRequest;
+import com.web.dto.admin.IncidentCountResponse;
 import com.web.dto.admin.MetricsResponse;
-import com.web.repository.UserRepository;
+import com.web.security.AuthenticatedUser;
 import com.web.service.admin.ConfigService;
+import com.web.service.incident.IncidentService;
+import com.web.service.user.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/v1/admin")
@@ -23,7 +26,8 @@ import java.time.LocalDate;
 public class AdminController {
 
     private final ConfigService configService;
-    private final UserRepository userRepository;
+    private final IncidentService incidentService;
+    private final UserService userService;
 
     @GetMapping("/config")
     public ResponseEntity<ConfigResponse> getConfig() {
@@ -32,20 +36,24 @@ public class AdminController {
     }
 
     @PutMapping("/config")
-    public ResponseEntity<ConfigResponse> updateConfig(@Valid @RequestBody ConfigUpdateRequest request) {
-        Long userId = getCurrentUserId();
-        ConfigResponse response = configService.updateConfig(request, userId);
+    public ResponseEntity<ConfigResponse> updateConfig(
+            @Valid @RequestBody ConfigUpdateRequest request,
+            @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        ConfigResponse response = configService.updateConfig(request, currentUser.id());
         return ResponseEntity.ok(response);
     }
 
-    private Long getCurrentUserId() {
-        // Obtener userId del contexto de seguridad
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
+    @PutMapping("/users/{id}/activate")
+    public ResponseEntity<Void> activateUser(@PathVariable Long id) {
+        userService.activateUser(id);
+        return ResponseEntity.noContent().build();
+    }
 
-        // Buscar el usuario por email para obtener su ID
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado: " + email))
-                .getId();
+    @GetMapping("/incidents/counts")
+    public ResponseEntity<IncidentCountResponse> countIncidentsByType(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        IncidentCountResponse response = incidentService.countIncidentsByType(from, to);
+        return ResponseEntity.ok(response);
     }
 }
@@ -2,24 +2,36 @@ package com.web.controller;
 
 import com.web.dto.auth.Login.LoginRequest;
 import com.web.dto.auth.Login.LoginResponse;
+import com.web.dto.auth.Login.RefreshTokenRequest;
 import com.web.dto.auth.Login.RegisterRequest;
 import com.web.dto.auth.User.UserResponse;
+import com.web.exception.BusinessException;
 import com.web.service.auth.AuthService;
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/v1/auth")
-@RequiredArgsConstructor
 public class AuthController {
 
     private final AuthService authService;
+    private final ThreadPoolTaskExecutor loginExecutor;
+
+    public AuthController(AuthService authService,
+                          @Qualifier("loginExecutor") ThreadPoolTaskExecutor loginExecutor) {
+        this.authService = authService;
+        this.loginExecutor = loginExecutor;
+    }
 
     @PostMapping("/register")
     public ResponseEntity<UserResponse> register(@Valid @RequestBody RegisterRequest request) {
@@ -27,9 +39,20 @@ public class AuthController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    // El hashing corre en loginExecutor; el hilo de Tomcat queda libre mientras tanto
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request) {
-        LoginResponse response = authService.login(request);
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(@Valid @RequestBody LoginRequest request) {
+        try {
+            return CompletableFuture.supplyAsync(() -> ResponseEntity.ok(authService.login(request)), loginExecutor);
+        } catch (TaskRejectedException e) {
+            throw new BusinessException("Demasiados inicios de sesión simultáneos, intente de nuevo",
+                    HttpStatus.SERVICE_UNAVAILABLE, "LOGIN_BUSY");
+        }
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        LoginResponse response = authService.refresh(request.refreshToken());
         return ResponseEntity.ok(response);
     }
 }
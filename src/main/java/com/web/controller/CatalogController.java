@@ -5,9 +5,11 @@ import com.web.dto.catalog.Route.RouteDetailResponse;
 import com.web.dto.catalog.Route.RouteResponse;
 import com.web.dto.catalog.Route.RouteUpdateRequest;
 import com.web.dto.catalog.Stop.StopCreateRequest;
+import com.web.service.catalog.CatalogResponseCache;
 import com.web.service.catalog.RouteService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -21,22 +23,35 @@ import java.util.List;
 public class CatalogController {
 
     private final RouteService routeService;
+    private final CatalogResponseCache responseCache;
 
-    // Endpoints públicos (consulta)
+    // Endpoints públicos (consulta), servidos desde el caché de respuestas:
+    // con If-None-Match vigente se responde 304 sin cuerpo
 
     @GetMapping
-    public ResponseEntity<List<RouteResponse>> getAllRoutes() {
-        return ResponseEntity.ok(routeService.getAllRoutes());
+    public ResponseEntity<List<RouteResponse>> getAllRoutes(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return responseCache.routes(routeService::getAllRoutes)
+                .toResponse(ifNoneMatch, accept, responseCache.routesCacheControl());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<RouteDetailResponse> getRouteById(@PathVariable Long id) {
-        return ResponseEntity.ok(routeService.getRouteById(id));
+    public ResponseEntity<RouteDetailResponse> getRouteById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return responseCache.route(id, () -> routeService.getRouteById(id))
+                .toResponse(ifNoneMatch, accept, responseCache.routesCacheControl());
     }
 
     @GetMapping("/{id}/stops")
-    public ResponseEntity<RouteDetailResponse> getRouteWithStops(@PathVariable Long id) {
-        return ResponseEntity.ok(routeService.getRouteById(id));
+    public ResponseEntity<RouteDetailResponse> getRouteWithStops(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return responseCache.route(id, () -> routeService.getRouteById(id))
+                .toResponse(ifNoneMatch, accept, responseCache.routesCacheControl());
     }
 
     // Endpoints protegidos (solo ADMIN)
@@ -2,13 +2,23 @@ package com.web.controller;
 
 import com.web.dto.dispatch.Assignment.AssignmentCreateRequest;
 import com.web.dto.dispatch.Assignment.AssignmentResponse;
+import com.web.dto.dispatch.BoardingScanRequest;
+import com.web.dto.dispatch.BoardingScanResponse;
+import com.web.dto.dispatch.Manifest.TripManifestDeltaResponse;
+import com.web.dto.dispatch.Manifest.TripManifestResponse;
+import com.web.dto.parcel.TripCargoCapacityResponse;
 import com.web.dto.trip.TripResponse;
 import com.web.exception.BusinessException;
 import com.web.service.dispatch.AssignmentService;
 import com.web.service.dispatch.BoardingService;
+import com.web.service.dispatch.ManifestService;
+import com.web.service.parcel.CargoLedgerService;
+import com.web.util.ETags;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -20,6 +30,8 @@ public class DispatchController {
 
     private final AssignmentService assignmentService;
     private final BoardingService boardingService;
+    private final ManifestService manifestService;
+    private final CargoLedgerService cargoLedgerService;
 
     @PostMapping("/assign")
     @PreAuthorize("hasRole('DISPATCHER')")
@@ -63,6 +75,16 @@ public class DispatchController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/boarding/scan")
+    @PreAuthorize("hasAnyRole('DRIVER', 'DISPATCHER')")
+    public ResponseEntity<BoardingScanResponse> scanTicket(
+            @PathVariable Long tripId,
+            @RequestBody @Valid BoardingScanRequest request) {
+
+        BoardingScanResponse response = boardingService.scanTicket(tripId, request);
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/depart")
     @PreAuthorize("hasRole('DRIVER')")
     public ResponseEntity<TripResponse> departTrip(
@@ -71,4 +93,55 @@ public class DispatchController {
         TripResponse response = boardingService.departTrip(tripId);
         return ResponseEntity.ok(response);
     }
+
+    // Manifiesto completo; si el cliente acepta gzip se envía el payload ya comprimido.
+    // Cada codificación tiene su propio ETag y Vary: Accept-Encoding para que un proxy no las mezcle
+    @GetMapping("/manifest")
+    @PreAuthorize("hasAnyRole('DRIVER', 'DISPATCHER')")
+    public ResponseEntity<?> getManifest(
+            @PathVariable Long tripId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        if (acceptEncoding == null || !acceptEncoding.contains("gzip")) {
+            TripManifestResponse response = manifestService.getManifest(tripId);
+            String eTag = "\"" + response.version() + "\"";
+            if (ETags.matches(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+            }
+            return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT_ENCODING).body(response);
+        }
+
+        ManifestService.CompressedManifest manifest = manifestService.getCompressedManifest(tripId);
+        String eTag = "\"" + manifest.version() + "-gzip\"";
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(manifest.payload());
+    }
+
+    // Ventas tardías y cambios de estado desde la versión que tiene el conductor
+    @GetMapping("/manifest/delta")
+    @PreAuthorize("hasAnyRole('DRIVER', 'DISPATCHER')")
+    public ResponseEntity<TripManifestDeltaResponse> getManifestDelta(
+            @PathVariable Long tripId,
+            @RequestParam Long sinceVersion) {
+
+        TripManifestDeltaResponse response = manifestService.getDelta(tripId, sinceVersion);
+        return ResponseEntity.ok(response);
+    }
+
+    // Capacidad de bodega restante por tramo, servida desde el libro de carga en memoria
+    @GetMapping("/cargo")
+    @PreAuthorize("hasAnyRole('DISPATCHER', 'CLERK')")
+    public ResponseEntity<TripCargoCapacityResponse> getCargoCapacity(@PathVariable Long tripId) {
+        TripCargoCapacityResponse response = cargoLedgerService.getRemainingCapacity(tripId);
+        return ResponseEntity.ok(response);
+    }
 }
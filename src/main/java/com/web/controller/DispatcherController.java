@@ -0,0 +1,54 @@
+package com.web.controller;
+
+import com.web.dto.dispatch.AutoAssignment.AutoAssignmentRequest;
+import com.web.dto.dispatch.AutoAssignment.AutoAssignmentResponse;
+import com.web.dto.dispatch.Board.DispatchBoardResponse;
+import com.web.security.AuthenticatedUser;
+import com.web.service.dispatch.AutoAssignmentService;
+import com.web.service.dispatch.DispatchBoardService;
+import com.web.util.ETags;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+// Operaciones del despachador que abarcan varios viajes
+@RestController
+@RequestMapping("/api/v1/dispatch")
+@PreAuthorize("hasRole('DISPATCHER')")
+@RequiredArgsConstructor
+public class DispatcherController {
+
+    private final AutoAssignmentService autoAssignmentService;
+    private final DispatchBoardService dispatchBoardService;
+
+    // Tablero de viajes de las próximas horas; un refresco sin cambios se resuelve con 304 sin armar el tablero
+    @GetMapping("/board")
+    public ResponseEntity<DispatchBoardResponse> getBoard(
+            @RequestParam(defaultValue = "12") int hours,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        if (ifNoneMatch != null) {
+            String eTag = "\"" + dispatchBoardService.getVersion(hours) + "\"";
+            if (ETags.matches(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        }
+
+        DispatchBoardResponse response = dispatchBoardService.getBoard(hours);
+        return ResponseEntity.ok().eTag("\"" + response.version() + "\"").body(response);
+    }
+
+    // Propone (o guarda, con dryRun=false) conductores para los viajes sin asignar del horizonte
+    @PostMapping("/auto-assign")
+    public ResponseEntity<AutoAssignmentResponse> autoAssign(
+            @Valid @RequestBody AutoAssignmentRequest request,
+            @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        AutoAssignmentResponse response = autoAssignmentService.autoAssign(request, currentUser.id());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,62 @@
+package com.web.controller;
+
+import com.web.dto.common.CursorPageResponse;
+import com.web.dto.dispatch.Schedule.DriverScheduleEntry;
+import com.web.security.AuthenticatedUser;
+import com.web.service.dispatch.AssignmentService;
+import com.web.util.ETags;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/v1/drivers")
+@RequiredArgsConstructor
+public class DriverController {
+
+    private final AssignmentService assignmentService;
+
+    // Agenda del conductor autenticado (app móvil); la compresión gzip la aplica el servidor
+    @GetMapping("/me/schedule")
+    @PreAuthorize("hasRole('DRIVER')")
+    public ResponseEntity<CursorPageResponse<DriverScheduleEntry>> getMySchedule(
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return schedule(currentUser.id(), from, days, cursor, size, ifNoneMatch);
+    }
+
+    @GetMapping("/{driverId}/schedule")
+    @PreAuthorize("hasAnyRole('DISPATCHER', 'ADMIN')")
+    public ResponseEntity<CursorPageResponse<DriverScheduleEntry>> getDriverSchedule(
+            @PathVariable Long driverId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return schedule(driverId, from, days, cursor, size, ifNoneMatch);
+    }
+
+    // Sin cambios en la agenda se responde 304 sin cuerpo
+    private ResponseEntity<CursorPageResponse<DriverScheduleEntry>> schedule(
+            Long driverId, LocalDate from, int days, String cursor, int size, String ifNoneMatch) {
+        AssignmentService.DriverSchedulePage schedule =
+                assignmentService.getDriverSchedule(driverId, from, days, cursor, size);
+        String eTag = "\"" + schedule.version() + "\"";
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(schedule.page());
+    }
+}
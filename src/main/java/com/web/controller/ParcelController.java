@@ -1,11 +1,17 @@
 package com.web.controller;
 
+import com.web.dto.common.CursorPageResponse;
+import com.web.dto.parcel.ParcelBulkCreateRequest;
+import com.web.dto.parcel.ParcelBulkStatusRequest;
+import com.web.dto.parcel.ParcelBulkStatusResponse;
 import com.web.dto.parcel.ParcelCreateRequest;
 import com.web.dto.parcel.ParcelResponse;
 import com.web.dto.parcel.ParcelStatusUpdateRequest;
+import com.web.dto.parcel.ParcelTrackingResponse;
 import com.web.entity.Parcel;
 import com.web.exception.BusinessException;
 import com.web.service.parcel.ParcelService;
+import com.web.service.parcel.ParcelTrackingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -21,6 +27,7 @@ import java.util.List;
 public class ParcelController {
     
     private final ParcelService parcelService;
+    private final ParcelTrackingService parcelTrackingService;
     
     // Listar todos los parcels (solo CLERK o ADMIN)
     @GetMapping
@@ -29,6 +36,17 @@ public class ParcelController {
         List<ParcelResponse> response = parcelService.getAllParcels();
         return ResponseEntity.ok(response);
     }
+
+    // Búsqueda de mostrador por fragmento de código, teléfono o nombre
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('CLERK', 'ADMIN')")
+    public ResponseEntity<CursorPageResponse<ParcelResponse>> searchParcels(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPageResponse<ParcelResponse> response = parcelService.searchParcels(q, cursor, size);
+        return ResponseEntity.ok(response);
+    }
     
     @PostMapping
     @PreAuthorize("hasAnyRole('CLERK', 'ADMIN')")
@@ -37,10 +55,27 @@ public class ParcelController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
-    // Rastrear encomienda por código
+    // Ingreso masivo de encomiendas para un viaje
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAnyRole('CLERK', 'ADMIN')")
+    public ResponseEntity<List<ParcelResponse>> createParcels(@Valid @RequestBody ParcelBulkCreateRequest request) {
+        List<ParcelResponse> response = parcelService.createParcels(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    // Carga de todas las encomiendas de un viaje en una parada (la entrega exige OTP por encomienda)
+    @PutMapping("/bulk/status")
+    @PreAuthorize("hasAnyRole('CLERK', 'DRIVER', 'ADMIN')")
+    public ResponseEntity<ParcelBulkStatusResponse> updateStatusAtStop(
+            @Valid @RequestBody ParcelBulkStatusRequest request) {
+        ParcelBulkStatusResponse response = parcelService.updateStatusAtStop(request);
+        return ResponseEntity.ok(response);
+    }
+
+    // Rastrear encomienda por código (público, servido desde el modelo de lectura)
     @GetMapping("/{code}/track")
-    public ResponseEntity<ParcelResponse> trackParcel(@PathVariable String code) {
-        ParcelResponse response = parcelService.trackParcel(code);
+    public ResponseEntity<ParcelTrackingResponse> trackParcel(@PathVariable String code) {
+        ParcelTrackingResponse response = parcelTrackingService.getTracking(code);
         return ResponseEntity.ok(response);
     }
     
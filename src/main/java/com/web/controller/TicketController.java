@@ -1,13 +1,15 @@
 package com.web.controller;
 
+import com.web.dto.common.CursorPageResponse;
 import com.web.dto.ticket.TicketCancelRequest;
 import com.web.dto.ticket.TicketCancelResponse;
 import com.web.dto.ticket.TicketCreateRequest;
 import com.web.dto.ticket.TicketResponse;
+import com.web.dto.ticket.TicketSummaryResponse;
 import com.web.dto.ticket.reservations.SeatHoldRequest;
 import com.web.dto.ticket.reservations.SeatHoldResponse;
 import com.web.exception.BusinessException;
-import com.web.repository.UserRepository;
+import com.web.security.AuthenticatedUser;
 import com.web.service.ticket.SeatHoldService;
 import com.web.service.ticket.TicketService;
 import jakarta.validation.Valid;
@@ -15,12 +17,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/v1")
 @RequiredArgsConstructor
@@ -28,7 +27,6 @@ public class TicketController {
 
     private final TicketService ticketService;
     private final SeatHoldService seatHoldService;
-    private final UserRepository userRepository;
 
     // CASO DE USO 2: Hold de 10 minutos
     @PostMapping("/trips/{tripId}/seats/{seatNumber}/hold")
@@ -97,17 +95,14 @@ public class TicketController {
 
     @GetMapping("/tickets/my-tickets")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<TicketResponse>> getMyTickets() {
-        // Obtener userId del contexto de seguridad
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-
-        // Buscar el usuario por email para obtener su ID
-        Long userId = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado: " + email))
-                .getId();
-
-        List<TicketResponse> response = ticketService.getUserTickets(userId);
+    public ResponseEntity<CursorPageResponse<TicketSummaryResponse>> getMyTickets(
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
+            @RequestParam(defaultValue = "false") boolean upcoming,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        // El userId viene en los claims del JWT; una sola consulta por página
+        CursorPageResponse<TicketSummaryResponse> response =
+                ticketService.getUserTicketHistory(currentUser.id(), upcoming, cursor, size);
         return ResponseEntity.ok(response);
     }
 }
@@ -1,15 +1,19 @@
 package com.web.controller;
 
-import com.web.dto.trip.SeatStatusResponse;
+import com.web.dto.ticket.reservations.SeatStatusResponse;
 import com.web.dto.trip.TripCreateRequest;
+import com.web.dto.trip.SeatMapResponse;
 import com.web.dto.trip.TripDetailResponse;
 import com.web.dto.trip.TripResponse;
+import com.web.entity.Seat;
 import com.web.entity.Trip;
 import com.web.exception.BusinessException;
+import com.web.service.catalog.CatalogResponseCache;
 import com.web.service.trip.TripService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -24,6 +28,7 @@ import java.util.List;
 public class TripController {
 
     private final TripService tripService;
+    private final CatalogResponseCache responseCache;
 
     // Endpoints públicos (consulta)
 
@@ -40,9 +45,14 @@ public class TripController {
         return ResponseEntity.ok(tripService.searchTrips(routeId, date));
     }
 
+    // Servido desde el caché de respuestas; el cliente revalida con If-None-Match
     @GetMapping("/{id}")
-    public ResponseEntity<TripDetailResponse> getTripById(@PathVariable Long id) {
-        return ResponseEntity.ok(tripService.getTripById(id));
+    public ResponseEntity<TripDetailResponse> getTripById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return responseCache.trip(id, () -> tripService.getTripById(id))
+                .toResponse(ifNoneMatch, accept, responseCache.tripsCacheControl());
     }
 
     @GetMapping("/{id}/seats")
@@ -53,6 +63,25 @@ public class TripController {
         return ResponseEntity.ok(tripService.getSeatAvailability(id, fromStopId, toStopId));
     }
 
+    // Variante compacta para conexiones lentas: estado y tipo de asiento como cadenas de un carácter por asiento
+    @GetMapping("/{id}/seat-map")
+    public ResponseEntity<SeatMapResponse> getSeatMap(
+            @PathVariable Long id,
+            @RequestParam Long fromStopId,
+            @RequestParam Long toStopId) {
+        return ResponseEntity.ok(tripService.getSeatMap(id, fromStopId, toStopId));
+    }
+
+    // Sugerencia de asiento para el tramo; la compra sigue validando contra la BD
+    @GetMapping("/{id}/best-seat")
+    public ResponseEntity<SeatStatusResponse> findBestSeat(
+            @PathVariable Long id,
+            @RequestParam Long fromStopId,
+            @RequestParam Long toStopId,
+            @RequestParam(defaultValue = "STANDARD") Seat.SeatType seatType) {
+        return ResponseEntity.ok(tripService.findBestSeat(id, fromStopId, toStopId, seatType));
+    }
+
     // Endpoints protegidos (solo ADMIN)
 
     @PostMapping
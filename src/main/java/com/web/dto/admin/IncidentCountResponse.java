@@ -0,0 +1,14 @@
+package com.web.dto.admin;
+
+import com.web.entity.Incident;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public record IncidentCountResponse(
+    LocalDateTime from,
+    LocalDateTime to,
+    Map<Incident.IncidentType, Long> countsByType,
+    Long total
+) implements Serializable {}
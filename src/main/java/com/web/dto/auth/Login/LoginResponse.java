@@ -7,6 +7,7 @@ import java.io.Serializable;
 public record LoginResponse(
     String token,
     String tokenType,  // "Bearer"
+    Long expiresIn,  // Segundos de vida del access token
+    String refreshToken,  // Para POST /auth/refresh sin volver a enviar la contraseña
     UserResponse user
 ) implements Serializable {}
-
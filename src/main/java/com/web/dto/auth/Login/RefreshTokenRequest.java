@@ -0,0 +1,9 @@
+package com.web.dto.auth.Login;
+
+import jakarta.validation.constraints.NotBlank;
+
+import java.io.Serializable;
+
+public record RefreshTokenRequest(
+        @NotBlank String refreshToken) implements Serializable {
+}
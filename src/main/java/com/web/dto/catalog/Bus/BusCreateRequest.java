@@ -2,13 +2,16 @@ package com.web.dto.catalog.Bus;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
 import java.util.Map;
 
 public record BusCreateRequest(
     @NotBlank String plate,
     @NotNull Integer capacity,
+    @Positive BigDecimal cargoCapacityKg,  // Opcional, 500 kg por defecto
     Map<String, Object> amenities
 ) implements Serializable {}
 
@@ -3,12 +3,14 @@ package com.web.dto.catalog.Bus;
 import com.web.entity.Bus;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
 import java.util.Map;
 
 public record BusResponse(
     Long id,
     String plate,
     Integer capacity,
+    BigDecimal cargoCapacityKg,
     Map<String, Object> amenities,  // JSON
     Bus.BusStatus status
 ) implements Serializable {}
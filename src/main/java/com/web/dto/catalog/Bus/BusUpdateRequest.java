@@ -1,12 +1,15 @@
 package com.web.dto.catalog.Bus;
 
 import com.web.entity.Bus;
+import jakarta.validation.constraints.Positive;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
 import java.util.Map;
 
 public record BusUpdateRequest(
     Integer capacity,
+    @Positive BigDecimal cargoCapacityKg,
     Map<String, Object> amenities,
     Bus.BusStatus status
 ) implements Serializable {}
@@ -19,6 +19,7 @@ public interface BusMapper {
     // Request → Entity
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "status", constant = "ACTIVE")
+    @Mapping(target = "cargoCapacityKg", defaultValue = "500.00")
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "seats", ignore = true)
     @Mapping(target = "trips", ignore = true)
@@ -0,0 +1,12 @@
+package com.web.dto.common;
+
+import java.io.Serializable;
+import java.util.List;
+
+// Para paginación por keyset (sin OFFSET ni COUNT)
+public record CursorPageResponse<T>(
+    List<T> content,
+    Integer pageSize,
+    String nextCursor,  // null si es la última página
+    Boolean hasNext
+) implements Serializable {}
@@ -0,0 +1,14 @@
+package com.web.dto.dispatch.AutoAssignment;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+public record AutoAssignmentRequest(
+    @NotNull LocalDate fromDate,
+    @NotNull @Min(1) @Max(14) Integer days,
+    Boolean dryRun  // null o true: solo propone, false: guarda el plan
+) implements Serializable {}
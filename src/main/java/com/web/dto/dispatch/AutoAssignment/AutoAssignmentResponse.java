@@ -0,0 +1,14 @@
+package com.web.dto.dispatch.AutoAssignment;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.List;
+
+public record AutoAssignmentResponse(
+    LocalDate fromDate,
+    LocalDate toDate,
+    Boolean dryRun,
+    Integer appliedCount,  // 0 en modo de prueba
+    List<ProposedAssignment> assignments,
+    List<Long> unassignedTripIds  // Viajes sin conductor que cumpla horario y descanso
+) implements Serializable {}
@@ -0,0 +1,13 @@
+package com.web.dto.dispatch.AutoAssignment;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+public record ProposedAssignment(
+    Long tripId,
+    String routeName,
+    LocalDateTime departureTime,
+    LocalDateTime arrivalEta,
+    Long driverId,
+    String driverName
+) implements Serializable {}
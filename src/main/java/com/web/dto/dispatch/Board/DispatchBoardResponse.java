@@ -0,0 +1,11 @@
+package com.web.dto.dispatch.Board;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record DispatchBoardResponse(
+    String version,  // Mismo valor que el ETag
+    LocalDateTime until,
+    List<DispatchBoardRow> trips
+) implements Serializable {}
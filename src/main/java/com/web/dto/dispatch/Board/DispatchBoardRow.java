@@ -0,0 +1,21 @@
+package com.web.dto.dispatch.Board;
+
+import com.web.entity.Trip;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+public record DispatchBoardRow(
+    Long tripId,
+    String routeCode,
+    String busPlate,
+    LocalDateTime departureTime,
+    LocalDateTime arrivalEta,
+    Trip.TripStatus status,
+    Long driverId,  // null si el viaje no tiene asignación
+    String driverName,
+    Boolean checklistOk,
+    Long soldTickets,
+    Integer capacity,
+    Long pendingParcels  // CREATED o IN_TRANSIT
+) implements Serializable {}
@@ -0,0 +1,11 @@
+package com.web.dto.dispatch;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.io.Serializable;
+
+public record BoardingScanRequest(
+    @NotBlank String qrCode,
+    @NotNull Long stopId  // Parada donde está la puerta de abordaje
+) implements Serializable {}
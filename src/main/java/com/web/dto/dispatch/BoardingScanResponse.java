@@ -0,0 +1,12 @@
+package com.web.dto.dispatch;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+public record BoardingScanResponse(
+    Long ticketId,
+    Integer seatNumber,  // Null en sobreventa: ocupa un asiento que haya quedado vacío
+    Integer fromStopOrder,
+    Integer toStopOrder,
+    LocalDateTime boardedAt
+) implements Serializable {}
@@ -0,0 +1,15 @@
+package com.web.dto.dispatch.Manifest;
+
+import com.web.entity.Parcel;
+
+import java.io.Serializable;
+
+// Sin hash del OTP: una copia del manifiesto permitiría adivinarlo offline; la entrega lo valida el servidor
+public record ManifestParcelEntry(
+    Long parcelId,
+    String code,
+    Long fromStopId,
+    Long toStopId,
+    Parcel.ParcelStatus status,
+    Long version
+) implements Serializable {}
@@ -0,0 +1,12 @@
+package com.web.dto.dispatch.Manifest;
+
+import java.io.Serializable;
+import java.util.List;
+
+public record ManifestStopEntry(
+    Long stopId,
+    String stopName,
+    Integer order,
+    List<ManifestTicketEntry> boarding,  // Tickets que abordan en esta parada
+    List<ManifestParcelEntry> deliveries  // Encomiendas que se entregan en esta parada
+) implements Serializable {}
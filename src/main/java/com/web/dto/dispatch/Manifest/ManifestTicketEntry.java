@@ -0,0 +1,16 @@
+package com.web.dto.dispatch.Manifest;
+
+import com.web.entity.Ticket;
+
+import java.io.Serializable;
+
+public record ManifestTicketEntry(
+    Long ticketId,
+    Integer seatNumber,
+    Long fromStopId,
+    Integer fromStopOrder,
+    Integer toStopOrder,
+    String qrHash,  // SHA-256 del código QR, se valida offline
+    Ticket.TicketStatus status,
+    Long version  // Versión del manifiesto en que cambió la entrada
+) implements Serializable {}
@@ -0,0 +1,14 @@
+package com.web.dto.dispatch.Manifest;
+
+import java.io.Serializable;
+import java.util.List;
+
+// Cambios desde una versión (ventas tardías, cancelaciones, estados de encomiendas)
+public record TripManifestDeltaResponse(
+    Long tripId,
+    Long sinceVersion,
+    Long version,
+    Boolean fullReloadRequired,  // true si sinceVersion no pertenece a este manifiesto
+    List<ManifestTicketEntry> tickets,
+    List<ManifestParcelEntry> parcels
+) implements Serializable {}
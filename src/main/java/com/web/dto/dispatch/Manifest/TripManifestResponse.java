@@ -0,0 +1,15 @@
+package com.web.dto.dispatch.Manifest;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Manifiesto completo del viaje para operación offline del conductor
+public record TripManifestResponse(
+    Long tripId,
+    Long baseVersion,  // Versión con la que se generó el manifiesto
+    Long version,  // Versión actual (baseVersion + cambios posteriores)
+    LocalDateTime generatedAt,
+    Integer busCapacity,
+    List<ManifestStopEntry> stops  // Ordenadas por order
+) implements Serializable {}
@@ -0,0 +1,19 @@
+package com.web.dto.dispatch.Schedule;
+
+import com.web.entity.Trip;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// Fila compacta para la app del conductor
+public record DriverScheduleEntry(
+    Long assignmentId,
+    Long tripId,
+    String routeCode,
+    String routeName,
+    String busPlate,
+    LocalDateTime departureTime,
+    LocalDateTime arrivalEta,
+    Trip.TripStatus status,
+    Boolean checklistOk
+) implements Serializable {}
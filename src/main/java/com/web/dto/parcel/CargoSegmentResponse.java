@@ -0,0 +1,13 @@
+package com.web.dto.parcel;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+public record CargoSegmentResponse(
+    Long fromStopId,
+    String fromStopName,
+    Long toStopId,
+    String toStopName,
+    BigDecimal committedKg,
+    BigDecimal remainingKg
+) implements Serializable {}
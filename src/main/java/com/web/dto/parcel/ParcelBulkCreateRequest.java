@@ -0,0 +1,14 @@
+package com.web.dto.parcel;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.io.Serializable;
+import java.util.List;
+
+public record ParcelBulkCreateRequest(
+    @NotNull Long tripId,
+    @NotEmpty @Size(max = 500) List<@Valid ParcelBulkItem> parcels
+) implements Serializable {}
@@ -0,0 +1,19 @@
+package com.web.dto.parcel;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+// Una encomienda dentro de un ingreso masivo; el viaje lo define el request
+public record ParcelBulkItem(
+    @NotBlank String senderName,
+    @NotBlank String senderPhone,
+    @NotBlank String receiverName,
+    @NotBlank String receiverPhone,
+    @NotNull Long fromStopId,
+    @NotNull Long toStopId,
+    @NotNull BigDecimal price,
+    BigDecimal weightKg
+) implements Serializable {}
@@ -0,0 +1,12 @@
+package com.web.dto.parcel;
+
+import com.web.entity.Parcel;
+import jakarta.validation.constraints.NotNull;
+
+import java.io.Serializable;
+
+public record ParcelBulkStatusRequest(
+    @NotNull Long tripId,
+    @NotNull Long stopId,
+    @NotNull Parcel.ParcelStatus status  // Solo IN_TRANSIT (carga en origen); la entrega va con OTP
+) implements Serializable {}
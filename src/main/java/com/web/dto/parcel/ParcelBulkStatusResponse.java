@@ -0,0 +1,14 @@
+package com.web.dto.parcel;
+
+import com.web.entity.Parcel;
+
+import java.io.Serializable;
+import java.util.List;
+
+public record ParcelBulkStatusResponse(
+    Long tripId,
+    Long stopId,
+    Parcel.ParcelStatus status,
+    Integer updatedCount,
+    List<String> codes
+) implements Serializable {}
@@ -0,0 +1,11 @@
+package com.web.dto.parcel;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.List;
+
+public record TripCargoCapacityResponse(
+    Long tripId,
+    BigDecimal capacityKg,
+    List<CargoSegmentResponse> segments  // En orden de la ruta
+) implements Serializable {}
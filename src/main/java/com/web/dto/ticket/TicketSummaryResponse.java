@@ -0,0 +1,28 @@
+package com.web.dto.ticket;
+
+import com.web.entity.Ticket;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Proyección para "mis tickets": se construye directo en JPQL, sin cargar entidades
+public record TicketSummaryResponse(
+    Long id,
+    Long tripId,
+    String routeName,
+    LocalDate tripDate,
+    LocalDateTime departureTime,
+    Integer seatNumber,
+    String fromStopName,
+    Integer fromStopOrder,
+    String toStopName,
+    Integer toStopOrder,
+    BigDecimal price,
+    Ticket.PaymentMethod paymentMethod,
+    Ticket.TicketStatus status,
+    String qrCode,
+    LocalDateTime purchasedAt,
+    String baggageTagCode  // Puede ser null
+) implements Serializable {}
@@ -40,6 +40,7 @@ public interface TicketMapper {
     @Mapping(target = "status", constant = "SOLD")
     @Mapping(target = "qrCode", ignore = true) // Se genera en servicio
     @Mapping(target = "purchasedAt", ignore = true)
+    @Mapping(target = "boardedAt", ignore = true) // Se registra al escanear en puerta
     @Mapping(target = "baggage", ignore = true) // Se maneja separadamente
     Ticket toEntity(TicketCreateRequest request);
 }
@@ -0,0 +1,30 @@
+package com.web.dto.trip;
+
+import java.io.Serializable;
+import java.util.Map;
+
+// Mapa de asientos en columnas para clientes móviles: un carácter por asiento
+// (posición 0 = asiento 1) en lugar de un objeto con nombres de campo por asiento
+public record SeatMapResponse(
+    Long tripId,
+    Long fromStopId,
+    Long toStopId,
+    Integer capacity,
+    String status,  // Ver STATUS_LEGEND
+    String seatTypes,  // Ver SEAT_TYPE_LEGEND
+    Integer availableCount
+) implements Serializable {
+
+    public static final char AVAILABLE = 'A';
+    public static final char SOLD = 'S';
+    public static final char HELD = 'H';
+
+    public static final char STANDARD = 'S';
+    public static final char PREFERENTIAL = 'P';
+
+    // Constantes para la documentación del cliente; no viajan en cada respuesta
+    public static final Map<Character, String> STATUS_LEGEND =
+            Map.of(AVAILABLE, "AVAILABLE", SOLD, "SOLD", HELD, "HELD");
+    public static final Map<Character, String> SEAT_TYPE_LEGEND =
+            Map.of(STANDARD, "STANDARD", PREFERENTIAL, "PREFERENTIAL");
+}
@@ -0,0 +1,72 @@
+package com.web.dto.trip;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Números de asiento como rangos: [1..12, 15, 18..40] -> "1-12,15,18-40".
+// Un bus casi vacío son pocos bytes en lugar de una lista de 40 números.
+public final class SeatRanges {
+
+    private SeatRanges() {
+    }
+
+    // Espera la lista ordenada ascendente
+    public static String format(List<Integer> seatNumbers) {
+        StringBuilder ranges = new StringBuilder();
+        int i = 0;
+        while (i < seatNumbers.size()) {
+            int start = seatNumbers.get(i);
+            int end = start;
+            while (i + 1 < seatNumbers.size() && seatNumbers.get(i + 1) == end + 1) {
+                end = seatNumbers.get(++i);
+            }
+            if (!ranges.isEmpty()) {
+                ranges.append(',');
+            }
+            ranges.append(start);
+            if (end > start) {
+                ranges.append('-').append(end);
+            }
+            i++;
+        }
+        return ranges.toString();
+    }
+
+    public static List<Integer> parse(String ranges) {
+        List<Integer> seatNumbers = new ArrayList<>();
+        if (ranges == null || ranges.isBlank()) {
+            return seatNumbers;
+        }
+        for (String range : ranges.split(",")) {
+            int dash = range.indexOf('-');
+            int start = Integer.parseInt(range.substring(0, dash < 0 ? range.length() : dash).trim());
+            int end = dash < 0 ? start : Integer.parseInt(range.substring(dash + 1).trim());
+            for (int seat = start; seat <= end; seat++) {
+                seatNumbers.add(seat);
+            }
+        }
+        return seatNumbers;
+    }
+
+    public static class Serializer extends JsonSerializer<List<Integer>> {
+        @Override
+        public void serialize(List<Integer> value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeString(format(value));
+        }
+    }
+
+    public static class Deserializer extends JsonDeserializer<List<Integer>> {
+        @Override
+        public List<Integer> deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return parse(parser.getValueAsString());
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.web.dto.trip;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.web.dto.catalog.Bus.BusResponse;
 import com.web.dto.catalog.Route.RouteResponse;
 import com.web.dto.dispatch.Assignment.AssignmentResponse;
@@ -23,5 +25,8 @@ public record TripDetailResponse(
         Integer soldSeats,
         Integer availableSeats,
         Double occupancyPercentage,
+        // Libres en todo el recorrido, en rangos ("1-12,15,18-40")
+        @JsonSerialize(using = SeatRanges.Serializer.class)
+        @JsonDeserialize(using = SeatRanges.Deserializer.class)
         List<Integer> availableSeatNumbers) implements Serializable {
 }
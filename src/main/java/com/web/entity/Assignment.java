@@ -5,8 +5,14 @@ import lombok.*;
 
 import java.time.LocalDateTime;
 
+// Lista de asignaciones (AssignmentMapper): viaje, conductor y despachador
 @Entity
 @Table(name = "assignments")
+@NamedEntityGraph(name = Assignment.LIST_GRAPH, attributeNodes = {
+        @NamedAttributeNode("trip"),
+        @NamedAttributeNode("driver"),
+        @NamedAttributeNode("dispatcher")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -14,6 +20,8 @@ import java.time.LocalDateTime;
 @Builder
 public class Assignment {
 
+    public static final String LIST_GRAPH = "Assignment.list";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
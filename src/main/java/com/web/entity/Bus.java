@@ -5,6 +5,7 @@ import lombok.*;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -28,6 +29,10 @@ public class Bus {
     @Column(nullable = false)
     private Integer capacity;
 
+    @Column(name = "cargo_capacity_kg", nullable = false, precision = 8, scale = 2)
+    @Builder.Default
+    private BigDecimal cargoCapacityKg = new BigDecimal("500.00");
+
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(columnDefinition = "jsonb")
     private Map<String, Object> amenities;
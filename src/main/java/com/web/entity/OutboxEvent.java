@@ -0,0 +1,76 @@
+package com.web.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_events")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "aggregate_type", nullable = false, length = 20)
+    private AggregateType aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 40)
+    private EventType eventType;
+
+    // JSON con los datos del evento
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    public enum AggregateType {
+        TICKET,
+        SEAT_HOLD,
+        TRIP,
+        PARCEL
+    }
+
+    public enum EventType {
+        TICKET_SOLD,
+        TICKET_CANCELLED,
+        TICKET_NO_SHOW,
+        SEAT_HELD,
+        SEAT_HOLD_CONVERTED,
+        SEAT_HOLDS_EXPIRED,
+        TRIP_CREATED,
+        TRIP_STATUS_CHANGED,
+        TRIP_CANCELLED,
+        TICKETS_REFUNDED,
+        BOARDING_OPENED,
+        BOARDING_CLOSED,
+        TRIP_DEPARTED,
+        TRIP_ASSIGNED,
+        TRIP_CHECKLIST_UPDATED,
+        PARCEL_CREATED,
+        PARCEL_STATUS_CHANGED,
+        PARCEL_DELIVERED,
+        PARCEL_BATCH_CREATED,
+        PARCEL_BATCH_STATUS_CHANGED
+    }
+}
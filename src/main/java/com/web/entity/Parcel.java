@@ -6,8 +6,14 @@ import lombok.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+// Lista de encomiendas (ParcelMapper): viaje con ruta y tramo
 @Entity
 @Table(name = "parcels")
+@NamedEntityGraph(name = Parcel.LIST_GRAPH, attributeNodes = {
+        @NamedAttributeNode(value = "trip", subgraph = "trip"),
+        @NamedAttributeNode("fromStop"),
+        @NamedAttributeNode("toStop")
+}, subgraphs = @NamedSubgraph(name = "trip", attributeNodes = @NamedAttributeNode("route")))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,6 +21,8 @@ import java.time.LocalDateTime;
 @Builder
 public class Parcel {
 
+    public static final String LIST_GRAPH = "Parcel.list";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -0,0 +1,45 @@
+package com.web.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Modelo de lectura del rastreo público; se actualiza junto con cada ParcelEvent
+@Entity
+@Table(name = "parcel_tracking")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ParcelTracking {
+
+    @Id
+    @Column(length = 50)
+    private String code;
+
+    @Column(name = "parcel_id", nullable = false, unique = true)
+    private Long parcelId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Parcel.ParcelStatus status;
+
+    @Column(name = "current_location", length = 100)
+    private String currentLocation;
+
+    @Column(name = "estimated_delivery")
+    private LocalDateTime estimatedDelivery;
+
+    // JSON con la lista de ParcelEventResponse
+    @Column(nullable = false, columnDefinition = "text")
+    private String timeline;
+
+    @Version
+    private Long version;
+
+    @Column(name = "updated_at", nullable = false)
+    @Builder.Default
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
@@ -6,8 +6,16 @@ import lombok.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+// Lista de tickets (TicketMapper): viaje con ruta, pasajero, tramo y equipaje
 @Entity
 @Table(name = "tickets")
+@NamedEntityGraph(name = Ticket.LIST_GRAPH, attributeNodes = {
+        @NamedAttributeNode(value = "trip", subgraph = "trip"),
+        @NamedAttributeNode("passenger"),
+        @NamedAttributeNode("fromStop"),
+        @NamedAttributeNode("toStop"),
+        @NamedAttributeNode("baggage")
+}, subgraphs = @NamedSubgraph(name = "trip", attributeNodes = @NamedAttributeNode("route")))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,6 +23,8 @@ import java.time.LocalDateTime;
 @Builder
 public class Ticket {
 
+    public static final String LIST_GRAPH = "Ticket.list";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -27,7 +37,8 @@ public class Ticket {
     @JoinColumn(name = "passenger_id", nullable = false)
     private User passenger;
 
-    @Column(name = "seat_number", nullable = false)
+    // Null en tickets de sobreventa: el pasajero ocupa un asiento que quede vacío al abordar, sin número asignado
+    @Column(name = "seat_number")
     private Integer seatNumber;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -57,6 +68,14 @@ public class Ticket {
     @Builder.Default
     private LocalDateTime purchasedAt = LocalDateTime.now();
 
+    @Column(name = "boarded_at")
+    private LocalDateTime boardedAt;
+
+    // Vendido sobre la capacidad del tramo (sobreventa por no-show esperado)
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean overbooked = false;
+
     // Relación one-to-one con Baggage
     @OneToOne(mappedBy = "ticket", cascade = CascadeType.ALL, orphanRemoval = true)
     private Baggage baggage;
@@ -7,8 +7,21 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
+// Grafos por forma de respuesta: el mapper no dispara consultas por cada viaje
 @Entity
 @Table(name = "trips")
+@NamedEntityGraph(name = Trip.LIST_GRAPH, attributeNodes = {
+        @NamedAttributeNode("route"),
+        @NamedAttributeNode("bus")
+})
+@NamedEntityGraph(name = Trip.DETAIL_GRAPH, attributeNodes = {
+        @NamedAttributeNode("route"),
+        @NamedAttributeNode("bus"),
+        @NamedAttributeNode(value = "assignment", subgraph = "assignment")
+}, subgraphs = @NamedSubgraph(name = "assignment", attributeNodes = {
+        @NamedAttributeNode("driver"),
+        @NamedAttributeNode("dispatcher")
+}))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -16,6 +29,9 @@ import java.util.List;
 @Builder
 public class Trip {
 
+    public static final String LIST_GRAPH = "Trip.list";
+    public static final String DETAIL_GRAPH = "Trip.detail";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -46,6 +62,10 @@ public class Trip {
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Cuándo se marcaron sus no-show y se sumaron a la estadística de la ruta
+    @Column(name = "no_shows_processed_at")
+    private LocalDateTime noShowsProcessedAt;
+
     // Relaciones
     @OneToMany(mappedBy = "trip", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<SeatHold> seatHolds;
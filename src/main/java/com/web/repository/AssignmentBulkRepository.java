@@ -0,0 +1,49 @@
+package com.web.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Inserción masiva de asignaciones en JDBC: Hibernate no agrupa inserts con ids IDENTITY
+@Repository
+@RequiredArgsConstructor
+public class AssignmentBulkRepository {
+
+    // Un viaje asignado entre tanto (trip_id es único) se omite sin abortar el lote
+    private static final String INSERT_ASSIGNMENT = """
+            INSERT INTO assignments (trip_id, driver_id, dispatcher_id, checklist_ok, assigned_at)
+            VALUES (?, ?, ?, FALSE, ?)
+            ON CONFLICT (trip_id) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // tripId -> driverId en un solo batch; retorna los viajes efectivamente asignados
+    public List<Long> insertAssignments(Map<Long, Long> driverByTrip, Long dispatcherId, LocalDateTime assignedAt) {
+        List<Map.Entry<Long, Long>> entries = List.copyOf(driverByTrip.entrySet());
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_ASSIGNMENT, entries, entries.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getKey());
+            ps.setLong(2, entry.getValue());
+            ps.setLong(3, dispatcherId);
+            ps.setTimestamp(4, Timestamp.valueOf(assignedAt));
+        });
+
+        List<Long> inserted = new ArrayList<>(entries.size());
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count > 0) {
+                    inserted.add(entries.get(index).getKey());
+                }
+                index++;
+            }
+        }
+        return inserted;
+    }
+}
@@ -1,6 +1,9 @@
 package com.web.repository;
 
+import com.web.dto.dispatch.Schedule.DriverScheduleEntry;
 import com.web.entity.Assignment;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,9 +20,12 @@ public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
     // Buscar asignaciones por conductor
     List<Assignment> findByDriverId(Long driverId);
 
-    // Buscar asignaciones de un conductor para una fecha
+    // Buscar asignaciones de un conductor para una fecha (con viaje y usuarios para el mapper)
     @Query("""
         SELECT a FROM Assignment a
+        JOIN FETCH a.trip
+        JOIN FETCH a.driver
+        LEFT JOIN FETCH a.dispatcher
         WHERE a.driver.id = :driverId
         AND a.trip.tripDate = :date
         ORDER BY a.trip.departureTime
@@ -29,6 +35,48 @@ public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
         @Param("date") LocalDate date
     );
 
+    // Agenda del conductor en una ventana de fechas (primera página) - keyset sobre (departureTime, id)
+    @Query("""
+        SELECT new com.web.dto.dispatch.Schedule.DriverScheduleEntry(
+            a.id, t.id, r.code, r.name, b.plate, t.departureTime, t.arrivalEta, t.status, a.checklistOk)
+        FROM Assignment a
+        JOIN a.trip t
+        JOIN t.route r
+        JOIN t.bus b
+        WHERE a.driver.id = :driverId
+        AND t.tripDate BETWEEN :fromDate AND :toDate
+        ORDER BY t.departureTime, t.id
+    """)
+    List<DriverScheduleEntry> findDriverSchedule(
+        @Param("driverId") Long driverId,
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate,
+        Limit limit
+    );
+
+    // Agenda del conductor (páginas siguientes)
+    @Query("""
+        SELECT new com.web.dto.dispatch.Schedule.DriverScheduleEntry(
+            a.id, t.id, r.code, r.name, b.plate, t.departureTime, t.arrivalEta, t.status, a.checklistOk)
+        FROM Assignment a
+        JOIN a.trip t
+        JOIN t.route r
+        JOIN t.bus b
+        WHERE a.driver.id = :driverId
+        AND t.tripDate BETWEEN :fromDate AND :toDate
+        AND (t.departureTime > :cursorDeparture
+            OR (t.departureTime = :cursorDeparture AND t.id > :cursorTripId))
+        ORDER BY t.departureTime, t.id
+    """)
+    List<DriverScheduleEntry> findDriverScheduleAfter(
+        @Param("driverId") Long driverId,
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate,
+        @Param("cursorDeparture") java.time.LocalDateTime cursorDeparture,
+        @Param("cursorTripId") Long cursorTripId,
+        Limit limit
+    );
+
     // Verificar si el conductor está disponible (sin asignaciones conflictivas)
     @Query("""
         SELECT CASE WHEN COUNT(a) = 0 THEN true ELSE false END
@@ -36,11 +84,8 @@ public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
         WHERE a.driver.id = :driverId
         AND a.trip.tripDate = :date
         AND a.trip.status NOT IN ('ARRIVED', 'CANCELLED')
-        AND (
-            (a.trip.departureTime <= :departureTime AND a.trip.arrivalEta >= :departureTime)
-            OR (a.trip.departureTime <= :arrivalEta AND a.trip.arrivalEta >= :arrivalEta)
-            OR (a.trip.departureTime >= :departureTime AND a.trip.arrivalEta <= :arrivalEta)
-        )
+        AND a.trip.departureTime <= :arrivalEta
+        AND a.trip.arrivalEta >= :departureTime
     """)
     boolean isDriverAvailable(
         @Param("driverId") Long driverId,
@@ -49,6 +94,33 @@ public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
         @Param("arrivalEta") java.time.LocalDateTime arrivalEta
     );
 
+    // Viaje activo del conductor que se cruza con el horario (índice GiST sobre trips.schedule)
+    @Query(nativeQuery = true, value = """
+        SELECT t.id FROM assignments a
+        JOIN trips t ON t.id = a.trip_id
+        WHERE a.driver_id = :driverId
+        AND t.status NOT IN ('ARRIVED', 'CANCELLED')
+        AND t.schedule && tsrange(:departureTime, :arrivalEta, '[]')
+        LIMIT 1
+    """)
+    Optional<Long> findConflictingTripId(
+        @Param("driverId") Long driverId,
+        @Param("departureTime") java.time.LocalDateTime departureTime,
+        @Param("arrivalEta") java.time.LocalDateTime arrivalEta
+    );
+
+    // Asignaciones vigentes de un rango de fechas con su viaje (agenda ya comprometida de los conductores)
+    @Query("""
+        SELECT a FROM Assignment a
+        JOIN FETCH a.trip t
+        WHERE t.tripDate BETWEEN :fromDate AND :toDate
+        AND t.status NOT IN ('ARRIVED', 'CANCELLED')
+    """)
+    List<Assignment> findActiveAssignmentsBetween(
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate
+    );
+
     // Buscar asignaciones sin checklist completado
     @Query("""
         SELECT a FROM Assignment a
@@ -60,6 +132,7 @@ public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
     List<Assignment> findPendingChecklists(@Param("fromDate") LocalDate fromDate);
 
     // Buscar asignaciones por despachador
+    @EntityGraph(Assignment.LIST_GRAPH)
     @Query("""
         SELECT a FROM Assignment a
         WHERE a.dispatcher.id = :dispatcherId
@@ -1,7 +1,9 @@
 package com.web.repository;
 
 import com.web.entity.Bus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -26,11 +28,8 @@ public interface BusRepository extends JpaRepository<Bus, Long> {
             SELECT t.bus.id FROM Trip t
             WHERE t.tripDate = :date
             AND t.status NOT IN ('ARRIVED', 'CANCELLED')
-            AND (
-                (t.departureTime <= :departureTime AND t.arrivalEta >= :departureTime)
-                OR (t.departureTime <= :arrivalEta AND t.arrivalEta >= :arrivalEta)
-                OR (t.departureTime >= :departureTime AND t.arrivalEta <= :arrivalEta)
-            )
+            AND t.departureTime <= :arrivalEta
+            AND t.arrivalEta >= :departureTime
         )
         ORDER BY b.capacity DESC
     """)
@@ -40,6 +39,25 @@ public interface BusRepository extends JpaRepository<Bus, Long> {
         @Param("arrivalEta") LocalDateTime arrivalEta
     );
 
+    // Bloquea el bus: las altas de viajes concurrentes sobre el mismo bus se serializan
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Bus b WHERE b.id = :busId")
+    Optional<Bus> lockById(@Param("busId") Long busId);
+
+    // Viaje activo del bus que se cruza con el horario (índice GiST sobre trips.schedule)
+    @Query(nativeQuery = true, value = """
+        SELECT t.id FROM trips t
+        WHERE t.bus_id = :busId
+        AND t.status NOT IN ('ARRIVED', 'CANCELLED')
+        AND t.schedule && tsrange(:departureTime, :arrivalEta, '[]')
+        LIMIT 1
+    """)
+    Optional<Long> findConflictingTripId(
+        @Param("busId") Long busId,
+        @Param("departureTime") LocalDateTime departureTime,
+        @Param("arrivalEta") LocalDateTime arrivalEta
+    );
+
     // Obtener bus con sus asientos
     @Query("""
         SELECT b FROM Bus b
@@ -0,0 +1,135 @@
+package com.web.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Carga comprometida por tramo de viaje (trip_cargo_ledger); incrementos atómicos por JDBC.
+// Es la fuente de verdad entre instancias: el libro en memoria solo adelanta el rechazo
+@Repository
+@RequiredArgsConstructor
+public class CargoLedgerRepository {
+
+    // Carga por tramo calculada desde las encomiendas del viaje; solo para sembrar el libro
+    private static final String SEED = """
+            SELECT t.id AS trip_id, s.stop_order AS segment_order, COALESCE(SUM(p.weight_kg), 0) AS committed_kg
+            FROM trips t
+            JOIN stops s ON s.route_id = t.route_id
+            LEFT JOIN (parcels p
+                       JOIN stops fs ON fs.id = p.from_stop_id
+                       JOIN stops ts ON ts.id = p.to_stop_id)
+                ON p.trip_id = t.id
+                AND fs.stop_order <= s.stop_order
+                AND ts.stop_order > s.stop_order
+            WHERE t.id = ?
+            AND s.stop_order < (SELECT MAX(s2.stop_order) FROM stops s2 WHERE s2.route_id = t.route_id)
+            GROUP BY t.id, s.stop_order
+            ORDER BY s.stop_order
+            """;
+
+    // Se siembra una sola vez por viaje; luego solo se aplican incrementos
+    private static final String INITIALIZE = """
+            INSERT INTO trip_cargo_ledger (trip_id, segment_order, committed_kg)
+            SELECT trip_id, segment_order, committed_kg FROM (
+            """ + SEED + """
+            ) seed
+            ON CONFLICT (trip_id, segment_order) DO NOTHING
+            """;
+
+    private static final String FIND_BY_TRIP = """
+            SELECT segment_order, committed_kg
+            FROM trip_cargo_ledger
+            WHERE trip_id = ?
+            ORDER BY segment_order
+            """;
+
+    private static final String ADD_TO_SEGMENT = """
+            UPDATE trip_cargo_ledger
+            SET committed_kg = committed_kg + ?
+            WHERE trip_id = ? AND segment_order = ?
+            """;
+
+    // La BD decide si cabe: el UPDATE no toca la fila si excede la capacidad y otra instancia
+    // que reserve el mismo tramo espera el bloqueo de la fila y vuelve a evaluar la condición
+    private static final String ADD_WITHIN_CAPACITY = """
+            UPDATE trip_cargo_ledger
+            SET committed_kg = committed_kg + ?
+            WHERE trip_id = ? AND segment_order = ?
+            AND committed_kg + ? <= ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // segment_order -> kg comprometidos; se inicializa si el viaje aún no tiene registros
+    public Map<Integer, BigDecimal> loadOrInitialize(Long tripId) {
+        Map<Integer, BigDecimal> segments = findByTrip(tripId);
+        if (segments.isEmpty()) {
+            jdbcTemplate.update(INITIALIZE, tripId);
+            segments = findByTrip(tripId);
+        }
+        return segments;
+    }
+
+    // Solo lectura: sin registros se devuelve la siembra calculada sin persistirla
+    public Map<Integer, BigDecimal> findOrSeed(Long tripId) {
+        Map<Integer, BigDecimal> segments = findByTrip(tripId);
+        if (segments.isEmpty()) {
+            jdbcTemplate.query(SEED, rs -> {
+                segments.put(rs.getInt("segment_order"), rs.getBigDecimal("committed_kg"));
+            }, tripId);
+        }
+        return segments;
+    }
+
+    // Tramos que no cupieron (el resto quedó sumado); los tramos se recorren en orden para que dos
+    // reservas concurrentes tomen los bloqueos en la misma secuencia
+    public Set<Integer> addWithinCapacity(Long tripId, Map<Integer, BigDecimal> deltas, BigDecimal capacityKg) {
+        List<Map.Entry<Integer, BigDecimal>> entries = deltas.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .toList();
+        int[][] counts = jdbcTemplate.batchUpdate(ADD_WITHIN_CAPACITY, entries, entries.size(), (ps, entry) -> {
+            ps.setBigDecimal(1, entry.getValue());
+            ps.setLong(2, tripId);
+            ps.setInt(3, entry.getKey());
+            ps.setBigDecimal(4, entry.getValue());
+            ps.setBigDecimal(5, capacityKg);
+        });
+
+        Set<Integer> rejected = new LinkedHashSet<>();
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    rejected.add(entries.get(i).getKey());
+                }
+                i++;
+            }
+        }
+        return rejected;
+    }
+
+    // Un statement por tramo afectado, enviados en un solo batch
+    public void addToSegments(Long tripId, Map<Integer, BigDecimal> deltas) {
+        List<Map.Entry<Integer, BigDecimal>> entries = List.copyOf(deltas.entrySet());
+        jdbcTemplate.batchUpdate(ADD_TO_SEGMENT, entries, entries.size(), (ps, entry) -> {
+            ps.setBigDecimal(1, entry.getValue());
+            ps.setLong(2, tripId);
+            ps.setInt(3, entry.getKey());
+        });
+    }
+
+    private Map<Integer, BigDecimal> findByTrip(Long tripId) {
+        Map<Integer, BigDecimal> segments = new LinkedHashMap<>();
+        jdbcTemplate.query(FIND_BY_TRIP, rs -> {
+            segments.put(rs.getInt("segment_order"), rs.getBigDecimal("committed_kg"));
+        }, tripId);
+        return segments;
+    }
+}
@@ -61,4 +61,4 @@ public interface IncidentRepository extends JpaRepository<Incident, Long> {
         @Param("startDate") LocalDateTime startDate,
         @Param("endDate") LocalDateTime endDate
     );
-}
\ No newline at end of file
+}
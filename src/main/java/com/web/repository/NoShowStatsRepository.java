@@ -0,0 +1,42 @@
+package com.web.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+// Acumulados de no-show por ruta y hora de salida (route_no_show_stats); incrementos atómicos por JDBC
+@Repository
+@RequiredArgsConstructor
+public class NoShowStatsRepository {
+
+    private static final String FIND = """
+            SELECT tickets_total, no_shows
+            FROM route_no_show_stats
+            WHERE route_id = ? AND departure_hour = ?
+            """;
+
+    private static final String ADD = """
+            INSERT INTO route_no_show_stats (route_id, departure_hour, tickets_total, no_shows)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (route_id, departure_hour) DO UPDATE
+            SET tickets_total = route_no_show_stats.tickets_total + EXCLUDED.tickets_total,
+                no_shows = route_no_show_stats.no_shows + EXCLUDED.no_shows
+            """;
+
+    public record NoShowStats(long ticketsTotal, long noShows) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<NoShowStats> find(Long routeId, int departureHour) {
+        return jdbcTemplate.query(FIND,
+                (rs, rowNum) -> new NoShowStats(rs.getLong("tickets_total"), rs.getLong("no_shows")),
+                routeId, departureHour).stream().findFirst();
+    }
+
+    // Suma el resultado de un viaje; la primera vez crea la fila
+    public void add(Long routeId, int departureHour, long ticketsTotal, long noShows) {
+        jdbcTemplate.update(ADD, routeId, departureHour, ticketsTotal, noShows);
+    }
+}
@@ -0,0 +1,48 @@
+package com.web.repository;
+
+import com.web.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Siguiente lote pendiente; SKIP LOCKED permite varias instancias del relay sin bloquearse
+    @Query(value = """
+        SELECT * FROM outbox_events
+        WHERE published_at IS NULL
+        AND attempts < :maxAttempts
+        ORDER BY id
+        LIMIT :batchSize
+        FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("batchSize") int batchSize, @Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Query("""
+        UPDATE OutboxEvent e
+        SET e.publishedAt = :publishedAt
+        WHERE e.id IN :ids
+    """)
+    int markPublished(@Param("ids") List<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    @Modifying
+    @Query("""
+        UPDATE OutboxEvent e
+        SET e.attempts = e.attempts + 1
+        WHERE e.id = :id
+    """)
+    int incrementAttempts(@Param("id") Long id);
+
+    // Limpieza de eventos ya publicados
+    @Modifying
+    @Query("""
+        DELETE FROM OutboxEvent e
+        WHERE e.publishedAt < :before
+    """)
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
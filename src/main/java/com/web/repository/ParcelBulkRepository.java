@@ -0,0 +1,121 @@
+package com.web.repository;
+
+import com.web.entity.Parcel;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// Operaciones masivas sobre encomiendas en JDBC: Hibernate no agrupa inserts con ids IDENTITY
+@Repository
+@RequiredArgsConstructor
+public class ParcelBulkRepository {
+
+    private static final String INSERT_PARCEL = """
+            INSERT INTO parcels (code, trip_id, sender_name, sender_phone, receiver_name, receiver_phone,
+                                 from_stop_id, to_stop_id, price, weight_kg, status, delivery_otp, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    // Ubicación conocida: origen hasta que la encomienda llega a destino
+    private static final String LOCATION = """
+            CASE WHEN p.status IN ('DELIVERED', 'FAILED') THEN ts.name ELSE fs.name END
+            """;
+
+    private static final String INSERT_EVENTS = """
+            INSERT INTO parcel_events (parcel_id, status, location, notes, created_at)
+            SELECT p.id, p.status, %s, CAST(:notes AS varchar), CAST(:at AS timestamp)
+            FROM parcels p
+            JOIN stops fs ON fs.id = p.from_stop_id
+            JOIN stops ts ON ts.id = p.to_stop_id
+            WHERE p.id IN (:ids)
+            ORDER BY p.id
+            """.formatted(LOCATION);
+
+    private static final String UPSERT_TRACKING = """
+            INSERT INTO parcel_tracking (code, parcel_id, status, current_location, estimated_delivery, timeline, updated_at)
+            SELECT p.code, p.id, p.status, %1$s, t.arrival_eta,
+                   json_build_array(json_build_object(
+                       'status', p.status,
+                       'location', %1$s,
+                       'timestamp', to_char(CAST(:at AS timestamp), 'YYYY-MM-DD"T"HH24:MI:SS'),
+                       'notes', CAST(:notes AS varchar)))::text,
+                   CAST(:at AS timestamp)
+            FROM parcels p
+            JOIN trips t ON t.id = p.trip_id
+            JOIN stops fs ON fs.id = p.from_stop_id
+            JOIN stops ts ON ts.id = p.to_stop_id
+            WHERE p.id IN (:ids)
+            ON CONFLICT (code) DO UPDATE SET
+                status = EXCLUDED.status,
+                current_location = EXCLUDED.current_location,
+                estimated_delivery = EXCLUDED.estimated_delivery,
+                timeline = (parcel_tracking.timeline::jsonb || EXCLUDED.timeline::jsonb)::text,
+                version = parcel_tracking.version + 1,
+                updated_at = EXCLUDED.updated_at
+            """.formatted(LOCATION);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    // Un solo batch JDBC; los ids generados se asignan a cada entidad en el mismo orden
+    public void insertParcels(List<Parcel> parcels) {
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_PARCEL, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        bind(ps, parcels.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return parcels.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < parcels.size(); i++) {
+            parcels.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+        }
+    }
+
+    // Historial y modelo de rastreo para un conjunto de encomiendas, en dos sentencias
+    public void recordEvents(List<Long> parcelIds, String notes, LocalDateTime at) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", parcelIds)
+                .addValue("notes", notes, Types.VARCHAR)
+                .addValue("at", Timestamp.valueOf(at), Types.TIMESTAMP);
+        namedParameterJdbcTemplate.update(INSERT_EVENTS, params);
+        namedParameterJdbcTemplate.update(UPSERT_TRACKING, params);
+    }
+
+    private void bind(PreparedStatement ps, Parcel parcel) throws SQLException {
+        ps.setString(1, parcel.getCode());
+        ps.setLong(2, parcel.getTrip().getId());
+        ps.setString(3, parcel.getSenderName());
+        ps.setString(4, parcel.getSenderPhone());
+        ps.setString(5, parcel.getReceiverName());
+        ps.setString(6, parcel.getReceiverPhone());
+        ps.setLong(7, parcel.getFromStop().getId());
+        ps.setLong(8, parcel.getToStop().getId());
+        ps.setBigDecimal(9, parcel.getPrice());
+        ps.setBigDecimal(10, parcel.getWeightKg());
+        ps.setString(11, parcel.getStatus().name());
+        ps.setString(12, parcel.getDeliveryOtp());
+        ps.setTimestamp(13, Timestamp.valueOf(parcel.getCreatedAt()));
+    }
+}
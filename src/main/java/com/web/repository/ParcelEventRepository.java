@@ -0,0 +1,12 @@
+package com.web.repository;
+
+import com.web.entity.ParcelEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ParcelEventRepository extends JpaRepository<ParcelEvent, Long> {
+
+    // Historial de una encomienda en orden cronológico
+    List<ParcelEvent> findByParcelIdOrderByIdAsc(Long parcelId);
+}
@@ -1,16 +1,45 @@
 package com.web.repository;
 
 import com.web.entity.Parcel;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface ParcelRepository extends JpaRepository<Parcel, Long> {
 
+    // Coincidencia de búsqueda: 0 = exacta, 1 = prefijo, 2 = fragmento
+    interface ParcelSearchHit {
+        Long getId();
+        Integer getRank();
+        LocalDateTime getCreatedAt();
+    }
+
+    String SEARCH_MATCHES = """
+        SELECT p.id AS id, p.created_at AS created_at,
+            CASE
+                WHEN upper(p.code) = upper(:term) OR p.sender_phone = :term OR p.receiver_phone = :term THEN 0
+                WHEN p.code ILIKE :prefix OR p.sender_phone LIKE :prefix OR p.receiver_phone LIKE :prefix
+                    OR p.sender_name ILIKE :prefix OR p.receiver_name ILIKE :prefix THEN 1
+                ELSE 2
+            END AS rank
+        FROM parcels p
+        WHERE p.code ILIKE :pattern
+        OR p.sender_phone LIKE :pattern
+        OR p.receiver_phone LIKE :pattern
+        OR p.sender_name ILIKE :pattern
+        OR p.receiver_name ILIKE :pattern
+    """;
+
     // Buscar encomienda por código de rastreo
     Optional<Parcel> findByCode(String code);
 
@@ -20,9 +49,24 @@ public interface ParcelRepository extends JpaRepository<Parcel, Long> {
     // Buscar encomiendas por estado
     List<Parcel> findByStatus(Parcel.ParcelStatus status);
 
-    // Buscar encomiendas por viaje y estado
+    // Buscar encomiendas por viaje y estado (con viaje, ruta y tramo para la lista)
+    @EntityGraph(Parcel.LIST_GRAPH)
     List<Parcel> findByTripIdAndStatus(Long tripId, Parcel.ParcelStatus status);
 
+    // Listado completo con el mismo grafo (findAll() cargaría viaje y paradas por encomienda)
+    @EntityGraph(Parcel.LIST_GRAPH)
+    List<Parcel> findAllByOrderById();
+
+    // Encomiendas registradas en un rango de fechas [start, end)
+    @EntityGraph(Parcel.LIST_GRAPH)
+    @Query("""
+        SELECT p FROM Parcel p
+        WHERE p.createdAt >= :start
+        AND p.createdAt < :end
+        ORDER BY p.createdAt
+    """)
+    List<Parcel> findByDateRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
     // Buscar encomiendas por teléfono del remitente
     List<Parcel> findBySenderPhone(String senderPhone);
 
@@ -50,6 +94,17 @@ public interface ParcelRepository extends JpaRepository<Parcel, Long> {
         @Param("stopId") Long stopId
     );
 
+    // Encomiendas pendientes de un viaje con sus paradas (para el manifiesto de abordaje)
+    @Query("""
+        SELECT p FROM Parcel p
+        JOIN FETCH p.fromStop
+        JOIN FETCH p.toStop
+        WHERE p.trip.id = :tripId
+        AND p.status IN ('CREATED', 'IN_TRANSIT')
+        ORDER BY p.toStop.order
+    """)
+    List<Parcel> findPendingParcelsWithStops(@Param("tripId") Long tripId);
+
     // Validar OTP para entrega - CASO DE USO 4
     @Query("""
         SELECT p FROM Parcel p
@@ -85,4 +140,65 @@ public interface ParcelRepository extends JpaRepository<Parcel, Long> {
         @Param("startDate") LocalDate startDate,
         @Param("endDate") LocalDate endDate
     );
-}
\ No newline at end of file
+
+    // Encomiendas a cargar en una parada (bloqueadas para la transición masiva)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        SELECT p FROM Parcel p
+        WHERE p.trip.id = :tripId
+        AND p.fromStop.id = :stopId
+        AND p.status = 'CREATED'
+        ORDER BY p.id
+    """)
+    List<Parcel> lockParcelsToLoadAtStop(@Param("tripId") Long tripId, @Param("stopId") Long stopId);
+
+    // Transición en una sola sentencia; se limpia el contexto para no dejar entidades desactualizadas
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        UPDATE Parcel p
+        SET p.status = :status, p.deliveredAt = :deliveredAt
+        WHERE p.id IN :ids
+    """)
+    int updateStatusByIds(
+        @Param("ids") List<Long> ids,
+        @Param("status") Parcel.ParcelStatus status,
+        @Param("deliveredAt") LocalDateTime deliveredAt
+    );
+
+    // Búsqueda de mostrador (primera página) - usa los índices trigrama de V7
+    @Query(nativeQuery = true, value = "SELECT m.id, m.rank, m.created_at AS \"createdAt\" FROM ("
+        + SEARCH_MATCHES + ") m ORDER BY m.rank, m.created_at DESC, m.id DESC")
+    List<ParcelSearchHit> searchParcels(
+        @Param("term") String term,
+        @Param("prefix") String prefix,
+        @Param("pattern") String pattern,
+        Limit limit
+    );
+
+    // Búsqueda de mostrador (páginas siguientes) - keyset sobre (rank, created_at, id)
+    @Query(nativeQuery = true, value = "SELECT m.id, m.rank, m.created_at AS \"createdAt\" FROM ("
+        + SEARCH_MATCHES + ") m "
+        + "WHERE m.rank > :cursorRank OR (m.rank = :cursorRank AND (m.created_at < :cursorCreatedAt "
+        + "OR (m.created_at = :cursorCreatedAt AND m.id < :cursorId))) "
+        + "ORDER BY m.rank, m.created_at DESC, m.id DESC")
+    List<ParcelSearchHit> searchParcelsAfter(
+        @Param("term") String term,
+        @Param("prefix") String prefix,
+        @Param("pattern") String pattern,
+        @Param("cursorRank") int cursorRank,
+        @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+        @Param("cursorId") Long cursorId,
+        Limit limit
+    );
+
+    // Encomiendas con viaje, ruta y paradas para armar la respuesta sin consultas adicionales
+    @Query("""
+        SELECT p FROM Parcel p
+        JOIN FETCH p.trip t
+        JOIN FETCH t.route
+        JOIN FETCH p.fromStop
+        JOIN FETCH p.toStop
+        WHERE p.id IN :ids
+    """)
+    List<Parcel> findWithDetailsByIdIn(@Param("ids") List<Long> ids);
+}
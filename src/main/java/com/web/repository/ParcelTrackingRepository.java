@@ -0,0 +1,7 @@
+package com.web.repository;
+
+import com.web.entity.ParcelTracking;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ParcelTrackingRepository extends JpaRepository<ParcelTracking, String> {
+}
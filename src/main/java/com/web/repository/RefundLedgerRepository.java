@@ -0,0 +1,60 @@
+package com.web.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+// Libro de reembolsos (refunds) en JDBC: la cancelación de un viaje completo es una sola sentencia
+@Repository
+@RequiredArgsConstructor
+public class RefundLedgerRepository {
+
+    public enum RefundReason {
+        TICKET_CANCELLED,
+        TRIP_CANCELLED
+    }
+
+    private static final String INSERT_REFUND = """
+            INSERT INTO refunds (ticket_id, trip_id, passenger_id, amount, percentage, reason, created_at)
+            SELECT t.id, t.trip_id, t.passenger_id, ?, ?, ?, ?
+            FROM tickets t
+            WHERE t.id = ?
+            """;
+
+    // Cancela los tickets vendidos del viaje e inserta sus reembolsos en el mismo recorrido.
+    // Devuelve cuántos se reembolsaron y el total, sin traer los tickets a memoria.
+    private static final String CANCEL_TRIP_TICKETS = """
+            WITH cancelled AS (
+                UPDATE tickets
+                SET status = 'CANCELLED'
+                WHERE trip_id = ? AND status = 'SOLD'
+                RETURNING id, trip_id, passenger_id, price
+            ), refunded AS (
+                INSERT INTO refunds (ticket_id, trip_id, passenger_id, amount, percentage, reason, created_at)
+                SELECT id, trip_id, passenger_id, ROUND(price * ? / 100, 2), ?, 'TRIP_CANCELLED', ?
+                FROM cancelled
+                ORDER BY id
+                RETURNING amount
+            )
+            SELECT COUNT(*), COALESCE(SUM(amount), 0) FROM refunded
+            """;
+
+    public record RefundBatch(int tickets, BigDecimal totalAmount) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void record(Long ticketId, BigDecimal amount, BigDecimal percentage, RefundReason reason,
+                       LocalDateTime createdAt) {
+        jdbcTemplate.update(INSERT_REFUND, amount, percentage, reason.name(), Timestamp.valueOf(createdAt), ticketId);
+    }
+
+    public RefundBatch cancelTripTickets(Long tripId, BigDecimal percentage, LocalDateTime createdAt) {
+        return jdbcTemplate.queryForObject(CANCEL_TRIP_TICKETS,
+                (rs, rowNum) -> new RefundBatch(rs.getInt(1), rs.getBigDecimal(2)),
+                tripId, percentage, percentage, Timestamp.valueOf(createdAt));
+    }
+}
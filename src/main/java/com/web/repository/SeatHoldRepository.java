@@ -43,6 +43,16 @@ public interface SeatHoldRepository extends JpaRepository<SeatHold, Long> {
     """)
     List<SeatHold> findExpiredHolds(@Param("now") LocalDateTime now);
 
+    // Holds por vencer agrupados por viaje (para publicar la liberación de asientos)
+    @Query("""
+        SELECT h.trip.id, COUNT(h)
+        FROM SeatHold h
+        WHERE h.status = 'HOLD'
+        AND h.expiresAt < :now
+        GROUP BY h.trip.id
+    """)
+    List<Object[]> countExpiringHoldsByTrip(@Param("now") LocalDateTime now);
+
     // Actualización masiva de holds expirados - Caso de Uso 2
     @Modifying
     @Query("""
@@ -53,6 +63,16 @@ public interface SeatHoldRepository extends JpaRepository<SeatHold, Long> {
     """)
     int expireHolds(@Param("now") LocalDateTime now);
 
+    // Libera de una vez los holds de un viaje cancelado
+    @Modifying
+    @Query("""
+        UPDATE SeatHold h
+        SET h.status = 'EXPIRED'
+        WHERE h.trip.id = :tripId
+        AND h.status = 'HOLD'
+    """)
+    int expireHoldsByTrip(@Param("tripId") Long tripId);
+
     // Buscar todos los holds activos de un viaje
     @Query("""
         SELECT h FROM SeatHold h
@@ -65,6 +85,18 @@ public interface SeatHoldRepository extends JpaRepository<SeatHold, Long> {
         @Param("now") LocalDateTime now
     );
 
+    // Asientos con hold activo (el hold cubre todo el viaje)
+    @Query("""
+        SELECT DISTINCT h.seatNumber FROM SeatHold h
+        WHERE h.trip.id = :tripId
+        AND h.status = 'HOLD'
+        AND h.expiresAt > :now
+    """)
+    List<Integer> findHeldSeatNumbers(
+        @Param("tripId") Long tripId,
+        @Param("now") LocalDateTime now
+    );
+
     // Buscar holds activos de un usuario para un viaje específico
     @Query("""
         SELECT h FROM SeatHold h
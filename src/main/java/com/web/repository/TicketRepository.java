@@ -1,6 +1,9 @@
 package com.web.repository;
 
+import com.web.dto.ticket.TicketSummaryResponse;
 import com.web.entity.Ticket;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -8,20 +11,77 @@ import org.springframework.data.repository.query.Param;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
 
+    // Ocupación de un asiento: tramo vendido (órdenes de parada) o hold vigente (órdenes null)
+    interface SeatOccupancy {
+        Integer getSeatNumber();
+        Integer getFromOrder();
+        Integer getToOrder();
+    }
+
     // Buscar tickets por viaje y asiento
     List<Ticket> findByTripIdAndSeatNumber(Long tripId, Integer seatNumber);
 
     // Buscar todos los tickets de un viaje
     List<Ticket> findByTripId(Long tripId);
 
-    // Buscar tickets por pasajero
+    // Buscar tickets por pasajero (con todo lo que lee TicketMapper)
+    @EntityGraph(Ticket.LIST_GRAPH)
     List<Ticket> findByPassengerId(Long passengerId);
 
+    // Historial de un pasajero (primera página) - proyección en una sola consulta, más reciente primero
+    @Query("""
+        SELECT new com.web.dto.ticket.TicketSummaryResponse(
+            t.id, tr.id, r.name, tr.tripDate, tr.departureTime, t.seatNumber,
+            fs.name, fs.order, ts.name, ts.order,
+            t.price, t.paymentMethod, t.status, t.qrCode, t.purchasedAt, b.tagCode)
+        FROM Ticket t
+        JOIN t.trip tr
+        JOIN tr.route r
+        JOIN t.fromStop fs
+        JOIN t.toStop ts
+        LEFT JOIN t.baggage b
+        WHERE t.passenger.id = :passengerId
+        AND tr.departureTime > :departureAfter
+        ORDER BY t.purchasedAt DESC, t.id DESC
+    """)
+    List<TicketSummaryResponse> findPassengerHistory(
+        @Param("passengerId") Long passengerId,
+        @Param("departureAfter") LocalDateTime departureAfter,
+        Limit limit
+    );
+
+    // Historial de un pasajero (páginas siguientes) - keyset sobre (purchasedAt, id)
+    @Query("""
+        SELECT new com.web.dto.ticket.TicketSummaryResponse(
+            t.id, tr.id, r.name, tr.tripDate, tr.departureTime, t.seatNumber,
+            fs.name, fs.order, ts.name, ts.order,
+            t.price, t.paymentMethod, t.status, t.qrCode, t.purchasedAt, b.tagCode)
+        FROM Ticket t
+        JOIN t.trip tr
+        JOIN tr.route r
+        JOIN t.fromStop fs
+        JOIN t.toStop ts
+        LEFT JOIN t.baggage b
+        WHERE t.passenger.id = :passengerId
+        AND tr.departureTime > :departureAfter
+        AND (t.purchasedAt < :cursorPurchasedAt
+            OR (t.purchasedAt = :cursorPurchasedAt AND t.id < :cursorId))
+        ORDER BY t.purchasedAt DESC, t.id DESC
+    """)
+    List<TicketSummaryResponse> findPassengerHistoryAfter(
+        @Param("passengerId") Long passengerId,
+        @Param("departureAfter") LocalDateTime departureAfter,
+        @Param("cursorPurchasedAt") LocalDateTime cursorPurchasedAt,
+        @Param("cursorId") Long cursorId,
+        Limit limit
+    );
+
     // Buscar ticket por código QR para validación
     Optional<Ticket> findByQrCode(String qrCode);
 
@@ -41,6 +101,21 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
         @Param("toStopOrder") Integer toStopOrder
     );
 
+    // Asientos vendidos que se cruzan con el tramo: el mapa de asientos sale de una sola consulta
+    @Query("""
+        SELECT DISTINCT t.seatNumber FROM Ticket t
+        WHERE t.trip.id = :tripId
+        AND t.status = 'SOLD'
+        AND t.seatNumber IS NOT NULL
+        AND t.fromStop.order < :toStopOrder
+        AND t.toStop.order > :fromStopOrder
+    """)
+    List<Integer> findSoldSeatNumbersForSegment(
+        @Param("tripId") Long tripId,
+        @Param("fromStopOrder") Integer fromStopOrder,
+        @Param("toStopOrder") Integer toStopOrder
+    );
+
     // Verificar si un asiento está disponible para un tramo específico - CASO DE USO 1
     @Query("""
         SELECT CASE WHEN COUNT(t) = 0 THEN true ELSE false END
@@ -58,6 +133,45 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
         @Param("toStopOrder") Integer toStopOrder
     );
 
+    // Sobreventas vigentes que se cruzan con el tramo
+    @Query("""
+        SELECT COUNT(t) FROM Ticket t
+        WHERE t.trip.id = :tripId
+        AND t.status = 'SOLD'
+        AND t.overbooked = true
+        AND t.fromStop.order < :toStopOrder
+        AND t.toStop.order > :fromStopOrder
+    """)
+    long countOverbookedForSegment(
+        @Param("tripId") Long tripId,
+        @Param("fromStopOrder") Integer fromStopOrder,
+        @Param("toStopOrder") Integer toStopOrder
+    );
+
+    // Ocupación de un viaje en una consulta: tramos vendidos y holds vigentes, con los órdenes ya resueltos
+    @Query(nativeQuery = true, value = """
+        SELECT t.seat_number AS "seatNumber", fs.stop_order AS "fromOrder", ts.stop_order AS "toOrder"
+        FROM tickets t
+        JOIN stops fs ON fs.id = t.from_stop_id
+        JOIN stops ts ON ts.id = t.to_stop_id
+        WHERE t.trip_id = :tripId AND t.status = 'SOLD' AND t.seat_number IS NOT NULL
+        UNION ALL
+        SELECT h.seat_number, NULL, NULL
+        FROM seat_holds h
+        WHERE h.trip_id = :tripId AND h.status = 'HOLD' AND h.expires_at > :now
+    """)
+    List<SeatOccupancy> findSeatOccupancy(@Param("tripId") Long tripId, @Param("now") LocalDateTime now);
+
+    // Asientos vendidos de una página de viajes en una sola consulta: [tripId, vendidos]
+    @Query("""
+        SELECT t.trip.id, COUNT(DISTINCT t.seatNumber)
+        FROM Ticket t
+        WHERE t.trip.id IN :tripIds
+        AND t.status = 'SOLD'
+        GROUP BY t.trip.id
+    """)
+    List<Object[]> countSoldSeatsByTripIds(@Param("tripIds") Collection<Long> tripIds);
+
     // Obtener cantidad de asientos vendidos para un viaje
     @Query("""
         SELECT COUNT(DISTINCT t.seatNumber)
@@ -81,6 +195,17 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
         @Param("stopOrder") Integer stopOrder
     );
 
+    // Tickets vendidos de un viaje con sus paradas (para el manifiesto de abordaje)
+    @Query("""
+        SELECT t FROM Ticket t
+        JOIN FETCH t.fromStop
+        JOIN FETCH t.toStop
+        WHERE t.trip.id = :tripId
+        AND t.status = 'SOLD'
+        ORDER BY t.seatNumber
+    """)
+    List<Ticket> findSoldTicketsWithStops(@Param("tripId") Long tripId);
+
     // Buscar tickets elegibles para cancelación (para política de reembolso)
     @Query("""
         SELECT t FROM Ticket t
@@ -140,7 +265,7 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     List<Ticket> findPendingSyncTickets();
 
     // Buscar tickets elegibles para marcar como NO_SHOW - Regla de negocio #5
-    // Tickets vendidos cuyo viaje está por salir y el pasajero aborda en el origen
+    // Tickets vendidos de un viaje ya salido cuyo pasajero aborda en el origen
     @Query("""
         SELECT t FROM Ticket t
         JOIN t.trip tr
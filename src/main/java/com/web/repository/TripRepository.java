@@ -1,7 +1,11 @@
 package com.web.repository;
 
+import com.web.dto.dispatch.Board.DispatchBoardRow;
 import com.web.entity.Trip;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -12,9 +16,21 @@ import java.util.Optional;
 
 public interface TripRepository extends JpaRepository<Trip, Long> {
 
-    // Buscar viajes disponibles por ruta y fecha
+    // Buscar viajes disponibles por ruta y fecha (con ruta y bus para la lista)
+    @EntityGraph(Trip.LIST_GRAPH)
     List<Trip> findByRouteIdAndTripDate(Long routeId, LocalDate tripDate);
 
+    // Búsquedas con un solo filtro, ya ordenadas por salida
+    @EntityGraph(Trip.LIST_GRAPH)
+    List<Trip> findByRouteIdOrderByDepartureTime(Long routeId);
+
+    @EntityGraph(Trip.LIST_GRAPH)
+    List<Trip> findByTripDateOrderByDepartureTime(LocalDate tripDate);
+
+    // Sin filtros: findAll() no aplica el grafo y cargaría ruta y bus viaje por viaje
+    @EntityGraph(Trip.LIST_GRAPH)
+    List<Trip> findAllByOrderByDepartureTime();
+
     // Buscar viajes por ruta, fecha y estado específico
     List<Trip> findByRouteIdAndTripDateAndStatus(Long routeId, LocalDate tripDate, Trip.TripStatus status);
 
@@ -32,15 +48,27 @@ public interface TripRepository extends JpaRepository<Trip, Long> {
         @Param("maxTime") LocalDateTime maxTime
     );
 
-    // Obtener viaje con detalles completos (asignación, bus, ruta)
+    // Viajes ya salidos cuyos no-show aún no se procesaron (cada viaje entra una sola vez)
     @Query("""
         SELECT t FROM Trip t
-        LEFT JOIN FETCH t.assignment a
-        LEFT JOIN FETCH a.driver
-        LEFT JOIN FETCH t.bus
-        LEFT JOIN FETCH t.route
-        WHERE t.id = :tripId
+        JOIN FETCH t.route
+        WHERE t.status IN ('DEPARTED', 'ARRIVED')
+        AND t.noShowsProcessedAt IS NULL
+        AND t.departureTime BETWEEN :since AND :now
     """)
+    List<Trip> findTripsPendingNoShows(
+        @Param("since") LocalDateTime since,
+        @Param("now") LocalDateTime now
+    );
+
+    // Bloquea el viaje: las sobreventas concurrentes del mismo viaje se serializan
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Trip t WHERE t.id = :tripId")
+    Optional<Trip> lockById(@Param("tripId") Long tripId);
+
+    // Obtener viaje con detalles completos (asignación, bus, ruta)
+    @EntityGraph(Trip.DETAIL_GRAPH)
+    @Query("SELECT t FROM Trip t WHERE t.id = :tripId")
     Optional<Trip> findByIdWithDetails(@Param("tripId") Long tripId);
 
     // Calcular porcentaje de ocupación de un viaje
@@ -82,6 +110,20 @@ public interface TripRepository extends JpaRepository<Trip, Long> {
     """)
     List<Trip> findUnassignedTrips(@Param("fromDate") LocalDate fromDate);
 
+    // Viajes sin asignación de un horizonte, con su ruta (para la asignación automática)
+    @Query("""
+        SELECT t FROM Trip t
+        JOIN FETCH t.route
+        WHERE t.status = 'SCHEDULED'
+        AND t.assignment IS NULL
+        AND t.tripDate BETWEEN :fromDate AND :toDate
+        ORDER BY t.departureTime
+    """)
+    List<Trip> findUnassignedTripsBetween(
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate
+    );
+
     // Buscar viajes por conductor (para horario del conductor)
     @Query("""
         SELECT t FROM Trip t
@@ -122,4 +164,36 @@ public interface TripRepository extends JpaRepository<Trip, Long> {
         @Param("startDate") LocalDate startDate,
         @Param("endDate") LocalDate endDate
     );
-}
\ No newline at end of file
+
+    // Tablero del despachador: una fila por viaje en curso o próximo, conteos con subconsultas por índice
+    @Query("""
+        SELECT new com.web.dto.dispatch.Board.DispatchBoardRow(
+            t.id, r.code, b.plate, t.departureTime, t.arrivalEta, t.status,
+            d.id, d.name, a.checklistOk,
+            (SELECT COUNT(tk) FROM Ticket tk WHERE tk.trip = t AND tk.status = 'SOLD'),
+            b.capacity,
+            (SELECT COUNT(p) FROM Parcel p WHERE p.trip = t AND p.status IN ('CREATED', 'IN_TRANSIT')))
+        FROM Trip t
+        JOIN t.route r
+        JOIN t.bus b
+        LEFT JOIN t.assignment a
+        LEFT JOIN a.driver d
+        WHERE t.status IN ('SCHEDULED', 'BOARDING', 'DEPARTED')
+        AND t.tripDate >= :fromDate
+        AND t.departureTime < :until
+        ORDER BY t.departureTime, t.id
+    """)
+    List<DispatchBoardRow> findDispatchBoard(
+        @Param("fromDate") LocalDate fromDate,
+        @Param("until") LocalDateTime until
+    );
+
+    // Marca de cambios del tablero a partir de eventos confirmados (toda asignación registra el suyo).
+    // Las secuencias avanzan antes del commit; un id bajo que confirma tarde no mueve MAX(id) pero sí
+    // el conteo de la ventana de ids recientes
+    @Query(nativeQuery = true, value = """
+        SELECT COUNT(*) || ':' || COALESCE(MAX(id), 0) FROM outbox_events
+        WHERE id > (SELECT COALESCE(MAX(id), 0) - 1000 FROM outbox_events)
+    """)
+    String findDispatchBoardChangeMarker();
+}
@@ -0,0 +1,37 @@
+package com.web.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+// Refresh tokens ya canjeados (used_refresh_tokens): la clave primaria sobre el jti hace que un token
+// se canjee una sola vez, aunque dos instancias reciban el mismo refresh a la vez
+@Repository
+@RequiredArgsConstructor
+public class UsedRefreshTokenRepository {
+
+    private static final String CONSUME = """
+            INSERT INTO used_refresh_tokens (jti, user_id, expires_at)
+            VALUES (?, ?, ?)
+            ON CONFLICT (jti) DO NOTHING
+            """;
+
+    private static final String DELETE_EXPIRED = """
+            DELETE FROM used_refresh_tokens
+            WHERE expires_at < ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Falso si el jti ya se había canjeado
+    public boolean consume(String jti, Long userId, LocalDateTime expiresAt) {
+        return jdbcTemplate.update(CONSUME, jti, userId, expiresAt) == 1;
+    }
+
+    // Un token expirado ya no pasa la verificación de firma: su registro sobra
+    public int deleteExpiredBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update(DELETE_EXPIRED, cutoff);
+    }
+}
@@ -1,7 +1,9 @@
 package com.web.repository;
 
 import com.web.entity.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -15,6 +17,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmail(String email);
 
+    // Bloquea al usuario: las asignaciones concurrentes del mismo conductor se serializan
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :userId")
+    Optional<User> lockById(@Param("userId") Long userId);
+
     // Buscar usuarios por rol
     List<User> findByRole(User.Role role);
 
@@ -26,6 +33,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
     """)
     List<User> findAvailableDrivers();
 
+    // Conductores activos bloqueados en orden de id (la asignación automática no se cruza con las manuales)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        SELECT u FROM User u
+        WHERE u.role = 'DRIVER'
+        AND u.status = 'ACTIVE'
+        ORDER BY u.id
+    """)
+    List<User> lockAvailableDrivers();
+
     // Buscar despachadores activos
     @Query("""
         SELECT u FROM User u
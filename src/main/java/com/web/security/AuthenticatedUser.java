@@ -0,0 +1,24 @@
+package com.web.security;
+
+import com.web.entity.User;
+
+import java.io.Serializable;
+import java.security.Principal;
+
+// Principal construido a partir de los claims del JWT (sin consultar la BD)
+public record AuthenticatedUser(
+    Long id,
+    String email,
+    User.Role role,
+    User.Status status
+) implements Principal, Serializable {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public boolean isActive() {
+        return status == User.Status.ACTIVE;
+    }
+}
@@ -0,0 +1,44 @@
+package com.web.security;
+
+import com.web.util.JwtTokenProvider;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+@Component
+@RequiredArgsConstructor
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationCache tokenRevocationCache;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            String token = header.substring(BEARER_PREFIX.length());
+
+            // Sin consulta a la BD: el principal sale de los claims y la revocación de memoria
+            jwtTokenProvider.getAuthenticatedUser(token)
+                    .filter(AuthenticatedUser::isActive)
+                    .filter(user -> !tokenRevocationCache.isRevoked(user.id()))
+                    .ifPresent(user -> SecurityContextHolder.getContext()
+                            .setAuthentication(new JwtAuthenticationToken(user, token)));
+        }
+
+        chain.doFilter(request, response);
+    }
+}
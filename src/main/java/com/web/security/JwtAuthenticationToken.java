@@ -0,0 +1,35 @@
+package com.web.security;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+// Authentication stateless: el principal viaja completo dentro del token
+public class JwtAuthenticationToken extends AbstractAuthenticationToken {
+
+    private final AuthenticatedUser principal;
+    private final String token;
+
+    public JwtAuthenticationToken(AuthenticatedUser principal, String token) {
+        super(List.of(new SimpleGrantedAuthority("ROLE_" + principal.role().name())));
+        this.principal = principal;
+        this.token = token;
+        setAuthenticated(true);
+    }
+
+    @Override
+    public AuthenticatedUser getPrincipal() {
+        return principal;
+    }
+
+    @Override
+    public String getCredentials() {
+        return token;
+    }
+
+    @Override
+    public String getName() {
+        return principal.email();
+    }
+}
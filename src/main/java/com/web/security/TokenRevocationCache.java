@@ -0,0 +1,44 @@
+package com.web.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Usuarios desactivados cuyos tokens siguen vigentes.
+// Cada entrada vive lo mismo que un refresh token, luego los tokens expiran por sí solos.
+// Es memoria por instancia: no sobrevive a un reinicio ni llega a las demás instancias. Ahí el access
+// token del usuario desactivado sirve hasta su expiración (jwt.expiration.ms, 15 min); el refresh
+// no, porque /refresh vuelve a leer el estado en la BD.
+@Component
+public class TokenRevocationCache {
+
+    private final Map<Long, Instant> revokedUsers = new ConcurrentHashMap<>();
+    private final long tokenTtlMs;
+
+    public TokenRevocationCache(@Value("${jwt.refresh-expiration.ms:604800000}") long tokenTtlMs) {
+        this.tokenTtlMs = tokenTtlMs;
+    }
+
+    public void revoke(Long userId) {
+        revokedUsers.put(userId, Instant.now().plusMillis(tokenTtlMs));
+    }
+
+    public void restore(Long userId) {
+        revokedUsers.remove(userId);
+    }
+
+    public boolean isRevoked(Long userId) {
+        Instant until = revokedUsers.get(userId);
+        return until != null && until.isAfter(Instant.now());
+    }
+
+    @Scheduled(fixedRate = 300000) // Cada 5 minutos
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        revokedUsers.values().removeIf(until -> !until.isAfter(now));
+    }
+}
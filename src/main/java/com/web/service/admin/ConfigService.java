@@ -40,4 +40,6 @@ public interface ConfigService {
     BigDecimal getTicketPriceMultiplierHighDemand();
 
     BigDecimal getTicketPriceMultiplierMediumDemand();
+
+    BigDecimal getTicketPriceMultiplierPreferentialSeat();
 }
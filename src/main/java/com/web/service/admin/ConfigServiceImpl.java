@@ -233,6 +233,13 @@ public class ConfigServiceImpl implements ConfigService {
         return getDecimalConfig("ticket.price.multiplier.medium.demand", BigDecimal.valueOf(1.1));
     }
 
+    // Sin recargo por defecto: el asiento preferencial se cobra igual salvo que se configure
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal getTicketPriceMultiplierPreferentialSeat() {
+        return getDecimalConfig("ticket.price.multiplier.preferential.seat", BigDecimal.ONE);
+    }
+
     private Integer getIntegerConfig(String key, Integer fallback) {
         return configRepository.findByConfigKey(key)
                 .map(config -> {
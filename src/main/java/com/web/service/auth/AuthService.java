@@ -11,6 +11,8 @@ public interface AuthService {
     
     LoginResponse login(LoginRequest request);
     
+    LoginResponse refresh(String refreshToken);
+    
     boolean validateToken(String token);
 }
 
@@ -8,13 +8,18 @@ import com.web.dto.auth.User.mapper.UserMapper;
 import com.web.entity.User;
 import com.web.exception.EmailAlreadyExistsException;
 import com.web.exception.InvalidCredentialsException;
+import com.web.repository.UsedRefreshTokenRepository;
 import com.web.repository.UserRepository;
+import com.web.security.TokenRevocationCache;
 import com.web.util.JwtTokenProvider;
 import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+
 @Service
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
@@ -23,6 +28,8 @@ public class AuthServiceImpl implements AuthService {
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationCache tokenRevocationCache;
+    private final UsedRefreshTokenRepository usedRefreshTokenRepository;
 
     @Override
     @Transactional
@@ -46,7 +53,7 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
     public LoginResponse login(LoginRequest request) {
         User user = userRepository.findByEmail(request.email())
                 .orElseThrow(() -> new InvalidCredentialsException("Credenciales inválidas"));
@@ -59,14 +66,56 @@ public class AuthServiceImpl implements AuthService {
             throw new InvalidCredentialsException("Usuario inactivo");
         }
 
-        String token = jwtTokenProvider.generateToken(user.getEmail(), user.getRole().name());
+        // Rehash transparente si el hash se generó con un costo menor al configurado
+        if (passwordEncoder.upgradeEncoding(user.getPasswordHash())) {
+            user.setPasswordHash(passwordEncoder.encode(request.password()));
+            userRepository.save(user);
+        }
+
+        // Sin escritura: el refresh token abre una sesión nueva y las de otros dispositivos siguen vigentes
 
-        return new LoginResponse(token, "Bearer", userMapper.toResponse(user));
+        return buildLoginResponse(
+                jwtTokenProvider.generateToken(user),
+                jwtTokenProvider.generateRefreshToken(user),
+                userMapper.toResponse(user));
+    }
+
+    @Override
+    @Transactional
+    public LoginResponse refresh(String refreshToken) {
+        JwtTokenProvider.RefreshClaims claims = jwtTokenProvider.getRefreshClaims(refreshToken)
+                .orElseThrow(() -> new InvalidCredentialsException("Refresh token inválido o expirado"));
+
+        // Sin BCrypt, pero el estado sale de la BD
+        User user = userRepository.findById(claims.userId())
+                .filter(u -> u.getStatus() == User.Status.ACTIVE)
+                .filter(u -> !tokenRevocationCache.isRevoked(u.getId()))
+                .orElseThrow(() -> new InvalidCredentialsException("Refresh token inválido o expirado"));
+
+        // Rotación: el token recibido se canjea una sola vez; dos refresh con el mismo token no rotan ambos
+        if (!usedRefreshTokenRepository.consume(claims.tokenId(), user.getId(), claims.expiresAt())) {
+            throw new InvalidCredentialsException("Refresh token inválido o expirado");
+        }
+
+        return buildLoginResponse(
+                jwtTokenProvider.generateToken(user),
+                jwtTokenProvider.generateRefreshToken(user),
+                null);
+    }
+
+    @Scheduled(cron = "0 45 3 * * *") // Todos los días a las 3:45
+    @Transactional
+    public void purgeExpiredRefreshTokens() {
+        usedRefreshTokenRepository.deleteExpiredBefore(LocalDateTime.now());
     }
 
     @Override
     public boolean validateToken(String token) {
         return jwtTokenProvider.validateToken(token);
     }
+
+    private LoginResponse buildLoginResponse(String token, String refreshToken, UserResponse user) {
+        return new LoginResponse(token, "Bearer", jwtTokenProvider.getExpirationMs() / 1000, refreshToken, user);
+    }
 }
 
@@ -8,6 +8,8 @@ import com.web.entity.Bus;
 import com.web.exception.BusinessException;
 import com.web.exception.ResourceNotFoundException;
 import com.web.repository.BusRepository;
+import com.web.service.parcel.CargoLedgerService;
+import com.web.service.trip.SeatLayoutCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -25,6 +27,9 @@ public class BusServiceImpl implements BusService {
 
     private final BusRepository busRepository;
     private final BusMapper busMapper;
+    private final CatalogResponseCache responseCache;
+    private final SeatLayoutCache seatLayoutCache;
+    private final CargoLedgerService cargoLedgerService;
 
     @Override
     @Transactional
@@ -72,8 +77,10 @@ public class BusServiceImpl implements BusService {
         busMapper.updateEntityFromRequest(request, bus);
 
         Bus updatedBus = busRepository.save(bus);
-
-
+        // El detalle de viaje incluye los datos del bus
+        responseCache.evictAllTrips();
+        seatLayoutCache.evict(id);
+        cargoLedgerService.evictBus(id);
 
         return busMapper.toResponse(updatedBus);
     }
@@ -86,6 +93,7 @@ public class BusServiceImpl implements BusService {
 
         bus.setStatus(Bus.BusStatus.MAINTENANCE);
         busRepository.save(bus);
+        responseCache.evictAllTrips();
 
 
     }
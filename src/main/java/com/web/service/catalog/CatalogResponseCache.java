@@ -0,0 +1,196 @@
+package com.web.service.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.web.dto.catalog.Route.RouteDetailResponse;
+import com.web.dto.catalog.Route.RouteResponse;
+import com.web.dto.trip.TripDetailResponse;
+import com.web.util.ETags;
+import com.web.util.HashUtils;
+import com.web.util.TransactionCallbacks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// Respuestas públicas de rutas y viajes ya mapeadas, con un ETag fuerte por representación
+// (hash de los bytes JSON y de los CBOR). Las escrituras de rutas, paradas, buses y viajes
+// invalidan tras el commit en esta instancia; en las demás el TTL acota cuánto queda atrasada.
+@Component
+public class CatalogResponseCache {
+
+    private static final String ROUTES = "routes";
+    private static final String ROUTE_PREFIX = "route:";
+    private static final String TRIP_PREFIX = "trip:";
+
+    public record CachedResponse<T>(T body, String jsonETag, String cborETag) {
+
+        // 304 si el cliente ya tiene esta versión. El tipo se fija aquí para que los bytes enviados
+        // sean los del ETag; Vary: Accept para que los proxies no mezclen las representaciones
+        public ResponseEntity<T> toResponse(String ifNoneMatch, String accept, CacheControl cacheControl) {
+            MediaType mediaType = negotiate(accept);
+            String eTag = MediaType.APPLICATION_CBOR.equals(mediaType) ? cborETag : jsonETag;
+            if (ETags.matches(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(eTag).cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT).build();
+            }
+            return ResponseEntity.ok().contentType(mediaType)
+                    .eTag(eTag).cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT).body(body);
+        }
+    }
+
+    // expiresAt en nanoTime
+    private record Entry(CachedResponse<?> response, long expiresAt) {}
+
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborMapper;
+    private final Map<String, Entry> entries;
+    // Las invalidaciones solo llegan a la instancia que escribe (y el detalle de viaje también cambia por
+    // eventos del outbox, que invalidan donde corre el relay): en las demás el TTL acota el atraso
+    private final long routeTtlNanos;
+    private final long tripTtlNanos;
+    private final CacheControl routesCacheControl;
+    // Cambia con cada invalidación: una carga que empezó antes no se guarda
+    private long generation;
+
+    public CatalogResponseCache(
+            ObjectMapper objectMapper,
+            MappingJackson2CborHttpMessageConverter cborConverter,
+            @Value("${catalog.cache.size:2000}") int cacheSize,
+            @Value("${catalog.cache.max-age-seconds:300}") long maxAgeSeconds,
+            @Value("${catalog.cache.route-ttl-seconds:300}") long routeTtlSeconds,
+            @Value("${catalog.cache.trip-ttl-seconds:30}") long tripTtlSeconds) {
+        this.objectMapper = objectMapper;
+        this.cborMapper = cborConverter.getObjectMapper();
+        this.routeTtlNanos = TimeUnit.SECONDS.toNanos(routeTtlSeconds);
+        this.tripTtlNanos = TimeUnit.SECONDS.toNanos(tripTtlSeconds);
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > cacheSize;
+            }
+        });
+        this.routesCacheControl = CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic();
+    }
+
+    // Rutas: cambian poco, los clientes y proxies pueden reutilizarlas sin preguntar
+    public CacheControl routesCacheControl() {
+        return routesCacheControl;
+    }
+
+    // Viajes: el estado cambia durante el día, se revalida siempre (un 304 no toca la BD)
+    public CacheControl tripsCacheControl() {
+        return CacheControl.noCache().cachePublic();
+    }
+
+    public CachedResponse<List<RouteResponse>> routes(Supplier<List<RouteResponse>> loader) {
+        return getOrLoad(ROUTES, loader, routeTtlNanos);
+    }
+
+    public CachedResponse<RouteDetailResponse> route(Long routeId, Supplier<RouteDetailResponse> loader) {
+        return getOrLoad(ROUTE_PREFIX + routeId, loader, routeTtlNanos);
+    }
+
+    public CachedResponse<TripDetailResponse> trip(Long tripId, Supplier<TripDetailResponse> loader) {
+        return getOrLoad(TRIP_PREFIX + tripId, loader, tripTtlNanos);
+    }
+
+    // El detalle de viaje incluye la ruta, así que también se invalidan los viajes
+    public void evictRoute(Long routeId) {
+        evictAfterCommit(key -> key.equals(ROUTES) || key.equals(ROUTE_PREFIX + routeId) || key.startsWith(TRIP_PREFIX));
+    }
+
+    public void evictRoutes() {
+        evictAfterCommit(ROUTES::equals);
+    }
+
+    public void evictTrip(Long tripId) {
+        evictAfterCommit((TRIP_PREFIX + tripId)::equals);
+    }
+
+    // Cambios de bus: el detalle de viaje lo incluye y no se indexa por bus
+    public void evictAllTrips() {
+        evictAfterCommit(key -> key.startsWith(TRIP_PREFIX));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CachedResponse<T> getOrLoad(String key, Supplier<T> loader, long ttlNanos) {
+        long now = System.nanoTime();
+        Entry cached = entries.get(key);
+        if (cached != null && cached.expiresAt() - now > 0) {
+            return (CachedResponse<T>) cached.response();
+        }
+
+        long startedAt;
+        synchronized (entries) {
+            startedAt = generation;
+        }
+        T body = loader.get();
+        CachedResponse<T> loaded = new CachedResponse<>(body, eTagOf(objectMapper, body), eTagOf(cborMapper, body));
+        synchronized (entries) {
+            if (generation == startedAt) {
+                entries.put(key, new Entry(loaded, now + ttlNanos));
+            }
+        }
+        return loaded;
+    }
+
+    private void evictAfterCommit(Predicate<String> matches) {
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (entries) {
+                generation++;
+                entries.keySet().removeIf(matches);
+            }
+        });
+    }
+
+    private static String eTagOf(ObjectMapper mapper, Object body) {
+        try {
+            return "\"" + HashUtils.sha256Hex(mapper.writeValueAsBytes(body)).substring(0, 32) + "\"";
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Respuesta no serializable", e);
+        }
+    }
+
+    // Misma elección que haría Spring entre los dos conversores: JSON salvo que el cliente prefiera CBOR
+    static MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return MediaType.APPLICATION_JSON;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return MediaType.APPLICATION_CBOR;
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+}
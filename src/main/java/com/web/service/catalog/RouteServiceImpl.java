@@ -33,6 +33,7 @@ public class RouteServiceImpl implements RouteService {
     private final TripRepository tripRepository;
     private final RouteMapper routeMapper;
     private final StopMapper stopMapper;
+    private final CatalogResponseCache responseCache;
 
     @Override
     @Transactional
@@ -43,21 +44,24 @@ public class RouteServiceImpl implements RouteService {
 
         Route route = routeMapper.toEntity(request);
         Route savedRoute = routeRepository.save(route);
+        responseCache.evictRoutes();
 
 
 
         return routeMapper.toResponse(savedRoute);
     }
 
+    // Cargadores de CatalogResponseCache: en el primario (sin readOnly) para no guardar la versión
+    // de una réplica que aún no aplicó la escritura que invalidó la entrada
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
     public List<RouteResponse> getAllRoutes() {
         List<Route> routes = routeRepository.findAll();
         return routeMapper.toResponseList(routes);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
     public RouteDetailResponse getRouteById(Long id) {
         Route route = routeRepository.findByIdWithStops(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Ruta", id));
@@ -74,6 +78,7 @@ public class RouteServiceImpl implements RouteService {
         routeMapper.updateEntityFromRequest(request, route);
 
         Route updatedRoute = routeRepository.save(route);
+        responseCache.evictRoute(id);
 
 
         return routeMapper.toResponse(updatedRoute);
@@ -90,6 +95,7 @@ public class RouteServiceImpl implements RouteService {
         }
 
         routeRepository.delete(route);
+        responseCache.evictRoute(id);
 
 
     }
@@ -108,6 +114,7 @@ public class RouteServiceImpl implements RouteService {
         stop.setRoute(route);
 
         Stop savedStop = stopRepository.save(stop);
+        responseCache.evictRoute(routeId);
 
 
         return getRouteById(routeId);
@@ -127,6 +134,7 @@ public class RouteServiceImpl implements RouteService {
         }
 
         stopRepository.delete(stop);
+        responseCache.evictRoute(routeId);
 
     }
 
@@ -1,8 +1,10 @@
 package com.web.service.dispatch;
 
+import com.web.dto.common.CursorPageResponse;
 import com.web.dto.dispatch.Assignment.AssignmentCreateRequest;
 import com.web.dto.dispatch.Assignment.AssignmentResponse;
 import com.web.dto.dispatch.Assignment.AssignmentUpdateRequest;
+import com.web.dto.dispatch.Schedule.DriverScheduleEntry;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -16,7 +18,11 @@ public interface AssignmentService {
     AssignmentResponse updateChecklist(Long assignmentId, AssignmentUpdateRequest request);
     
     List<AssignmentResponse> getDriverAssignments(Long driverId, LocalDate date);
+
+    DriverSchedulePage getDriverSchedule(Long driverId, LocalDate fromDate, int days, String cursor, int size);
     
     List<AssignmentResponse> getDispatcherAssignments(Long dispatcherId);
-}
 
+    // Página de la agenda con su versión (hash del contenido) para If-None-Match
+    record DriverSchedulePage(String version, CursorPageResponse<DriverScheduleEntry> page) {}
+}
@@ -1,10 +1,13 @@
 package com.web.service.dispatch;
 
+import com.web.dto.common.CursorPageResponse;
 import com.web.dto.dispatch.Assignment.AssignmentCreateRequest;
 import com.web.dto.dispatch.Assignment.AssignmentResponse;
 import com.web.dto.dispatch.Assignment.AssignmentUpdateRequest;
 import com.web.dto.dispatch.Assignment.mapper.AssignmentMapper;
+import com.web.dto.dispatch.Schedule.DriverScheduleEntry;
 import com.web.entity.Assignment;
+import com.web.entity.OutboxEvent;
 import com.web.entity.Trip;
 import com.web.entity.User;
 import com.web.exception.BusinessException;
@@ -12,8 +15,13 @@ import com.web.exception.ResourceNotFoundException;
 import com.web.repository.AssignmentRepository;
 import com.web.repository.TripRepository;
 import com.web.repository.UserRepository;
+import com.web.service.catalog.CatalogResponseCache;
+import com.web.service.event.OutboxService;
+import com.web.util.HashUtils;
+import com.web.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
@@ -22,16 +30,22 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 
 @Service
 @RequiredArgsConstructor
 public class AssignmentServiceImpl implements AssignmentService {
 
+    private static final int MAX_SCHEDULE_DAYS = 31;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final AssignmentRepository assignmentRepository;
     private final TripRepository tripRepository;
     private final UserRepository userRepository;
     private final AssignmentMapper assignmentMapper;
+    private final OutboxService outboxService;
+    private final CatalogResponseCache responseCache;
 
     @Override
 
@@ -49,13 +63,21 @@ public class AssignmentServiceImpl implements AssignmentService {
             throw new BusinessException("Este viaje ya tiene una asignación", HttpStatus.CONFLICT, "ASSIGNMENT_EXISTS");
         }
 
-        User driver = userRepository.findById(request.driverId())
+        // Bloqueo del conductor: las asignaciones concurrentes del mismo conductor se validan en serie
+        User driver = userRepository.lockById(request.driverId())
                 .orElseThrow(() -> new ResourceNotFoundException("Conductor", request.driverId()));
 
         if (driver.getRole() != User.Role.DRIVER) {
             throw new BusinessException("El usuario no es un conductor", HttpStatus.BAD_REQUEST, "INVALID_DRIVER_ROLE");
         }
 
+        LocalDateTime arrivalEta = trip.getArrivalEta() != null ? trip.getArrivalEta() : trip.getDepartureTime();
+        assignmentRepository.findConflictingTripId(driver.getId(), trip.getDepartureTime(), arrivalEta)
+                .ifPresent(conflictingTripId -> {
+                    throw new BusinessException("El conductor ya está asignado al viaje " + conflictingTripId
+                            + " en ese horario", HttpStatus.CONFLICT, "DRIVER_SCHEDULE_CONFLICT");
+                });
+
         User dispatcher = userRepository.findById(request.dispatcherId())
                 .orElseThrow(() -> new ResourceNotFoundException("Despachador", request.dispatcherId()));
 
@@ -71,6 +93,9 @@ public class AssignmentServiceImpl implements AssignmentService {
         assignment.setAssignedAt(LocalDateTime.now());
         
         Assignment savedAssignment = assignmentRepository.save(assignment);
+        responseCache.evictTrip(trip.getId());
+        outboxService.record(OutboxEvent.AggregateType.TRIP, trip.getId(), OutboxEvent.EventType.TRIP_ASSIGNED,
+                Map.of("driverId", driver.getId(), "dispatcherId", dispatcher.getId()));
 
 
         return assignmentMapper.toResponse(savedAssignment);
@@ -93,6 +118,9 @@ public class AssignmentServiceImpl implements AssignmentService {
         assignmentMapper.updateEntityFromRequest(request, assignment);
 
         Assignment updatedAssignment = assignmentRepository.save(assignment);
+        responseCache.evictTrip(assignment.getTrip().getId());
+        outboxService.record(OutboxEvent.AggregateType.TRIP, assignment.getTrip().getId(),
+                OutboxEvent.EventType.TRIP_CHECKLIST_UPDATED, Map.of("checklistOk", updatedAssignment.getChecklistOk()));
 
 
         return assignmentMapper.toResponse(updatedAssignment);
@@ -101,11 +129,42 @@ public class AssignmentServiceImpl implements AssignmentService {
     @Override
     @Transactional(readOnly = true)
     public List<AssignmentResponse> getDriverAssignments(Long driverId, LocalDate date) {
-        List<Assignment> assignments = assignmentRepository.findByDriverId(driverId);
-        // Filtrar por fecha si es necesario
+        // Sin fecha se usa el día actual: el historial completo crece sin límite
+        LocalDate day = date != null ? date : LocalDate.now();
+        List<Assignment> assignments = assignmentRepository.findDriverAssignmentsForDate(driverId, day);
         return assignmentMapper.toResponseList(assignments);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public DriverSchedulePage getDriverSchedule(Long driverId, LocalDate fromDate, int days, String cursor, int size) {
+        LocalDate from = fromDate != null ? fromDate : LocalDate.now();
+        LocalDate to = from.plusDays(Math.max(1, Math.min(days, MAX_SCHEDULE_DAYS)) - 1L);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Se pide un registro extra para saber si hay página siguiente sin hacer COUNT
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<DriverScheduleEntry> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = assignmentRepository.findDriverSchedule(driverId, from, to, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = assignmentRepository.findDriverScheduleAfter(driverId, from, to, after.timestamp(), after.id(), limit);
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        List<DriverScheduleEntry> content = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            DriverScheduleEntry last = content.get(content.size() - 1);
+            nextCursor = new KeysetCursor(last.departureTime(), last.tripId()).encode();
+        }
+
+        CursorPageResponse<DriverScheduleEntry> page = new CursorPageResponse<>(content, pageSize, nextCursor, hasNext);
+        String version = HashUtils.sha256Hex(from + "|" + to + "|" + content + "|" + nextCursor).substring(0, 16);
+        return new DriverSchedulePage(version, page);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<AssignmentResponse> getDispatcherAssignments(Long dispatcherId) {
@@ -0,0 +1,137 @@
+package com.web.service.dispatch;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+// Asignación de conductores por intervalos: cada día se resuelve con un greedy best-fit
+// (el conductor libre más tarde que aún respeta el descanso), los días en paralelo (fork-join)
+// y al final se revisan los viajes que cruzan la medianoche.
+final class AutoAssignmentPlanner {
+
+    record Slot(Long tripId, LocalDateTime start, LocalDateTime end) {
+        LocalDate day() {
+            return start.toLocalDate();
+        }
+
+        long minutes() {
+            return Duration.between(start, end).toMinutes();
+        }
+    }
+
+    private final Duration minRest;
+    private final long maxDailyDrivingMinutes;
+
+    AutoAssignmentPlanner(Duration minRest, long maxDailyDrivingMinutes) {
+        this.minRest = minRest;
+        this.maxDailyDrivingMinutes = maxDailyDrivingMinutes;
+    }
+
+    // tripId -> driverId; committed son los viajes ya asignados de cada conductor
+    Map<Long, Long> plan(List<Slot> trips, List<Long> driverIds, Map<Long, List<Slot>> committed) {
+        Map<LocalDate, List<Slot>> tripsByDay = trips.stream()
+                .collect(Collectors.groupingBy(Slot::day, TreeMap::new, Collectors.toList()));
+
+        // Cada día es independiente salvo por los viajes nocturnos: se planifican en el pool fork-join común
+        List<Map<Long, Long>> dayPlans = tripsByDay.values().parallelStream()
+                .map(dayTrips -> planDay(dayTrips, driverIds, committed))
+                .toList();
+
+        Map<Long, Slot> slotsById = trips.stream().collect(Collectors.toMap(Slot::tripId, slot -> slot));
+        Map<Long, Long> plan = new LinkedHashMap<>();
+        dayPlans.forEach(plan::putAll);
+        return reconcile(plan, slotsById);
+    }
+
+    private Map<Long, Long> planDay(List<Slot> dayTrips, List<Long> driverIds, Map<Long, List<Slot>> committed) {
+        List<Slot> ordered = new ArrayList<>(dayTrips);
+        ordered.sort(Comparator.comparing(Slot::start).thenComparing(Slot::tripId));
+        LocalDate day = ordered.get(0).day();
+
+        // Conductores agrupados por la hora en que quedan libres dentro del día
+        NavigableMap<LocalDateTime, Deque<Long>> freeAt = new TreeMap<>();
+        Map<Long, Long> drivenMinutes = new HashMap<>();
+        for (Long driverId : driverIds) {
+            freeAt.computeIfAbsent(LocalDateTime.MIN, key -> new ArrayDeque<>()).add(driverId);
+            long committedMinutes = committed.getOrDefault(driverId, List.of()).stream()
+                    .filter(slot -> slot.day().equals(day))
+                    .mapToLong(Slot::minutes)
+                    .sum();
+            drivenMinutes.put(driverId, committedMinutes);
+        }
+
+        Map<Long, Long> plan = new LinkedHashMap<>();
+        for (Slot trip : ordered) {
+            Long chosen = null;
+            LocalDateTime chosenKey = null;
+            search:
+            for (Map.Entry<LocalDateTime, Deque<Long>> entry
+                    : freeAt.headMap(trip.start().minus(minRest), true).descendingMap().entrySet()) {
+                for (Long driverId : entry.getValue()) {
+                    if (drivenMinutes.get(driverId) + trip.minutes() <= maxDailyDrivingMinutes
+                            && !overlapsCommitted(committed.getOrDefault(driverId, List.of()), trip)) {
+                        chosen = driverId;
+                        chosenKey = entry.getKey();
+                        break search;
+                    }
+                }
+            }
+            if (chosen == null) {
+                continue;
+            }
+
+            Deque<Long> drivers = freeAt.get(chosenKey);
+            drivers.remove(chosen);
+            if (drivers.isEmpty()) {
+                freeAt.remove(chosenKey);
+            }
+            freeAt.computeIfAbsent(trip.end(), key -> new ArrayDeque<>()).add(chosen);
+            drivenMinutes.merge(chosen, trip.minutes(), Long::sum);
+            plan.put(trip.tripId(), chosen);
+        }
+        return plan;
+    }
+
+    // Un viaje ya asignado que toca el intervalo (más el descanso a cada lado) lo descarta
+    private boolean overlapsCommitted(List<Slot> committed, Slot trip) {
+        LocalDateTime from = trip.start().minus(minRest);
+        LocalDateTime to = trip.end().plus(minRest);
+        for (Slot busy : committed) {
+            if (!busy.start().isAfter(to) && !busy.end().isBefore(from)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Viajes que terminan después de medianoche pueden chocar con el plan del día siguiente: se libera el posterior
+    private Map<Long, Long> reconcile(Map<Long, Long> plan, Map<Long, Slot> slotsById) {
+        Map<Long, List<Slot>> byDriver = new HashMap<>();
+        plan.forEach((tripId, driverId) ->
+                byDriver.computeIfAbsent(driverId, key -> new ArrayList<>()).add(slotsById.get(tripId)));
+
+        for (List<Slot> slots : byDriver.values()) {
+            slots.sort(Comparator.comparing(Slot::start));
+            LocalDateTime previousEnd = null;
+            for (Slot slot : slots) {
+                if (previousEnd != null && slot.start().isBefore(previousEnd.plus(minRest))) {
+                    plan.remove(slot.tripId());
+                } else {
+                    previousEnd = slot.end();
+                }
+            }
+        }
+        return plan;
+    }
+}
@@ -0,0 +1,9 @@
+package com.web.service.dispatch;
+
+import com.web.dto.dispatch.AutoAssignment.AutoAssignmentRequest;
+import com.web.dto.dispatch.AutoAssignment.AutoAssignmentResponse;
+
+public interface AutoAssignmentService {
+
+    AutoAssignmentResponse autoAssign(AutoAssignmentRequest request, Long dispatcherId);
+}
@@ -0,0 +1,131 @@
+package com.web.service.dispatch;
+
+import com.web.dto.dispatch.AutoAssignment.AutoAssignmentRequest;
+import com.web.dto.dispatch.AutoAssignment.AutoAssignmentResponse;
+import com.web.dto.dispatch.AutoAssignment.ProposedAssignment;
+import com.web.entity.OutboxEvent;
+import com.web.entity.Trip;
+import com.web.entity.User;
+import com.web.repository.AssignmentBulkRepository;
+import com.web.repository.AssignmentRepository;
+import com.web.repository.TripRepository;
+import com.web.repository.UserRepository;
+import com.web.service.catalog.CatalogResponseCache;
+import com.web.service.event.OutboxService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class AutoAssignmentServiceImpl implements AutoAssignmentService {
+
+    private final AssignmentRepository assignmentRepository;
+    private final AssignmentBulkRepository assignmentBulkRepository;
+    private final TripRepository tripRepository;
+    private final UserRepository userRepository;
+    private final CatalogResponseCache responseCache;
+    private final OutboxService outboxService;
+    private final AutoAssignmentPlanner planner;
+
+    public AutoAssignmentServiceImpl(
+            AssignmentRepository assignmentRepository,
+            AssignmentBulkRepository assignmentBulkRepository,
+            TripRepository tripRepository,
+            UserRepository userRepository,
+            CatalogResponseCache responseCache,
+            OutboxService outboxService,
+            @Value("${dispatch.auto-assign.min-rest-minutes:60}") long minRestMinutes,
+            @Value("${dispatch.auto-assign.max-daily-driving-minutes:600}") long maxDailyDrivingMinutes) {
+        this.assignmentRepository = assignmentRepository;
+        this.assignmentBulkRepository = assignmentBulkRepository;
+        this.tripRepository = tripRepository;
+        this.userRepository = userRepository;
+        this.responseCache = responseCache;
+        this.outboxService = outboxService;
+        this.planner = new AutoAssignmentPlanner(Duration.ofMinutes(minRestMinutes), maxDailyDrivingMinutes);
+    }
+
+    // En modo de prueba solo se devuelve el plan; al aplicarlo se bloquean los conductores para
+    // que las asignaciones manuales concurrentes esperen y el plan se calcule sobre datos confirmados
+    @Override
+    @Transactional
+    public AutoAssignmentResponse autoAssign(AutoAssignmentRequest request, Long dispatcherId) {
+        boolean dryRun = !Boolean.FALSE.equals(request.dryRun());
+        LocalDate fromDate = request.fromDate();
+        LocalDate toDate = fromDate.plusDays(request.days() - 1L);
+
+        List<User> drivers = dryRun ? userRepository.findAvailableDrivers() : userRepository.lockAvailableDrivers();
+        List<Trip> trips = tripRepository.findUnassignedTripsBetween(fromDate, toDate);
+        if (trips.isEmpty() || drivers.isEmpty()) {
+            return new AutoAssignmentResponse(fromDate, toDate, dryRun, 0, List.of(),
+                    trips.stream().map(Trip::getId).toList());
+        }
+
+        // Un día de margen a cada lado: los viajes nocturnos afectan el descanso del día vecino
+        Map<Long, List<AutoAssignmentPlanner.Slot>> committed = assignmentRepository
+                .findActiveAssignmentsBetween(fromDate.minusDays(1), toDate.plusDays(1)).stream()
+                .collect(Collectors.groupingBy(
+                        assignment -> assignment.getDriver().getId(),
+                        Collectors.mapping(assignment -> slotOf(assignment.getTrip()), Collectors.toList())));
+
+        long startedAt = System.nanoTime();
+        List<AutoAssignmentPlanner.Slot> slots = trips.stream().map(this::slotOf).toList();
+        Map<Long, Long> plan = planner.plan(slots, drivers.stream().map(User::getId).toList(), committed);
+        log.info("Asignación automática {} a {}: {} de {} viajes en {} ms",
+                fromDate, toDate, plan.size(), trips.size(), (System.nanoTime() - startedAt) / 1_000_000);
+
+        int appliedCount = 0;
+        if (!dryRun && !plan.isEmpty()) {
+            List<Long> inserted = assignmentBulkRepository.insertAssignments(plan, dispatcherId, LocalDateTime.now());
+            // Viajes asignados por otra vía mientras tanto: se reportan como no asignados por este plan
+            plan.keySet().retainAll(new HashSet<>(inserted));
+            appliedCount = inserted.size();
+            // Mismo evento que la asignación manual, solo por las filas que sí se insertaron
+            for (Long tripId : inserted) {
+                outboxService.record(OutboxEvent.AggregateType.TRIP, tripId, OutboxEvent.EventType.TRIP_ASSIGNED,
+                        Map.of("driverId", plan.get(tripId), "dispatcherId", dispatcherId));
+            }
+            // Un solo barrido en lugar de una invalidación por viaje
+            responseCache.evictAllTrips();
+        }
+
+        Map<Long, User> driversById = drivers.stream().collect(Collectors.toMap(User::getId, Function.identity()));
+        List<ProposedAssignment> assignments = trips.stream()
+                .filter(trip -> plan.containsKey(trip.getId()))
+                .map(trip -> {
+                    User driver = driversById.get(plan.get(trip.getId()));
+                    return new ProposedAssignment(trip.getId(), trip.getRoute().getName(), trip.getDepartureTime(),
+                            arrivalOf(trip), driver.getId(), driver.getName());
+                })
+                .toList();
+        List<Long> unassignedTripIds = trips.stream()
+                .map(Trip::getId)
+                .filter(tripId -> !plan.containsKey(tripId))
+                .toList();
+
+        return new AutoAssignmentResponse(fromDate, toDate, dryRun, appliedCount, assignments, unassignedTripIds);
+    }
+
+    private AutoAssignmentPlanner.Slot slotOf(Trip trip) {
+        return new AutoAssignmentPlanner.Slot(trip.getId(), trip.getDepartureTime(), arrivalOf(trip));
+    }
+
+    // Sin ETA se estima con la duración de la ruta
+    private LocalDateTime arrivalOf(Trip trip) {
+        if (trip.getArrivalEta() != null) {
+            return trip.getArrivalEta();
+        }
+        return trip.getDepartureTime().plusMinutes(trip.getRoute().getDurationMin());
+    }
+}
@@ -1,5 +1,7 @@
 package com.web.service.dispatch;
 
+import com.web.dto.dispatch.BoardingScanRequest;
+import com.web.dto.dispatch.BoardingScanResponse;
 import com.web.dto.trip.TripResponse;
 
 public interface BoardingService {
@@ -11,5 +13,7 @@ public interface BoardingService {
     TripResponse departTrip(Long tripId);
     
     TripResponse getTripStatus(Long tripId);
+
+    BoardingScanResponse scanTicket(Long tripId, BoardingScanRequest request);
 }
 
@@ -1,14 +1,23 @@
 package com.web.service.dispatch;
 
+import com.web.dto.dispatch.BoardingScanRequest;
+import com.web.dto.dispatch.BoardingScanResponse;
+import com.web.dto.dispatch.Manifest.ManifestTicketEntry;
 import com.web.dto.trip.TripResponse;
 import com.web.dto.trip.mapper.TripMapper;
 import com.web.entity.Assignment;
+import com.web.entity.Incident;
+import com.web.entity.OutboxEvent;
 import com.web.entity.Trip;
 import com.web.exception.BusinessException;
 import com.web.exception.InvalidStateTransitionException;
 import com.web.exception.ResourceNotFoundException;
 import com.web.repository.AssignmentRepository;
 import com.web.repository.TripRepository;
+import com.web.service.catalog.CatalogResponseCache;
+import com.web.service.event.OutboxService;
+import com.web.service.incident.IncidentService;
+import com.web.util.HashUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -16,6 +25,9 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Map;
+
 
 @Service
 @RequiredArgsConstructor
@@ -24,6 +36,11 @@ public class BoardingServiceImpl implements BoardingService {
     private final TripRepository tripRepository;
     private final AssignmentRepository assignmentRepository;
     private final TripMapper tripMapper;
+    private final ManifestService manifestService;
+    private final BoardingWriteBehind boardingWriteBehind;
+    private final OutboxService outboxService;
+    private final CatalogResponseCache responseCache;
+    private final IncidentService incidentService;
 
     @Override
     @Transactional
@@ -38,7 +55,12 @@ public class BoardingServiceImpl implements BoardingService {
 
         trip.setStatus(Trip.TripStatus.BOARDING);
         Trip updatedTrip = tripRepository.save(trip);
+        responseCache.evictTrip(tripId);
 
+        // Manifiesto precalculado para que el conductor valide offline
+        manifestService.buildManifest(tripId);
+        outboxService.record(OutboxEvent.AggregateType.TRIP, tripId, OutboxEvent.EventType.BOARDING_OPENED,
+                Map.of("status", updatedTrip.getStatus()));
 
 
         return tripMapper.toResponse(updatedTrip);
@@ -56,8 +78,8 @@ public class BoardingServiceImpl implements BoardingService {
         }
 
         Trip updatedTrip = tripRepository.save(trip);
-
-
+        outboxService.record(OutboxEvent.AggregateType.TRIP, tripId, OutboxEvent.EventType.BOARDING_CLOSED,
+                Map.of("status", updatedTrip.getStatus()));
 
         return tripMapper.toResponse(updatedTrip);
     }
@@ -82,7 +104,9 @@ public class BoardingServiceImpl implements BoardingService {
 
         trip.setStatus(Trip.TripStatus.DEPARTED);
         Trip updatedTrip = tripRepository.save(trip);
-
+        responseCache.evictTrip(tripId);
+        outboxService.record(OutboxEvent.AggregateType.TRIP, tripId, OutboxEvent.EventType.TRIP_DEPARTED,
+                Map.of("driverId", assignment.getDriver().getId()));
 
 
         return tripMapper.toResponse(updatedTrip);
@@ -95,5 +119,29 @@ public class BoardingServiceImpl implements BoardingService {
                 .orElseThrow(() -> new ResourceNotFoundException("Viaje", tripId));
         return tripMapper.toResponse(trip);
     }
-}
 
+    // Sin consulta por escaneo: se valida contra el manifiesto en memoria y se persiste en lote
+    @Override
+    public BoardingScanResponse scanTicket(Long tripId, BoardingScanRequest request) {
+        LocalDateTime now = LocalDateTime.now();
+        ManifestTicketEntry entry = manifestService.registerBoarding(
+                tripId, HashUtils.sha256Hex(request.qrCode()), request.stopId(), now);
+
+        boardingWriteBehind.enqueue(entry.ticketId(), now);
+
+        // Con sobreventa pueden presentarse más pasajeros que asientos: se deja constancia por cada uno de más
+        int excess = manifestService.excessLoad(tripId, entry.fromStopOrder());
+        if (excess > 0) {
+            incidentService.record(Incident.EntityType.TRIP, tripId, Incident.IncidentType.OVERBOOK,
+                    "Abordaje sobre la capacidad del bus: " + excess + " pasajero(s) de más al salir de la parada "
+                            + entry.fromStopOrder(), null);
+        }
+
+        return new BoardingScanResponse(
+                entry.ticketId(),
+                entry.seatNumber(),
+                entry.fromStopOrder(),
+                entry.toStopOrder(),
+                now);
+    }
+}
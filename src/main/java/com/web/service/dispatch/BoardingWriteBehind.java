@@ -0,0 +1,100 @@
+package com.web.service.dispatch;
+
+import com.web.entity.Incident;
+import com.web.service.incident.IncidentService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Los escaneos de puerta se confirman en memoria; boarded_at se escribe en lote cada pocos segundos.
+// El manifiesto de cada instancia solo ve sus propios escaneos: la BD se queda con el primer abordaje
+// de cada ticket y un QR ya abordado en otra instancia se reporta como incidente al escribir el lote.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BoardingWriteBehind {
+
+    // Un reintento del mismo escaneo reescribe el mismo valor; otro escaneo del ticket no actualiza nada
+    private static final String UPDATE_BOARDED =
+            "UPDATE tickets SET boarded_at = ? WHERE id = ? AND (boarded_at IS NULL OR boarded_at = ?)";
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IncidentService incidentService;
+    private final Queue<BoardedTicket> pending = new ConcurrentLinkedQueue<>();
+
+    public void enqueue(Long ticketId, LocalDateTime boardedAt) {
+        pending.add(new BoardedTicket(ticketId, boardedAt));
+    }
+
+    @Scheduled(fixedDelayString = "${boarding.write-behind.interval-ms:2000}")
+    public void flush() {
+        // Solo lo encolado hasta ahora: lo que llegue durante la escritura queda para el siguiente ciclo
+        int remaining = pending.size();
+        List<BoardedTicket> batch = new ArrayList<>(BATCH_SIZE);
+        BoardedTicket next;
+        while (remaining-- > 0 && (next = pending.poll()) != null) {
+            batch.add(next);
+            if (batch.size() == BATCH_SIZE) {
+                if (!write(batch)) {
+                    return;
+                }
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private boolean write(List<BoardedTicket> batch) {
+        try {
+            int[][] counts = jdbcTemplate.batchUpdate(UPDATE_BOARDED, batch, batch.size(), (ps, ticket) -> {
+                ps.setTimestamp(1, Timestamp.valueOf(ticket.boardedAt()));
+                ps.setLong(2, ticket.ticketId());
+                ps.setTimestamp(3, Timestamp.valueOf(ticket.boardedAt()));
+            });
+            reportDuplicates(batch, counts);
+            return true;
+        } catch (RuntimeException e) {
+            // Con la BD caída se corta el ciclo y se reintenta tras el intervalo;
+            // el estado en memoria sigue siendo la fuente para la puerta
+            log.warn("No se pudo persistir el abordaje de {} tickets, se reintentará", batch.size(), e);
+            pending.addAll(batch);
+            return false;
+        }
+    }
+
+    private void reportDuplicates(List<BoardedTicket> batch, int[][] counts) {
+        int i = 0;
+        for (int[] chunk : counts) {
+            for (int count : chunk) {
+                if (count == 0) {
+                    BoardedTicket ticket = batch.get(i);
+                    log.warn("Ticket {} abordado de nuevo en otra instancia ({})", ticket.ticketId(), ticket.boardedAt());
+                    incidentService.record(Incident.EntityType.TICKET, ticket.ticketId(), Incident.IncidentType.SECURITY,
+                            "QR escaneado de nuevo a las " + ticket.boardedAt()
+                                    + ": el abordaje ya estaba registrado por otra puerta", null);
+                }
+                i++;
+            }
+        }
+    }
+
+    private record BoardedTicket(Long ticketId, LocalDateTime boardedAt) {}
+}
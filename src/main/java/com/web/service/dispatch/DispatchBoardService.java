@@ -0,0 +1,11 @@
+package com.web.service.dispatch;
+
+import com.web.dto.dispatch.Board.DispatchBoardResponse;
+
+public interface DispatchBoardService {
+
+    // Versión barata (sin armar el tablero) para responder 304 a los refrescos sin cambios
+    String getVersion(int hours);
+
+    DispatchBoardResponse getBoard(int hours);
+}
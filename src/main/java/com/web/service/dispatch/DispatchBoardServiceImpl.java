@@ -0,0 +1,52 @@
+package com.web.service.dispatch;
+
+import com.web.dto.dispatch.Board.DispatchBoardResponse;
+import com.web.dto.dispatch.Board.DispatchBoardRow;
+import com.web.repository.TripRepository;
+import com.web.util.HashUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+
+@Service
+@RequiredArgsConstructor
+public class DispatchBoardServiceImpl implements DispatchBoardService {
+
+    private static final int MAX_HOURS = 48;
+    // Viajes en ruta o rezagados de la víspera siguen en el tablero hasta llegar
+    private static final int LOOKBACK_DAYS = 1;
+
+    private final TripRepository tripRepository;
+
+    @Override
+    public String getVersion(int hours) {
+        return versionOf(tripRepository.findDispatchBoardChangeMarker(), untilFor(hours));
+    }
+
+    // La marca se lee antes del tablero: un cambio concurrente deja una versión vieja y se refresca en el próximo ciclo
+    @Override
+    @Transactional(readOnly = true)
+    public DispatchBoardResponse getBoard(int hours) {
+        LocalDateTime until = untilFor(hours);
+        String version = versionOf(tripRepository.findDispatchBoardChangeMarker(), until);
+        List<DispatchBoardRow> rows = tripRepository.findDispatchBoard(
+                LocalDate.now().minusDays(LOOKBACK_DAYS), until);
+        return new DispatchBoardResponse(version, until, rows);
+    }
+
+    // La ventana avanza por minuto completo para que refrescos seguidos compartan versión
+    private LocalDateTime untilFor(int hours) {
+        int boundedHours = Math.max(1, Math.min(hours, MAX_HOURS));
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).plusHours(boundedHours);
+    }
+
+    private String versionOf(String changeMarker, LocalDateTime until) {
+        return HashUtils.sha256Hex(changeMarker + "|" + until).substring(0, 16);
+    }
+}
@@ -0,0 +1,38 @@
+package com.web.service.dispatch;
+
+import com.web.dto.dispatch.Manifest.ManifestTicketEntry;
+import com.web.dto.dispatch.Manifest.TripManifestDeltaResponse;
+import com.web.dto.dispatch.Manifest.TripManifestResponse;
+import com.web.entity.Parcel;
+import com.web.entity.Ticket;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+public interface ManifestService {
+
+    TripManifestResponse buildManifest(Long tripId);
+
+    TripManifestResponse getManifest(Long tripId);
+
+    CompressedManifest getCompressedManifest(Long tripId);
+
+    TripManifestDeltaResponse getDelta(Long tripId, Long sinceVersion);
+
+    ManifestTicketEntry registerBoarding(Long tripId, String qrHash, Long stopId, LocalDateTime boardedAt);
+
+    // Pasajeros abordados por encima de la capacidad al salir de la parada (<= 0 si caben)
+    int excessLoad(Long tripId, Integer stopOrder);
+
+    // Tickets ya escaneados en puerta según el manifiesto en memoria (boarded_at se escribe con retraso)
+    Set<Long> boardedTicketIds(Long tripId);
+
+    void onTicketChanged(Ticket ticket);
+
+    void onParcelChanged(Parcel parcel);
+
+    void evict(Long tripId);
+
+    // JSON del manifiesto comprimido con gzip, listo para enviar tal cual
+    record CompressedManifest(long version, byte[] payload) {}
+}
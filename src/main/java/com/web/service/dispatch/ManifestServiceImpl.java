@@ -0,0 +1,217 @@
+package com.web.service.dispatch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.web.dto.dispatch.Manifest.ManifestParcelEntry;
+import com.web.dto.dispatch.Manifest.ManifestTicketEntry;
+import com.web.dto.dispatch.Manifest.TripManifestDeltaResponse;
+import com.web.dto.dispatch.Manifest.TripManifestResponse;
+import com.web.entity.Parcel;
+import com.web.entity.Stop;
+import com.web.entity.Ticket;
+import com.web.entity.Trip;
+import com.web.exception.BusinessException;
+import com.web.exception.ResourceNotFoundException;
+import com.web.repository.ParcelRepository;
+import com.web.repository.StopRepository;
+import com.web.repository.TicketRepository;
+import com.web.repository.TripRepository;
+import com.web.util.HashUtils;
+import com.web.util.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+
+@Service
+@RequiredArgsConstructor
+public class ManifestServiceImpl implements ManifestService {
+
+    private final TripRepository tripRepository;
+    private final StopRepository stopRepository;
+    private final TicketRepository ticketRepository;
+    private final ParcelRepository parcelRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    // Manifiestos de viajes en abordaje o en ruta
+    private final Map<Long, TripManifest> manifests = new ConcurrentHashMap<>();
+    // Una reconstrucción por viaje a la vez; locks por franjas para no acumular uno por viaje
+    private final Object[] rebuildLocks = IntStream.range(0, 64).mapToObj(i -> new Object()).toArray();
+
+    @Override
+    @Transactional(readOnly = true)
+    public TripManifestResponse buildManifest(Long tripId) {
+        Trip trip = tripRepository.findById(tripId)
+                .orElseThrow(() -> new ResourceNotFoundException("Viaje", tripId));
+
+        List<Stop> stops = stopRepository.findByRouteIdOrderByOrderAsc(trip.getRoute().getId());
+        TripManifest manifest = new TripManifest(tripId, trip.getBus().getCapacity(), stops);
+
+        // Dos consultas con las paradas ya cargadas, sin N+1
+        for (Ticket ticket : ticketRepository.findSoldTicketsWithStops(tripId)) {
+            manifest.loadTicket(toEntry(ticket, manifest.baseVersion()), ticket.getBoardedAt());
+        }
+        for (Parcel parcel : parcelRepository.findPendingParcelsWithStops(tripId)) {
+            manifest.loadParcel(toEntry(parcel, manifest.baseVersion()));
+        }
+
+        // Se publica con el commit de quien abre el abordaje: si hace rollback el viaje sigue
+        // SCHEDULED y no debe quedar un manifiesto aceptando escaneos
+        TransactionCallbacks.afterCommit(() -> manifests.put(tripId, manifest));
+        return manifest.toResponse();
+    }
+
+    @Override
+    public TripManifestResponse getManifest(Long tripId) {
+        return resolve(tripId).toResponse();
+    }
+
+    @Override
+    public CompressedManifest getCompressedManifest(Long tripId) {
+        TripManifest manifest = resolve(tripId);
+
+        byte[] cached = manifest.compressed();
+        if (cached != null) {
+            return new CompressedManifest(manifest.currentVersion(), cached);
+        }
+
+        TripManifestResponse response = manifest.toResponse();
+        byte[] payload = gzip(response);
+        manifest.compressed(response.version(), payload);
+        return new CompressedManifest(response.version(), payload);
+    }
+
+    @Override
+    public TripManifestDeltaResponse getDelta(Long tripId, Long sinceVersion) {
+        return resolve(tripId).deltaSince(sinceVersion);
+    }
+
+    @Override
+    public ManifestTicketEntry registerBoarding(Long tripId, String qrHash, Long stopId, LocalDateTime boardedAt) {
+        return resolve(tripId).board(qrHash, stopId, boardedAt);
+    }
+
+    @Override
+    public int excessLoad(Long tripId, Integer stopOrder) {
+        return resolve(tripId).excessLoad(stopOrder);
+    }
+
+    @Override
+    public Set<Long> boardedTicketIds(Long tripId) {
+        return resolve(tripId).boardedTicketIds();
+    }
+
+    @Override
+    public void onTicketChanged(Ticket ticket) {
+        TripManifest manifest = manifests.get(ticket.getTrip().getId());
+        if (manifest == null) {
+            return;
+        }
+        // Se leen los datos dentro de la transacción y se publican solo si hace commit
+        Long ticketId = ticket.getId();
+        Integer seatNumber = ticket.getSeatNumber();
+        Long fromStopId = ticket.getFromStop().getId();
+        Integer fromStopOrder = ticket.getFromStop().getOrder();
+        Integer toStopOrder = ticket.getToStop().getOrder();
+        String qrHash = HashUtils.sha256Hex(ticket.getQrCode());
+        Ticket.TicketStatus status = ticket.getStatus();
+
+        TransactionCallbacks.afterCommit(() -> manifest.applyTicket(version -> new ManifestTicketEntry(
+                ticketId, seatNumber, fromStopId, fromStopOrder, toStopOrder, qrHash, status, version)));
+    }
+
+    @Override
+    public void onParcelChanged(Parcel parcel) {
+        TripManifest manifest = manifests.get(parcel.getTrip().getId());
+        if (manifest == null) {
+            return;
+        }
+        Long parcelId = parcel.getId();
+        String code = parcel.getCode();
+        Long fromStopId = parcel.getFromStop().getId();
+        Long toStopId = parcel.getToStop().getId();
+        Parcel.ParcelStatus status = parcel.getStatus();
+
+        TransactionCallbacks.afterCommit(() -> manifest.applyParcel(version -> new ManifestParcelEntry(
+                parcelId, code, fromStopId, toStopId, status, version)));
+    }
+
+    @Override
+    public void evict(Long tripId) {
+        TransactionCallbacks.afterCommit(() -> manifests.remove(tripId));
+    }
+
+    // Las lecturas y escaneos no abren transacción; solo la reconstrucción toca la BD
+    private TripManifest resolve(Long tripId) {
+        TripManifest manifest = manifests.get(tripId);
+        if (manifest != null) {
+            return manifest;
+        }
+
+        // Los escaneos concurrentes tras un reinicio esperan la misma reconstrucción en vez de
+        // armar cada uno la suya y pisarse (se perderían los abordajes del manifiesto reemplazado)
+        synchronized (rebuildLocks[Math.floorMod(tripId.hashCode(), rebuildLocks.length)]) {
+            manifest = manifests.get(tripId);
+            if (manifest != null) {
+                return manifest;
+            }
+
+            // Tras un reinicio se reconstruye solo para viajes que siguen en operación
+            transactionTemplate.executeWithoutResult(status -> {
+                Trip trip = tripRepository.findById(tripId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Viaje", tripId));
+                if (trip.getStatus() != Trip.TripStatus.BOARDING && trip.getStatus() != Trip.TripStatus.DEPARTED) {
+                    throw new BusinessException("El manifiesto solo está disponible con el abordaje abierto",
+                            HttpStatus.CONFLICT, "MANIFEST_NOT_AVAILABLE");
+                }
+                buildManifest(tripId);
+            });
+            return manifests.get(tripId);
+        }
+    }
+
+    private ManifestTicketEntry toEntry(Ticket ticket, long version) {
+        return new ManifestTicketEntry(
+                ticket.getId(),
+                ticket.getSeatNumber(),
+                ticket.getFromStop().getId(),
+                ticket.getFromStop().getOrder(),
+                ticket.getToStop().getOrder(),
+                HashUtils.sha256Hex(ticket.getQrCode()),
+                ticket.getStatus(),
+                version);
+    }
+
+    private ManifestParcelEntry toEntry(Parcel parcel, long version) {
+        return new ManifestParcelEntry(
+                parcel.getId(),
+                parcel.getCode(),
+                parcel.getFromStop().getId(),
+                parcel.getToStop().getId(),
+                parcel.getStatus(),
+                version);
+    }
+
+    private byte[] gzip(TripManifestResponse response) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            objectMapper.writeValue(out, response);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo comprimir el manifiesto", e);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,165 @@
+package com.web.service.dispatch;
+
+import com.web.dto.dispatch.Manifest.ManifestParcelEntry;
+import com.web.dto.dispatch.Manifest.ManifestStopEntry;
+import com.web.dto.dispatch.Manifest.ManifestTicketEntry;
+import com.web.dto.dispatch.Manifest.TripManifestDeltaResponse;
+import com.web.dto.dispatch.Manifest.TripManifestResponse;
+import com.web.entity.Stop;
+import com.web.entity.Ticket;
+import com.web.exception.BusinessException;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongFunction;
+
+// Estado en memoria del manifiesto de un viaje. Cada cambio incrementa la versión;
+// baseVersion se toma del reloj al generarlo, así un reinicio nunca reutiliza versiones.
+class TripManifest {
+
+    private final Long tripId;
+    private final Integer busCapacity;
+    private final List<Stop> stops;
+    private final long baseVersion;
+    private final LocalDateTime generatedAt;
+    private final Map<Long, ManifestTicketEntry> tickets = new LinkedHashMap<>();
+    private final Map<Long, ManifestParcelEntry> parcels = new LinkedHashMap<>();
+    private final Map<String, Long> ticketIdsByQrHash = new HashMap<>();  // Índice para el escaneo en puerta
+    private final Map<Long, LocalDateTime> boardedAt = new HashMap<>();
+    private long version;
+    private byte[] compressed;  // Payload gzip de la versión actual, se regenera al primer GET tras un cambio
+
+    TripManifest(Long tripId, Integer busCapacity, List<Stop> stops) {
+        this.tripId = tripId;
+        this.busCapacity = busCapacity;
+        this.stops = stops;
+        this.baseVersion = System.currentTimeMillis();
+        this.version = baseVersion;
+        this.generatedAt = LocalDateTime.now();
+    }
+
+    long baseVersion() {
+        return baseVersion;
+    }
+
+    synchronized long currentVersion() {
+        return version;
+    }
+
+    // Carga inicial: las entradas quedan en baseVersion
+    synchronized void loadTicket(ManifestTicketEntry entry, LocalDateTime boarded) {
+        putTicket(entry);
+        if (boarded != null) {
+            boardedAt.put(entry.ticketId(), boarded);
+        }
+    }
+
+    synchronized void loadParcel(ManifestParcelEntry entry) {
+        parcels.put(entry.parcelId(), entry);
+    }
+
+    // Cambio posterior: la entrada se crea con la nueva versión para que aparezca en el delta
+    synchronized void applyTicket(LongFunction<ManifestTicketEntry> entryAtVersion) {
+        putTicket(entryAtVersion.apply(++version));
+        compressed = null;
+    }
+
+    synchronized void applyParcel(LongFunction<ManifestParcelEntry> entryAtVersion) {
+        ManifestParcelEntry entry = entryAtVersion.apply(++version);
+        parcels.put(entry.parcelId(), entry);
+        compressed = null;
+    }
+
+    // Valida el QR contra el viaje y la parada y lo marca como abordado; un segundo escaneo se rechaza
+    synchronized ManifestTicketEntry board(String qrHash, Long stopId, LocalDateTime now) {
+        Long ticketId = ticketIdsByQrHash.get(qrHash);
+        if (ticketId == null) {
+            throw new BusinessException("El QR no corresponde a un ticket de este viaje",
+                    HttpStatus.NOT_FOUND, "QR_NOT_IN_TRIP");
+        }
+
+        ManifestTicketEntry entry = tickets.get(ticketId);
+        if (entry.status() != Ticket.TicketStatus.SOLD) {
+            throw new BusinessException("El ticket no es válido para abordar (estado: " + entry.status() + ")",
+                    HttpStatus.CONFLICT, "TICKET_NOT_VALID");
+        }
+        if (!entry.fromStopId().equals(stopId)) {
+            throw new BusinessException("El ticket no aborda en esta parada",
+                    HttpStatus.CONFLICT, "WRONG_BOARDING_STOP");
+        }
+        if (boardedAt.putIfAbsent(ticketId, now) != null) {
+            throw new BusinessException("El pasajero ya abordó (" + boardedAt.get(ticketId) + ")",
+                    HttpStatus.CONFLICT, "ALREADY_BOARDED");
+        }
+        return entry;
+    }
+
+    // Incluye los escaneos que BoardingWriteBehind aún no persistió
+    synchronized Set<Long> boardedTicketIds() {
+        return Set.copyOf(boardedAt.keySet());
+    }
+
+    // Abordados de más al salir de la parada: los que suben en ella o antes y bajan después
+    synchronized int excessLoad(int stopOrder) {
+        if (busCapacity == null) {
+            return 0;
+        }
+        int onBoard = 0;
+        for (Long ticketId : boardedAt.keySet()) {
+            ManifestTicketEntry entry = tickets.get(ticketId);
+            if (entry.fromStopOrder() <= stopOrder && entry.toStopOrder() > stopOrder) {
+                onBoard++;
+            }
+        }
+        return onBoard - busCapacity;
+    }
+
+    synchronized byte[] compressed() {
+        return compressed;
+    }
+
+    synchronized void compressed(long forVersion, byte[] payload) {
+        // Si hubo un cambio mientras se comprimía, el payload ya no corresponde
+        if (forVersion == version) {
+            this.compressed = payload;
+        }
+    }
+
+    private void putTicket(ManifestTicketEntry entry) {
+        tickets.put(entry.ticketId(), entry);
+        ticketIdsByQrHash.put(entry.qrHash(), entry.ticketId());
+    }
+
+    synchronized TripManifestResponse toResponse() {
+        List<ManifestStopEntry> stopEntries = new ArrayList<>(stops.size());
+        for (Stop stop : stops) {
+            List<ManifestTicketEntry> boarding = tickets.values().stream()
+                    .filter(t -> t.fromStopId().equals(stop.getId()))
+                    .toList();
+            List<ManifestParcelEntry> deliveries = parcels.values().stream()
+                    .filter(p -> p.toStopId().equals(stop.getId()))
+                    .toList();
+            stopEntries.add(new ManifestStopEntry(stop.getId(), stop.getName(), stop.getOrder(), boarding, deliveries));
+        }
+        return new TripManifestResponse(tripId, baseVersion, version, generatedAt, busCapacity, stopEntries);
+    }
+
+    synchronized TripManifestDeltaResponse deltaSince(long sinceVersion) {
+        if (sinceVersion < baseVersion || sinceVersion > version) {
+            return new TripManifestDeltaResponse(tripId, sinceVersion, version, true, List.of(), List.of());
+        }
+        return new TripManifestDeltaResponse(
+                tripId,
+                sinceVersion,
+                version,
+                false,
+                tickets.values().stream().filter(t -> t.version() > sinceVersion).toList(),
+                parcels.values().stream().filter(p -> p.version() > sinceVersion).toList());
+    }
+}
@@ -0,0 +1,15 @@
+package com.web.service.event;
+
+import com.web.entity.OutboxEvent;
+
+import java.time.LocalDateTime;
+
+// Evento ya confirmado en BD que el relay entrega a los suscriptores (@EventListener)
+public record DomainEvent(
+    Long id,
+    OutboxEvent.AggregateType aggregateType,
+    Long aggregateId,
+    OutboxEvent.EventType eventType,
+    String payload,
+    LocalDateTime occurredAt
+) {}
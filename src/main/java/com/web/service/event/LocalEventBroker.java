@@ -0,0 +1,45 @@
+package com.web.service.event;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Sustituto local de un broker: un tópico acotado por tipo de agregado.
+// Si un consumidor se atrasa se descartan los eventos más antiguos; la fuente de verdad sigue siendo la outbox.
+@Component
+@ConditionalOnProperty(name = "outbox.broker.enabled", havingValue = "true")
+public class LocalEventBroker {
+
+    private final Map<String, BlockingQueue<DomainEvent>> topics = new ConcurrentHashMap<>();
+    private final int topicCapacity;
+
+    public LocalEventBroker(@Value("${outbox.broker.topic-capacity:10000}") int topicCapacity) {
+        this.topicCapacity = topicCapacity;
+    }
+
+    @EventListener
+    public void onDomainEvent(DomainEvent event) {
+        BlockingQueue<DomainEvent> topic = topics.computeIfAbsent(
+                event.aggregateType().name(), name -> new ArrayBlockingQueue<>(topicCapacity));
+        while (!topic.offer(event)) {
+            topic.poll();
+        }
+    }
+
+    public List<DomainEvent> poll(String topic, int maxEvents) {
+        List<DomainEvent> events = new ArrayList<>(maxEvents);
+        BlockingQueue<DomainEvent> queue = topics.get(topic);
+        if (queue != null) {
+            queue.drainTo(events, maxEvents);
+        }
+        return events;
+    }
+}
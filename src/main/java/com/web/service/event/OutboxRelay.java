@@ -0,0 +1,99 @@
+package com.web.service.event;
+
+import com.web.entity.OutboxEvent;
+import com.web.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Drena outbox_events por lotes y entrega cada evento a los suscriptores en proceso.
+// Entrega al menos una vez: si un suscriptor falla, el evento se reintenta en el siguiente ciclo.
+// Cada evento se publica en su propia transacción: un suscriptor @Transactional que falla solo
+// revierte lo suyo, y el lote (intentos y publicados) se confirma igual.
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate eventTransaction;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final int retentionDays;
+
+    public OutboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            ApplicationEventPublisher eventPublisher,
+            TransactionTemplate transactionTemplate,
+            @Value("${outbox.relay.batch-size:200}") int batchSize,
+            @Value("${outbox.relay.max-attempts:5}") int maxAttempts,
+            @Value("${outbox.retention-days:7}") int retentionDays) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.eventTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.eventTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retentionDays = retentionDays;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    public void drain() {
+        Integer relayed;
+        do {
+            relayed = transactionTemplate.execute(status -> relayBatch());
+        } while (relayed != null && relayed == batchSize);
+    }
+
+    @Scheduled(cron = "0 30 3 * * *") // Todos los días a las 3:30
+    public void purgePublished() {
+        transactionTemplate.executeWithoutResult(status ->
+                outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minusDays(retentionDays)));
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(batchSize, maxAttempts);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> published = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            try {
+                eventTransaction.executeWithoutResult(status -> eventPublisher.publishEvent(toDomainEvent(event)));
+                published.add(event.getId());
+            } catch (RuntimeException e) {
+                // Se corta el lote para no adelantar eventos posteriores del mismo agregado
+                log.warn("Fallo al entregar el evento {} ({}), intento {}",
+                        event.getId(), event.getEventType(), event.getAttempts() + 1, e);
+                outboxEventRepository.incrementAttempts(event.getId());
+                break;
+            }
+        }
+
+        if (!published.isEmpty()) {
+            outboxEventRepository.markPublished(published, LocalDateTime.now());
+        }
+        return published.size();
+    }
+
+    private DomainEvent toDomainEvent(OutboxEvent event) {
+        return new DomainEvent(
+                event.getId(),
+                event.getAggregateType(),
+                event.getAggregateId(),
+                event.getEventType(),
+                event.getPayload(),
+                event.getCreatedAt());
+    }
+}
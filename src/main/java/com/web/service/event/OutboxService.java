@@ -0,0 +1,11 @@
+package com.web.service.event;
+
+import com.web.entity.OutboxEvent;
+
+import java.util.Map;
+
+public interface OutboxService {
+
+    void record(OutboxEvent.AggregateType aggregateType, Long aggregateId,
+                OutboxEvent.EventType eventType, Map<String, Object> payload);
+}
@@ -0,0 +1,43 @@
+package com.web.service.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.web.entity.OutboxEvent;
+import com.web.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+
+@Service
+@RequiredArgsConstructor
+public class OutboxServiceImpl implements OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    // MANDATORY: el evento solo existe si la transacción del cambio hace commit
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OutboxEvent.AggregateType aggregateType, Long aggregateId,
+                       OutboxEvent.EventType eventType, Map<String, Object> payload) {
+        OutboxEvent event = OutboxEvent.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .eventType(eventType)
+                .payload(toJson(payload))
+                .build();
+        outboxEventRepository.save(event);
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Payload de evento no serializable", e);
+        }
+    }
+}
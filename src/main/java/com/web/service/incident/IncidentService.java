@@ -0,0 +1,14 @@
+package com.web.service.incident;
+
+import com.web.dto.admin.IncidentCountResponse;
+import com.web.entity.Incident;
+
+import java.time.LocalDateTime;
+
+public interface IncidentService {
+
+    void record(Incident.EntityType entityType, Long entityId, Incident.IncidentType incidentType,
+                String description, Long reportedById);
+
+    IncidentCountResponse countIncidentsByType(LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,287 @@
+package com.web.service.incident;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.web.dto.admin.IncidentCountResponse;
+import com.web.entity.Incident;
+import com.web.exception.BusinessException;
+import com.web.repository.IncidentRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Los incidentes se encolan y se insertan por lotes fuera de la transacción del llamador.
+// Cola llena: el llamador espera un poco (back-pressure) y si sigue llena inserta directamente.
+// Si la BD falla al vaciar, el lote va a un archivo local y se reintenta en el siguiente ciclo.
+// Los contadores por hora viven en incident_hourly_counts y se suman en la transacción del insert,
+// así todas las instancias responden los mismos totales.
+@Slf4j
+@Service
+public class IncidentServiceImpl implements IncidentService {
+
+    private static final String INSERT_INCIDENT = """
+            INSERT INTO incidents (entity_type, entity_id, incident_type, description, reported_by, created_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String ADD_HOURLY_COUNT = """
+            INSERT INTO incident_hourly_counts (hour, incident_type, incident_count)
+            VALUES (?, ?, ?)
+            ON CONFLICT (hour, incident_type) DO UPDATE
+            SET incident_count = incident_hourly_counts.incident_count + EXCLUDED.incident_count
+            """;
+
+    private static final String COUNT_FULL_HOURS = """
+            SELECT incident_type, SUM(incident_count)
+            FROM incident_hourly_counts
+            WHERE hour >= ? AND hour < ?
+            GROUP BY incident_type
+            """;
+
+    private static final String COUNT_PARTIAL_HOUR = """
+            SELECT incident_type, COUNT(*)
+            FROM incidents
+            WHERE created_at >= ? AND created_at < ?
+            GROUP BY incident_type
+            """;
+    private static final Incident.IncidentType[] TYPES = Incident.IncidentType.values();
+
+    private final IncidentRepository incidentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    // Cada lote (y el fallback síncrono) en transacción propia: si el llamador revierte, el incidente
+    // queda igual, y el insert y sus contadores se confirman juntos
+    private final TransactionTemplate requiresNew;
+    private final BlockingQueue<PendingIncident> queue;
+    private final long offerTimeoutMs;
+    private final int batchSize;
+    private final Path spoolFile;
+
+    public IncidentServiceImpl(
+            IncidentRepository incidentRepository,
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${incidents.queue-capacity:1000}") int queueCapacity,
+            @Value("${incidents.offer-timeout-ms:50}") long offerTimeoutMs,
+            @Value("${incidents.batch-size:200}") int batchSize,
+            @Value("${incidents.spool-file:data/incidents-spool.jsonl}") String spoolFile) {
+        this.incidentRepository = incidentRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.batchSize = batchSize;
+        this.spoolFile = Path.of(spoolFile);
+    }
+
+    @Override
+    public void record(Incident.EntityType entityType, Long entityId, Incident.IncidentType incidentType,
+                       String description, Long reportedById) {
+        PendingIncident incident = new PendingIncident(
+                entityType, entityId, incidentType, description, reportedById, LocalDateTime.now());
+
+        boolean queued;
+        try {
+            queued = queue.offer(incident, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+
+        if (!queued) {
+            // Fallback durable: mejor un insert síncrono que perder el incidente
+            log.warn("Cola de incidentes llena, se inserta de forma síncrona");
+            write(List.of(incident));
+        }
+    }
+
+    @Override
+    public IncidentCountResponse countIncidentsByType(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new BusinessException("El rango de fechas es inválido", HttpStatus.BAD_REQUEST, "INVALID_DATE_RANGE");
+        }
+
+        long[] totals = new long[TYPES.length];
+        LocalDateTime firstFullHour = from.truncatedTo(ChronoUnit.HOURS);
+        if (firstFullHour.isBefore(from)) {
+            firstFullHour = firstFullHour.plusHours(1);
+        }
+        LocalDateTime lastFullHour = to.truncatedTo(ChronoUnit.HOURS);
+
+        if (!firstFullHour.isBefore(lastFullHour)) {
+            // Rango menor a una hora completa: consulta directa
+            addFromDatabase(totals, from, to);
+        } else {
+            // Horas completas desde los contadores; solo las fracciones de los extremos recorren incidents
+            addCounts(totals, COUNT_FULL_HOURS, firstFullHour, lastFullHour);
+            if (from.isBefore(firstFullHour)) {
+                addCounts(totals, COUNT_PARTIAL_HOUR, from, firstFullHour);
+            }
+            if (lastFullHour.isBefore(to)) {
+                addCounts(totals, COUNT_PARTIAL_HOUR, lastFullHour, to);
+            }
+        }
+
+        Map<Incident.IncidentType, Long> countsByType = new EnumMap<>(Incident.IncidentType.class);
+        long total = 0;
+        for (Incident.IncidentType type : TYPES) {
+            countsByType.put(type, totals[type.ordinal()]);
+            total += totals[type.ordinal()];
+        }
+        return new IncidentCountResponse(from, to, countsByType, total);
+    }
+
+    @Scheduled(fixedDelayString = "${incidents.flush-interval-ms:1000}")
+    public void flush() {
+        replaySpool();
+
+        List<PendingIncident> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void write(List<PendingIncident> batch) {
+        try {
+            requiresNew.executeWithoutResult(status -> insert(batch));
+        } catch (RuntimeException e) {
+            log.error("No se pudieron insertar {} incidentes, se guardan en {}", batch.size(), spoolFile, e);
+            spool(batch);
+        }
+    }
+
+    private synchronized void spool(List<PendingIncident> batch) {
+        try {
+            if (spoolFile.getParent() != null) {
+                Files.createDirectories(spoolFile.getParent());
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(spoolFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (PendingIncident incident : batch) {
+                    writer.write(objectMapper.writeValueAsString(incident));
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            log.error("No se pudo escribir el respaldo de incidentes; se pierden {} registros", batch.size(), e);
+        }
+    }
+
+    private synchronized void replaySpool() {
+        if (!Files.exists(spoolFile)) {
+            return;
+        }
+        List<PendingIncident> spooled = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(spoolFile, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    spooled.add(objectMapper.readValue(line, PendingIncident.class));
+                }
+            }
+            requiresNew.executeWithoutResult(status -> insert(spooled));
+            Files.delete(spoolFile);
+        } catch (IOException | RuntimeException e) {
+            // La BD sigue sin responder: el archivo se conserva para el próximo ciclo
+            log.warn("No se pudo reprocesar el respaldo de incidentes ({} registros)", spooled.size(), e);
+        }
+    }
+
+    // Incidentes y contadores en la misma transacción; los contadores en orden para que dos
+    // instancias que vacían a la vez tomen los bloqueos de las filas en la misma secuencia
+    private void insert(List<PendingIncident> incidents) {
+        jdbcTemplate.batchUpdate(INSERT_INCIDENT, incidents, batchSize, this::bind);
+
+        Map<HourlyKey, Long> counts = new TreeMap<>();
+        for (PendingIncident incident : incidents) {
+            counts.merge(new HourlyKey(incident.createdAt().truncatedTo(ChronoUnit.HOURS), incident.incidentType()),
+                    1L, Long::sum);
+        }
+        List<Map.Entry<HourlyKey, Long>> entries = List.copyOf(counts.entrySet());
+        jdbcTemplate.batchUpdate(ADD_HOURLY_COUNT, entries, entries.size(), (ps, entry) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(entry.getKey().hour()));
+            ps.setString(2, entry.getKey().incidentType().name());
+            ps.setLong(3, entry.getValue());
+        });
+    }
+
+    private void bind(PreparedStatement ps, PendingIncident incident) throws SQLException {
+        ps.setString(1, incident.entityType().name());
+        ps.setLong(2, incident.entityId());
+        ps.setString(3, incident.incidentType().name());
+        ps.setString(4, incident.description());
+        if (incident.reportedById() != null) {
+            ps.setLong(5, incident.reportedById());
+        } else {
+            ps.setNull(5, Types.BIGINT);
+        }
+        ps.setTimestamp(6, Timestamp.valueOf(incident.createdAt()));
+    }
+
+    private void addFromDatabase(long[] totals, LocalDateTime from, LocalDateTime to) {
+        for (Object[] row : incidentRepository.countIncidentsByType(from, to)) {
+            Incident.IncidentType type = (Incident.IncidentType) row[0];
+            totals[type.ordinal()] += ((Number) row[1]).longValue();
+        }
+    }
+
+    private void addCounts(long[] totals, String sql, LocalDateTime from, LocalDateTime to) {
+        jdbcTemplate.query(sql, rs -> {
+            Incident.IncidentType type = Incident.IncidentType.valueOf(rs.getString(1));
+            totals[type.ordinal()] += rs.getLong(2);
+        }, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    private record HourlyKey(LocalDateTime hour, Incident.IncidentType incidentType)
+            implements Comparable<HourlyKey> {
+
+        @Override
+        public int compareTo(HourlyKey other) {
+            int byHour = hour.compareTo(other.hour);
+            return byHour != 0 ? byHour : incidentType.compareTo(other.incidentType);
+        }
+    }
+
+    record PendingIncident(
+            Incident.EntityType entityType,
+            Long entityId,
+            Incident.IncidentType incidentType,
+            String description,
+            Long reportedById,
+            LocalDateTime createdAt) {}
+}
@@ -0,0 +1,19 @@
+package com.web.service.parcel;
+
+import com.web.dto.parcel.TripCargoCapacityResponse;
+import com.web.entity.Parcel;
+import com.web.entity.Trip;
+
+import java.util.List;
+
+public interface CargoLedgerService {
+
+    void reserve(Trip trip, List<Parcel> parcels);
+
+    TripCargoCapacityResponse getRemainingCapacity(Long tripId);
+
+    void evict(Long tripId);
+
+    // La capacidad de bodega sale del bus: al editarlo se descartan los libros de sus viajes
+    void evictBus(Long busId);
+}
@@ -0,0 +1,142 @@
+package com.web.service.parcel;
+
+import com.web.dto.parcel.TripCargoCapacityResponse;
+import com.web.entity.Incident;
+import com.web.entity.Parcel;
+import com.web.entity.Stop;
+import com.web.entity.Trip;
+import com.web.exception.BusinessException;
+import com.web.exception.ResourceNotFoundException;
+import com.web.repository.CargoLedgerRepository;
+import com.web.repository.StopRepository;
+import com.web.repository.TripRepository;
+import com.web.service.incident.IncidentService;
+import com.web.util.TransactionCallbacks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+// Libro de carga por viaje: se prevalida en memoria contra la capacidad de bodega y la BD decide por tramo.
+@Service
+public class CargoLedgerServiceImpl implements CargoLedgerService {
+
+    public enum OverflowPolicy {
+        REJECT,
+        WARN
+    }
+
+    private final CargoLedgerRepository cargoLedgerRepository;
+    private final TripRepository tripRepository;
+    private final StopRepository stopRepository;
+    private final IncidentService incidentService;
+    private final OverflowPolicy overflowPolicy;
+    private final Map<Long, TripCargoLedger> ledgers = new ConcurrentHashMap<>();
+
+    public CargoLedgerServiceImpl(
+            CargoLedgerRepository cargoLedgerRepository,
+            TripRepository tripRepository,
+            StopRepository stopRepository,
+            IncidentService incidentService,
+            @Value("${parcels.cargo.overflow-policy:REJECT}") OverflowPolicy overflowPolicy) {
+        this.cargoLedgerRepository = cargoLedgerRepository;
+        this.tripRepository = tripRepository;
+        this.stopRepository = stopRepository;
+        this.incidentService = incidentService;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    // Se llama dentro de la transacción que crea las encomiendas
+    @Override
+    @Transactional
+    public void reserve(Trip trip, List<Parcel> parcels) {
+        TripCargoLedger ledger = ledgerFor(trip);
+        if (!ledger.covers(parcels)) {
+            // Paradas agregadas a la ruta después de armar el libro: se recarga una vez
+            ledgers.remove(trip.getId(), ledger);
+            ledger = ledgerFor(trip);
+            if (!ledger.covers(parcels)) {
+                throw new BusinessException("La parada no pertenece a la ruta del viaje",
+                        HttpStatus.BAD_REQUEST, "INVALID_STOP");
+            }
+        }
+        long[] delta = ledger.deltaFor(parcels);
+        Map<Integer, BigDecimal> segmentDeltas = ledger.toSegmentDeltas(delta);
+        if (segmentDeltas.isEmpty()) {
+            return;
+        }
+
+        // En memoria se rechaza sin ir a la BD; el libro puede ir atrás de otras instancias, nunca adelante
+        boolean fits = ledger.tryApply(delta, overflowPolicy == OverflowPolicy.WARN);
+        if (!fits && overflowPolicy == OverflowPolicy.REJECT) {
+            throw new BusinessException("Capacidad de carga excedida en el tramo " + ledger.tightestSegment(delta),
+                    HttpStatus.CONFLICT, "CARGO_CAPACITY_EXCEEDED");
+        }
+        TripCargoLedger applied = ledger;
+        TransactionCallbacks.afterRollback(() -> applied.revert(delta));
+
+        // La BD decide: con varias instancias solo el UPDATE condicional ve la carga de todas
+        Set<Integer> rejected = cargoLedgerRepository.addWithinCapacity(
+                trip.getId(), segmentDeltas, trip.getBus().getCargoCapacityKg());
+        if (!rejected.isEmpty()) {
+            // Otra instancia reservó en esos tramos: el libro local está atrasado y se recarga
+            ledgers.remove(trip.getId(), ledger);
+            if (overflowPolicy == OverflowPolicy.REJECT) {
+                throw new BusinessException("Capacidad de carga excedida: otra reserva ocupó los tramos " + rejected,
+                        HttpStatus.CONFLICT, "CARGO_CAPACITY_EXCEEDED");
+            }
+            Map<Integer, BigDecimal> overflow = new LinkedHashMap<>(segmentDeltas);
+            overflow.keySet().retainAll(rejected);
+            cargoLedgerRepository.addToSegments(trip.getId(), overflow);
+        }
+
+        if (!fits || !rejected.isEmpty()) {
+            incidentService.record(Incident.EntityType.TRIP, trip.getId(), Incident.IncidentType.OVERBOOK,
+                    "Carga sobre la capacidad de bodega en " + ledger.tightestSegment(delta), null);
+        }
+    }
+
+    // Se lee de la BD y no del libro en memoria: otras instancias también reservan carga.
+    // Sin registros se calcula la siembra sin escribirla (la transacción es de solo lectura)
+    @Override
+    @Transactional(readOnly = true)
+    public TripCargoCapacityResponse getRemainingCapacity(Long tripId) {
+        Trip trip = tripRepository.findById(tripId)
+                .orElseThrow(() -> new ResourceNotFoundException("Viaje", tripId));
+        List<Stop> stops = stopRepository.findByRouteIdOrderByOrderAsc(trip.getRoute().getId());
+        return new TripCargoLedger(trip.getId(), trip.getBus().getId(), trip.getBus().getCargoCapacityKg(),
+                stops, cargoLedgerRepository.findOrSeed(tripId)).toResponse();
+    }
+
+    @Override
+    public void evict(Long tripId) {
+        TransactionCallbacks.afterCommit(() -> ledgers.remove(tripId));
+    }
+
+    @Override
+    public void evictBus(Long busId) {
+        TransactionCallbacks.afterCommit(() -> ledgers.values().removeIf(ledger -> busId.equals(ledger.busId())));
+    }
+
+    private TripCargoLedger ledgerFor(Trip trip) {
+        TripCargoLedger ledger = ledgers.get(trip.getId());
+        if (ledger != null) {
+            return ledger;
+        }
+
+        List<Stop> stops = stopRepository.findByRouteIdOrderByOrderAsc(trip.getRoute().getId());
+        Map<Integer, BigDecimal> committed = cargoLedgerRepository.loadOrInitialize(trip.getId());
+        TripCargoLedger loaded = new TripCargoLedger(trip.getId(), trip.getBus().getId(),
+                trip.getBus().getCargoCapacityKg(), stops, committed);
+        TripCargoLedger existing = ledgers.putIfAbsent(trip.getId(), loaded);
+        return existing != null ? existing : loaded;
+    }
+}
@@ -1,5 +1,9 @@
 package com.web.service.parcel;
 
+import com.web.dto.common.CursorPageResponse;
+import com.web.dto.parcel.ParcelBulkCreateRequest;
+import com.web.dto.parcel.ParcelBulkStatusRequest;
+import com.web.dto.parcel.ParcelBulkStatusResponse;
 import com.web.dto.parcel.ParcelCreateRequest;
 import com.web.dto.parcel.ParcelResponse;
 import com.web.entity.Parcel;
@@ -10,10 +14,16 @@ import java.util.List;
 public interface ParcelService {
     
     ParcelResponse createParcel(ParcelCreateRequest request);
+
+    List<ParcelResponse> createParcels(ParcelBulkCreateRequest request);
+
+    ParcelBulkStatusResponse updateStatusAtStop(ParcelBulkStatusRequest request);
     
     List<ParcelResponse> getAllParcels();
     
     ParcelResponse trackParcel(String code);
+
+    CursorPageResponse<ParcelResponse> searchParcels(String query, String cursor, int size);
     
     ParcelResponse updateStatus(Long parcelId, Parcel.ParcelStatus status);
     
@@ -1,46 +1,71 @@
 package com.web.service.parcel;
 
+import com.web.dto.common.CursorPageResponse;
+import com.web.dto.parcel.ParcelBulkCreateRequest;
+import com.web.dto.parcel.ParcelBulkItem;
+import com.web.dto.parcel.ParcelBulkStatusRequest;
+import com.web.dto.parcel.ParcelBulkStatusResponse;
 import com.web.dto.parcel.ParcelCreateRequest;
 import com.web.dto.parcel.ParcelResponse;
 import com.web.dto.parcel.mapper.ParcelMapper;
 import com.web.entity.Incident;
+import com.web.entity.OutboxEvent;
 import com.web.entity.Parcel;
 import com.web.entity.Stop;
 import com.web.entity.Trip;
 import com.web.exception.BusinessException;
 import com.web.exception.ResourceNotFoundException;
-import com.web.repository.IncidentRepository;
+import com.web.repository.ParcelBulkRepository;
 import com.web.repository.ParcelRepository;
 import com.web.repository.StopRepository;
 import com.web.repository.TripRepository;
+import com.web.service.dispatch.ManifestService;
+import com.web.service.event.OutboxService;
+import com.web.service.incident.IncidentService;
 import com.web.util.OtpGenerator;
 import com.web.util.QrCodeGenerator;
+import com.web.util.RankedKeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 @Service
 @RequiredArgsConstructor
 public class ParcelServiceImpl implements ParcelService {
 
+    private static final int MAX_SEARCH_PAGE_SIZE = 50;
+    // Los índices trigrama necesitan al menos 3 caracteres para acotar la búsqueda
+    private static final int MIN_SEARCH_LENGTH = 3;
+
     private final ParcelRepository parcelRepository;
+    private final ParcelBulkRepository parcelBulkRepository;
     private final TripRepository tripRepository;
     private final StopRepository stopRepository;
-    private final IncidentRepository incidentRepository;
+    private final IncidentService incidentService;
     private final ParcelMapper parcelMapper;
     private final QrCodeGenerator qrCodeGenerator;
     private final OtpGenerator otpGenerator;
+    private final ManifestService manifestService;
+    private final OutboxService outboxService;
+    private final ParcelTrackingService parcelTrackingService;
+    private final CargoLedgerService cargoLedgerService;
 
     @Override
+    @Transactional(readOnly = true)
     public List<ParcelResponse> getAllParcels() {
-        return parcelRepository.findAll().stream()
+        return parcelRepository.findAllByOrderById().stream()
                 .map(parcelMapper::toResponse)
                 .toList();
     }
@@ -58,6 +83,14 @@ public class ParcelServiceImpl implements ParcelService {
         Stop toStop = stopRepository.findById(request.toStopId())
                 .orElseThrow(() -> new ResourceNotFoundException("Parada destino", request.toStopId()));
 
+        Long routeId = trip.getRoute().getId();
+        if (!routeId.equals(fromStop.getRoute().getId()) || !routeId.equals(toStop.getRoute().getId())
+                || fromStop.getOrder() >= toStop.getOrder()) {
+            throw new BusinessException(
+                    "Tramo inválido para la ruta del viaje: " + fromStop.getId() + " -> " + toStop.getId(),
+                    HttpStatus.BAD_REQUEST, "INVALID_SEGMENT");
+        }
+
         String code = qrCodeGenerator.generateParcelCode();
         String deliveryOtp = otpGenerator.generate6DigitOtp();
 
@@ -68,14 +101,102 @@ public class ParcelServiceImpl implements ParcelService {
         parcel.setToStop(toStop);
         parcel.setCode(code);
         parcel.setDeliveryOtp(deliveryOtp);
+        cargoLedgerService.reserve(trip, List.of(parcel));
 
         Parcel savedParcel = parcelRepository.save(parcel);
-
+        manifestService.onParcelChanged(savedParcel);
+        parcelTrackingService.recordEvent(savedParcel, "Encomienda recibida");
+        outboxService.record(OutboxEvent.AggregateType.PARCEL, savedParcel.getId(), OutboxEvent.EventType.PARCEL_CREATED,
+                Map.of("tripId", trip.getId(), "fromStopId", fromStop.getId(), "toStopId", toStop.getId()));
 
 
         return parcelMapper.toResponse(savedParcel);
     }
 
+    // Ingreso masivo: viaje y paradas se consultan una vez, los inserts van en un solo batch
+    @Override
+    @Transactional
+    public List<ParcelResponse> createParcels(ParcelBulkCreateRequest request) {
+        Trip trip = tripRepository.findById(request.tripId())
+                .orElseThrow(() -> new ResourceNotFoundException("Viaje", request.tripId()));
+
+        Map<Long, Stop> routeStops = stopRepository.findByRouteIdOrderByOrderAsc(trip.getRoute().getId()).stream()
+                .collect(Collectors.toMap(Stop::getId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Parcel> parcels = new ArrayList<>(request.parcels().size());
+        for (ParcelBulkItem item : request.parcels()) {
+            Stop fromStop = routeStops.get(item.fromStopId());
+            Stop toStop = routeStops.get(item.toStopId());
+            if (fromStop == null || toStop == null || fromStop.getOrder() >= toStop.getOrder()) {
+                throw new BusinessException(
+                        "Tramo inválido para la ruta del viaje: " + item.fromStopId() + " -> " + item.toStopId(),
+                        HttpStatus.BAD_REQUEST, "INVALID_SEGMENT");
+            }
+
+            parcels.add(Parcel.builder()
+                    .code(qrCodeGenerator.generateParcelCode())
+                    .trip(trip)
+                    .senderName(item.senderName())
+                    .senderPhone(item.senderPhone())
+                    .receiverName(item.receiverName())
+                    .receiverPhone(item.receiverPhone())
+                    .fromStop(fromStop)
+                    .toStop(toStop)
+                    .price(item.price())
+                    .weightKg(item.weightKg())
+                    .status(Parcel.ParcelStatus.CREATED)
+                    .deliveryOtp(otpGenerator.generate6DigitOtp())
+                    .createdAt(now)
+                    .build());
+        }
+
+        // Todo el lote entra o se rechaza completo
+        cargoLedgerService.reserve(trip, parcels);
+        parcelBulkRepository.insertParcels(parcels);
+        List<Long> ids = parcels.stream().map(Parcel::getId).toList();
+        parcelBulkRepository.recordEvents(ids, "Encomienda recibida", now);
+
+        parcels.forEach(manifestService::onParcelChanged);
+        outboxService.record(OutboxEvent.AggregateType.TRIP, trip.getId(), OutboxEvent.EventType.PARCEL_BATCH_CREATED,
+                Map.of("parcelIds", ids));
+
+        return parcelMapper.toResponseList(parcels);
+    }
+
+    // Carga masiva (CREATED -> IN_TRANSIT en su origen) de una parada. La entrega no se admite en lote:
+    // cada encomienda exige su OTP (POST /parcels/{code}/deliver)
+    @Override
+    @Transactional
+    public ParcelBulkStatusResponse updateStatusAtStop(ParcelBulkStatusRequest request) {
+        if (request.status() != Parcel.ParcelStatus.IN_TRANSIT) {
+            throw new BusinessException("Solo se admite IN_TRANSIT en cambios masivos; la entrega requiere OTP por encomienda",
+                    HttpStatus.BAD_REQUEST, "INVALID_BULK_STATUS");
+        }
+        List<Parcel> parcels = parcelRepository.lockParcelsToLoadAtStop(request.tripId(), request.stopId());
+
+        if (parcels.isEmpty()) {
+            return new ParcelBulkStatusResponse(request.tripId(), request.stopId(), request.status(), 0, List.of());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = parcels.stream().map(Parcel::getId).toList();
+        List<String> codes = parcels.stream().map(Parcel::getCode).toList();
+        int updated = parcelRepository.updateStatusByIds(ids, request.status(), null);
+        parcelBulkRepository.recordEvents(ids, null, now);
+        parcelTrackingService.evict(codes);
+
+        // Las entidades quedaron desasociadas tras el UPDATE; solo se usan para el manifiesto en memoria
+        for (Parcel parcel : parcels) {
+            parcel.setStatus(request.status());
+            manifestService.onParcelChanged(parcel);
+        }
+        outboxService.record(OutboxEvent.AggregateType.TRIP, request.tripId(), OutboxEvent.EventType.PARCEL_BATCH_STATUS_CHANGED,
+                Map.of("stopId", request.stopId(), "status", request.status(), "parcelIds", ids));
+
+        return new ParcelBulkStatusResponse(request.tripId(), request.stopId(), request.status(), updated, codes);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public ParcelResponse trackParcel(String code) {
@@ -84,6 +205,56 @@ public class ParcelServiceImpl implements ParcelService {
         return parcelMapper.toResponse(parcel);
     }
 
+    // Búsqueda por fragmento de código, teléfono o nombre; exactas primero, luego prefijos y fragmentos
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ParcelResponse> searchParcels(String query, String cursor, int size) {
+        String term = query == null ? "" : query.strip();
+        if (term.length() < MIN_SEARCH_LENGTH) {
+            throw new BusinessException("La búsqueda requiere al menos " + MIN_SEARCH_LENGTH + " caracteres",
+                    HttpStatus.BAD_REQUEST, "INVALID_SEARCH");
+        }
+
+        int pageSize = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        String escaped = escapeLike(term);
+        String prefix = escaped + "%";
+        String pattern = "%" + escaped + "%";
+        // Se pide un registro extra para saber si hay página siguiente sin hacer COUNT
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<ParcelRepository.ParcelSearchHit> hits;
+        if (cursor == null || cursor.isBlank()) {
+            hits = parcelRepository.searchParcels(term, prefix, pattern, limit);
+        } else {
+            RankedKeysetCursor after = RankedKeysetCursor.decode(cursor);
+            hits = parcelRepository.searchParcelsAfter(
+                    term, prefix, pattern, after.rank(), after.timestamp(), after.id(), limit);
+        }
+
+        boolean hasNext = hits.size() > pageSize;
+        List<ParcelRepository.ParcelSearchHit> page = hasNext ? hits.subList(0, pageSize) : hits;
+        if (page.isEmpty()) {
+            return new CursorPageResponse<>(List.of(), pageSize, null, false);
+        }
+
+        // Una sola consulta para los detalles, respetando el orden de relevancia
+        List<Long> ids = page.stream().map(ParcelRepository.ParcelSearchHit::getId).toList();
+        Map<Long, Parcel> parcelsById = parcelRepository.findWithDetailsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Parcel::getId, Function.identity()));
+        List<ParcelResponse> content = ids.stream()
+                .map(parcelsById::get)
+                .map(parcelMapper::toResponse)
+                .toList();
+
+        String nextCursor = null;
+        if (hasNext) {
+            ParcelRepository.ParcelSearchHit last = page.get(page.size() - 1);
+            nextCursor = new RankedKeysetCursor(last.getRank(), last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return new CursorPageResponse<>(content, pageSize, nextCursor, hasNext);
+    }
+
     @Override
     @Transactional
     public ParcelResponse updateStatus(Long parcelId, Parcel.ParcelStatus status) {
@@ -92,6 +263,10 @@ public class ParcelServiceImpl implements ParcelService {
 
         parcel.setStatus(status);
         Parcel updatedParcel = parcelRepository.save(parcel);
+        manifestService.onParcelChanged(updatedParcel);
+        parcelTrackingService.recordEvent(updatedParcel, null);
+        outboxService.record(OutboxEvent.AggregateType.PARCEL, parcelId, OutboxEvent.EventType.PARCEL_STATUS_CHANGED,
+                Map.of("tripId", updatedParcel.getTrip().getId(), "status", status));
 
         return parcelMapper.toResponse(updatedParcel);
     }
@@ -113,16 +288,9 @@ public class ParcelServiceImpl implements ParcelService {
             parcel.setStatus(Parcel.ParcelStatus.FAILED);
             parcelRepository.save(parcel);
 
-            Incident incident = Incident.builder()
-                    .entityType(Incident.EntityType.PARCEL)
-                    .entityId(parcelId)
-                    .incidentType(Incident.IncidentType.DELIVERY_FAIL)
-                    .description("Entrega fallida: OTP inválido. OTP esperado: " + parcel.getDeliveryOtp() +
-                            ", OTP proporcionado: " + otp)
-                    .createdAt(LocalDateTime.now())
-                    .build();
-            incidentRepository.save(incident);
-
+            // Asíncrono: el incidente queda registrado aunque esta transacción haga rollback
+            incidentService.record(Incident.EntityType.PARCEL, parcelId, Incident.IncidentType.DELIVERY_FAIL,
+                    "Entrega fallida: OTP inválido para la encomienda " + parcel.getCode(), null);
 
 
             throw new BusinessException("OTP inválido. Se ha creado un incidente.", HttpStatus.BAD_REQUEST,
@@ -132,7 +300,10 @@ public class ParcelServiceImpl implements ParcelService {
         parcel.setStatus(Parcel.ParcelStatus.DELIVERED);
         parcel.setProofPhotoUrl(photoUrl);
         Parcel deliveredParcel = parcelRepository.save(parcel);
-
+        manifestService.onParcelChanged(deliveredParcel);
+        parcelTrackingService.recordEvent(deliveredParcel, "Entregada al destinatario");
+        outboxService.record(OutboxEvent.AggregateType.PARCEL, parcelId, OutboxEvent.EventType.PARCEL_DELIVERED,
+                Map.of("tripId", deliveredParcel.getTrip().getId(), "toStopId", deliveredParcel.getToStop().getId()));
 
 
         return parcelMapper.toResponse(deliveredParcel);
@@ -148,7 +319,12 @@ public class ParcelServiceImpl implements ParcelService {
     @Override
     @Transactional(readOnly = true)
     public List<ParcelResponse> getParcelsByDateRange(LocalDate startDate, LocalDate endDate) {
-        List<Parcel> parcels = parcelRepository.findByDateRange(startDate, endDate);
+        List<Parcel> parcels = parcelRepository.findByDateRange(startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
         return parcelMapper.toResponseList(parcels);
     }
+
+    // El texto del usuario no debe actuar como comodín en LIKE
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
 }
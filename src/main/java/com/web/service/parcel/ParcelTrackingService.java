@@ -0,0 +1,16 @@
+package com.web.service.parcel;
+
+import com.web.dto.parcel.ParcelTrackingResponse;
+import com.web.entity.Parcel;
+
+import java.util.Collection;
+
+public interface ParcelTrackingService {
+
+    void recordEvent(Parcel parcel, String notes);
+
+    ParcelTrackingResponse getTracking(String code);
+
+    // Para cambios masivos escritos por SQL: se descartan las entradas del LRU tras el commit
+    void evict(Collection<String> codes);
+}
@@ -0,0 +1,169 @@
+package com.web.service.parcel;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.web.dto.parcel.ParcelEventResponse;
+import com.web.dto.parcel.ParcelTrackingResponse;
+import com.web.entity.Parcel;
+import com.web.entity.ParcelEvent;
+import com.web.entity.ParcelTracking;
+import com.web.exception.ResourceNotFoundException;
+import com.web.repository.ParcelEventRepository;
+import com.web.repository.ParcelTrackingRepository;
+import com.web.util.TransactionCallbacks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+// El rastreo público se sirve desde parcel_tracking (y un LRU en memoria), nunca desde la fila de parcels
+@Service
+public class ParcelTrackingServiceImpl implements ParcelTrackingService {
+
+    private static final TypeReference<List<ParcelEventResponse>> TIMELINE_TYPE = new TypeReference<>() {};
+
+    private record CachedTracking(ParcelTrackingResponse response, LocalDateTime loadedAt) {}
+
+    private final ParcelEventRepository parcelEventRepository;
+    private final ParcelTrackingRepository parcelTrackingRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Map<String, CachedTracking> cache;
+    // Cambia con cada escritura o invalidación: una lectura de la BD que empezó antes no se guarda
+    private long generation;
+
+    public ParcelTrackingServiceImpl(
+            ParcelEventRepository parcelEventRepository,
+            ParcelTrackingRepository parcelTrackingRepository,
+            ObjectMapper objectMapper,
+            @Value("${parcels.tracking.cache-size:1000}") int cacheSize,
+            @Value("${parcels.tracking.cache-ttl-seconds:300}") long ttlSeconds) {
+        this.parcelEventRepository = parcelEventRepository;
+        this.parcelTrackingRepository = parcelTrackingRepository;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(cacheSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedTracking> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    // Se escribe en la misma transacción que el cambio de estado de la encomienda
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordEvent(Parcel parcel, String notes) {
+        LocalDateTime now = LocalDateTime.now();
+        String location = locationOf(parcel);
+
+        parcelEventRepository.save(ParcelEvent.builder()
+                .parcel(parcel)
+                .status(parcel.getStatus())
+                .location(location)
+                .notes(notes)
+                .createdAt(now)
+                .build());
+
+        ParcelTracking tracking = parcelTrackingRepository.findById(parcel.getCode())
+                .orElseGet(() -> ParcelTracking.builder()
+                        .code(parcel.getCode())
+                        .parcelId(parcel.getId())
+                        .timeline("[]")
+                        .build());
+
+        List<ParcelEventResponse> timeline = new ArrayList<>(readTimeline(tracking.getTimeline()));
+        timeline.add(new ParcelEventResponse(parcel.getStatus(), location, now, notes));
+
+        tracking.setStatus(parcel.getStatus());
+        tracking.setCurrentLocation(location);
+        tracking.setEstimatedDelivery(parcel.getTrip().getArrivalEta());
+        tracking.setTimeline(writeTimeline(timeline));
+        tracking.setUpdatedAt(now);
+        parcelTrackingRepository.save(tracking);
+
+        ParcelTrackingResponse response = toResponse(tracking.getCode(), tracking.getStatus(),
+                location, tracking.getEstimatedDelivery(), timeline);
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (cache) {
+                generation++;
+                cache.put(response.code(), new CachedTracking(response, LocalDateTime.now()));
+            }
+        });
+    }
+
+    @Override
+    public ParcelTrackingResponse getTracking(String code) {
+        LocalDateTime now = LocalDateTime.now();
+        CachedTracking cached = cache.get(code);
+        if (cached != null && cached.loadedAt().plus(ttl).isAfter(now)) {
+            return cached.response();
+        }
+
+        long startedAt;
+        synchronized (cache) {
+            startedAt = generation;
+        }
+        ParcelTracking tracking = parcelTrackingRepository.findById(code)
+                .orElseThrow(() -> new ResourceNotFoundException("Encomienda con código: " + code));
+        ParcelTrackingResponse response = toResponse(tracking.getCode(), tracking.getStatus(),
+                tracking.getCurrentLocation(), tracking.getEstimatedDelivery(), readTimeline(tracking.getTimeline()));
+        synchronized (cache) {
+            if (generation == startedAt) {
+                cache.put(code, new CachedTracking(response, now));
+            }
+        }
+        return response;
+    }
+
+    @Override
+    public void evict(Collection<String> codes) {
+        List<String> evicted = List.copyOf(codes);
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (cache) {
+                generation++;
+                evicted.forEach(cache::remove);
+            }
+        });
+    }
+
+    // Última parada conocida: origen hasta que llega a destino (entregada o intento fallido)
+    private String locationOf(Parcel parcel) {
+        return switch (parcel.getStatus()) {
+            case CREATED, IN_TRANSIT -> parcel.getFromStop().getName();
+            case DELIVERED, FAILED -> parcel.getToStop().getName();
+        };
+    }
+
+    private ParcelTrackingResponse toResponse(String code, Parcel.ParcelStatus status, String location,
+                                              LocalDateTime estimatedDelivery, List<ParcelEventResponse> timeline) {
+        return new ParcelTrackingResponse(code, status, location, estimatedDelivery, List.copyOf(timeline));
+    }
+
+    private List<ParcelEventResponse> readTimeline(String json) {
+        try {
+            return objectMapper.readValue(json, TIMELINE_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Historial de rastreo corrupto", e);
+        }
+    }
+
+    private String writeTimeline(List<ParcelEventResponse> timeline) {
+        try {
+            return objectMapper.writeValueAsString(timeline);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el historial de rastreo", e);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.web.service.parcel;
+
+import com.web.dto.parcel.CargoSegmentResponse;
+import com.web.dto.parcel.TripCargoCapacityResponse;
+import com.web.entity.Parcel;
+import com.web.entity.Stop;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Carga comprometida de un viaje por tramo, en centésimas de kg. El tramo i va de stops[i] a stops[i+1];
+// una encomienda ocupa los tramos [origen, destino) igual que un asiento vendido.
+class TripCargoLedger {
+
+    private final Long tripId;
+    private final Long busId;
+    private final long capacity;
+    private final List<Stop> stops;
+    private final Map<Long, Integer> indexByStopId = new HashMap<>();
+    private final long[] committed;
+
+    TripCargoLedger(Long tripId, Long busId, BigDecimal capacityKg, List<Stop> stops,
+                    Map<Integer, BigDecimal> committedByOrder) {
+        this.tripId = tripId;
+        this.busId = busId;
+        this.capacity = toUnits(capacityKg);
+        this.stops = stops;
+        this.committed = new long[Math.max(stops.size() - 1, 0)];
+        for (int i = 0; i < stops.size(); i++) {
+            indexByStopId.put(stops.get(i).getId(), i);
+        }
+        for (int i = 0; i < committed.length; i++) {
+            committed[i] = toUnits(committedByOrder.getOrDefault(stops.get(i).getOrder(), BigDecimal.ZERO));
+        }
+    }
+
+    Long busId() {
+        return busId;
+    }
+
+    // Falso si alguna parada no está en el libro (la ruta cambió después de cargarlo)
+    boolean covers(List<Parcel> parcels) {
+        for (Parcel parcel : parcels) {
+            if (!indexByStopId.containsKey(parcel.getFromStop().getId())
+                    || !indexByStopId.containsKey(parcel.getToStop().getId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Incremento por tramo que producen las encomiendas (paradas ya verificadas con covers)
+    long[] deltaFor(List<Parcel> parcels) {
+        long[] delta = new long[committed.length];
+        for (Parcel parcel : parcels) {
+            if (parcel.getWeightKg() == null) {
+                continue;
+            }
+            long weight = toUnits(parcel.getWeightKg());
+            int from = indexByStopId.get(parcel.getFromStop().getId());
+            int to = indexByStopId.get(parcel.getToStop().getId());
+            for (int i = from; i < to; i++) {
+                delta[i] += weight;
+            }
+        }
+        return delta;
+    }
+
+    // Aplica el incremento si cabe (o siempre, si se permite exceder); retorna si cabía
+    synchronized boolean tryApply(long[] delta, boolean allowOverflow) {
+        boolean fits = true;
+        for (int i = 0; i < committed.length; i++) {
+            if (delta[i] > 0 && committed[i] + delta[i] > capacity) {
+                fits = false;
+                break;
+            }
+        }
+        if (fits || allowOverflow) {
+            for (int i = 0; i < committed.length; i++) {
+                committed[i] += delta[i];
+            }
+        }
+        return fits;
+    }
+
+    synchronized void revert(long[] delta) {
+        for (int i = 0; i < committed.length; i++) {
+            committed[i] -= delta[i];
+        }
+    }
+
+    // Tramo con menos capacidad libre entre los que toca el incremento
+    synchronized String tightestSegment(long[] delta) {
+        int tightest = -1;
+        for (int i = 0; i < committed.length; i++) {
+            if (delta[i] > 0 && (tightest < 0 || committed[i] > committed[tightest])) {
+                tightest = i;
+            }
+        }
+        if (tightest < 0) {
+            return "";
+        }
+        return stops.get(tightest).getName() + " -> " + stops.get(tightest + 1).getName()
+                + " (disponible: " + toKg(Math.max(capacity - committed[tightest], 0)) + " kg)";
+    }
+
+    // segment_order -> kg, solo tramos con cambio (para persistir)
+    Map<Integer, BigDecimal> toSegmentDeltas(long[] delta) {
+        Map<Integer, BigDecimal> deltas = new LinkedHashMap<>();
+        for (int i = 0; i < delta.length; i++) {
+            if (delta[i] != 0) {
+                deltas.put(stops.get(i).getOrder(), toKg(delta[i]));
+            }
+        }
+        return deltas;
+    }
+
+    synchronized TripCargoCapacityResponse toResponse() {
+        List<CargoSegmentResponse> segments = new ArrayList<>(committed.length);
+        for (int i = 0; i < committed.length; i++) {
+            Stop from = stops.get(i);
+            Stop to = stops.get(i + 1);
+            segments.add(new CargoSegmentResponse(
+                    from.getId(), from.getName(), to.getId(), to.getName(),
+                    toKg(committed[i]), toKg(capacity - committed[i])));
+        }
+        return new TripCargoCapacityResponse(tripId, toKg(capacity), segments);
+    }
+
+    private static long toUnits(BigDecimal kg) {
+        return kg.movePointRight(2).longValue();
+    }
+
+    private static BigDecimal toKg(long units) {
+        return BigDecimal.valueOf(units, 2);
+    }
+}
@@ -0,0 +1,19 @@
+package com.web.service.ticket;
+
+import com.web.entity.Stop;
+import com.web.entity.Trip;
+
+public interface OverbookingService {
+
+    // Fracción histórica de no-show de la ruta a esa hora de salida (0 sin historial suficiente)
+    double noShowRate(Long routeId, int departureHour);
+
+    // Tickets que se pueden vender por encima de la capacidad en cualquier tramo del viaje
+    int allowance(Trip trip);
+
+    // true si el tramo está lleno y aún queda cupo de sobreventa; se llama dentro de la compra
+    boolean tryOversell(Trip trip, Stop fromStop, Stop toStop);
+
+    // Suma el resultado de un viaje ya procesado a la estadística de su ruta y hora
+    void recordOutcome(Trip trip, int ticketsTotal, int noShows);
+}
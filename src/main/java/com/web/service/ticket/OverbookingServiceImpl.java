@@ -0,0 +1,102 @@
+package com.web.service.ticket;
+
+import com.web.entity.Stop;
+import com.web.entity.Trip;
+import com.web.repository.NoShowStatsRepository;
+import com.web.repository.SeatHoldRepository;
+import com.web.repository.TicketRepository;
+import com.web.repository.TripRepository;
+import com.web.service.admin.ConfigService;
+import com.web.service.trip.SeatLayoutCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+// Sobreventa controlada: se vende por encima de la capacidad del tramo hasta la tasa de no-show
+// observada en la ruta a esa hora, nunca más que overbooking.max.percentage.
+@Slf4j
+@Service
+public class OverbookingServiceImpl implements OverbookingService {
+
+    private final NoShowStatsRepository noShowStatsRepository;
+    private final TripRepository tripRepository;
+    private final TicketRepository ticketRepository;
+    private final SeatHoldRepository seatHoldRepository;
+    private final ConfigService configService;
+    private final SeatLayoutCache seatLayoutCache;
+    private final long minSample;
+
+    public OverbookingServiceImpl(
+            NoShowStatsRepository noShowStatsRepository,
+            TripRepository tripRepository,
+            TicketRepository ticketRepository,
+            SeatHoldRepository seatHoldRepository,
+            ConfigService configService,
+            SeatLayoutCache seatLayoutCache,
+            @Value("${overbooking.min-sample:200}") long minSample) {
+        this.noShowStatsRepository = noShowStatsRepository;
+        this.tripRepository = tripRepository;
+        this.ticketRepository = ticketRepository;
+        this.seatHoldRepository = seatHoldRepository;
+        this.configService = configService;
+        this.seatLayoutCache = seatLayoutCache;
+        this.minSample = minSample;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public double noShowRate(Long routeId, int departureHour) {
+        // Con pocos tickets la tasa es ruido: no se sobrevende hasta tener muestra
+        return noShowStatsRepository.find(routeId, departureHour)
+                .filter(stats -> stats.ticketsTotal() >= minSample)
+                .map(stats -> (double) stats.noShows() / stats.ticketsTotal())
+                .orElse(0.0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int allowance(Trip trip) {
+        double maxRate = Math.max(0.0, Math.min(1.0, configService.getOverbookingMaxPercentage()));
+        double rate = Math.min(noShowRate(trip.getRoute().getId(), trip.getDepartureTime().getHour()), maxRate);
+        return (int) Math.floor(seatLayoutCache.layout(trip.getBus()).size() * rate);
+    }
+
+    @Override
+    @Transactional
+    public boolean tryOversell(Trip trip, Stop fromStop, Stop toStop) {
+        int allowance = allowance(trip);
+        if (allowance == 0) {
+            return false;
+        }
+
+        // Dos compras no pueden tomar el último cupo de sobreventa a la vez
+        tripRepository.lockById(trip.getId());
+
+        // Si queda algún asiento libre en el tramo se vende ese, no se sobrevende
+        Set<Integer> occupied = new HashSet<>(ticketRepository.findSoldSeatNumbersForSegment(
+                trip.getId(), fromStop.getOrder(), toStop.getOrder()));
+        occupied.addAll(seatHoldRepository.findHeldSeatNumbers(trip.getId(), LocalDateTime.now()));
+        if (occupied.size() < seatLayoutCache.layout(trip.getBus()).size()) {
+            return false;
+        }
+
+        long overbooked = ticketRepository.countOverbookedForSegment(
+                trip.getId(), fromStop.getOrder(), toStop.getOrder());
+        return overbooked < allowance;
+    }
+
+    @Override
+    @Transactional
+    public void recordOutcome(Trip trip, int ticketsTotal, int noShows) {
+        if (ticketsTotal == 0) {
+            return;
+        }
+        noShowStatsRepository.add(trip.getRoute().getId(), trip.getDepartureTime().getHour(), ticketsTotal, noShows);
+        log.debug("Viaje {}: {} no-show de {} tickets", trip.getId(), noShows, ticketsTotal);
+    }
+}
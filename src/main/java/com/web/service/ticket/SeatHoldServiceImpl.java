@@ -3,6 +3,7 @@ package com.web.service.ticket;
 import com.web.dto.ticket.reservations.SeatHoldCreateRequest;
 import com.web.dto.ticket.reservations.SeatHoldResponse;
 import com.web.dto.ticket.reservations.mapper.SeatHoldMapper;
+import com.web.entity.OutboxEvent;
 import com.web.entity.SeatHold;
 import com.web.entity.Trip;
 import com.web.entity.User;
@@ -13,6 +14,9 @@ import com.web.repository.TicketRepository;
 import com.web.repository.TripRepository;
 import com.web.repository.UserRepository;
 import com.web.service.admin.ConfigService;
+import com.web.service.event.OutboxService;
+import com.web.service.trip.SeatLayoutCache;
+import com.web.service.trip.TripOccupancyService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -21,6 +25,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 
@@ -34,6 +39,9 @@ public class SeatHoldServiceImpl implements SeatHoldService {
     private final UserRepository userRepository;
     private final SeatHoldMapper seatHoldMapper;
     private final ConfigService configService;
+    private final OutboxService outboxService;
+    private final TripOccupancyService occupancyService;
+    private final SeatLayoutCache seatLayoutCache;
 
     @Override
     @Transactional
@@ -62,9 +70,10 @@ public class SeatHoldServiceImpl implements SeatHoldService {
             throw new SeatNotAvailableException("El viaje ya ha salido");
         }
 
-        if (request.seatNumber() < 1 || request.seatNumber() > trip.getBus().getCapacity()) {
+        // Contra la distribución real del bus (en memoria), no solo el rango 1..capacidad
+        if (!seatLayoutCache.layout(trip.getBus()).containsKey(request.seatNumber())) {
             throw new SeatNotAvailableException(
-                    "El asiento " + request.seatNumber() + " no existe en este bus (capacidad: " + 
+                    "El asiento " + request.seatNumber() + " no existe en este bus (capacidad: " +
                     trip.getBus().getCapacity() + ")"
             );
         }
@@ -106,7 +115,10 @@ public class SeatHoldServiceImpl implements SeatHoldService {
         seatHold.setUser(user);
         seatHold.setExpiresAt(expiresAt);
         seatHold = seatHoldRepository.save(seatHold);
-
+        occupancyService.evictAfterCommit(trip.getId());
+        outboxService.record(OutboxEvent.AggregateType.SEAT_HOLD, seatHold.getId(), OutboxEvent.EventType.SEAT_HELD,
+                Map.of("tripId", trip.getId(), "seatNumber", seatHold.getSeatNumber(),
+                        "userId", userId, "expiresAt", expiresAt));
 
         return seatHoldMapper.toResponse(seatHold);
     }
@@ -127,7 +139,9 @@ public class SeatHoldServiceImpl implements SeatHoldService {
 
         hold.setStatus(SeatHold.HoldStatus.SOLD);
         seatHoldRepository.save(hold);
-
+        occupancyService.evictAfterCommit(hold.getTrip().getId());
+        outboxService.record(OutboxEvent.AggregateType.SEAT_HOLD, holdId, OutboxEvent.EventType.SEAT_HOLD_CONVERTED,
+                Map.of("tripId", hold.getTrip().getId(), "seatNumber", hold.getSeatNumber()));
 
     }
 
@@ -167,8 +181,14 @@ public class SeatHoldServiceImpl implements SeatHoldService {
     @Transactional
     public void expireOldHolds() {
         LocalDateTime now = LocalDateTime.now();
-        
+
+        // Un evento por viaje en lugar de uno por hold
+        List<Object[]> expiringByTrip = seatHoldRepository.countExpiringHoldsByTrip(now);
         int expiredCount = seatHoldRepository.expireHolds(now);
+        for (Object[] row : expiringByTrip) {
+            outboxService.record(OutboxEvent.AggregateType.TRIP, (Long) row[0], OutboxEvent.EventType.SEAT_HOLDS_EXPIRED,
+                    Map.of("expiredHolds", row[1]));
+        }
 
         }
     }
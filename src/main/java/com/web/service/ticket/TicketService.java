@@ -1,8 +1,10 @@
 package com.web.service.ticket;
 
+import com.web.dto.common.CursorPageResponse;
 import com.web.dto.ticket.TicketCancelResponse;
 import com.web.dto.ticket.TicketCreateRequest;
 import com.web.dto.ticket.TicketResponse;
+import com.web.dto.ticket.TicketSummaryResponse;
 
 import java.util.List;
 
@@ -15,5 +17,7 @@ public interface TicketService {
     TicketResponse getTicketById(Long id);
     
     List<TicketResponse> getUserTickets(Long userId);
+    
+    CursorPageResponse<TicketSummaryResponse> getUserTicketHistory(Long userId, boolean upcomingOnly, String cursor, int size);
 }
 
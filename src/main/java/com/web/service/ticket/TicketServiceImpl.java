@@ -1,9 +1,11 @@
 package com.web.service.ticket;
 
 import com.web.dto.baggage.BaggageCreateRequest;
+import com.web.dto.common.CursorPageResponse;
 import com.web.dto.ticket.TicketCancelResponse;
 import com.web.dto.ticket.TicketCreateRequest;
 import com.web.dto.ticket.TicketResponse;
+import com.web.dto.ticket.TicketSummaryResponse;
 import com.web.dto.ticket.mapper.TicketMapper;
 import com.web.entity.*;
 import com.web.exception.InvalidSegmentException;
@@ -11,9 +13,15 @@ import com.web.exception.ResourceNotFoundException;
 import com.web.exception.SeatNotAvailableException;
 import com.web.repository.*;
 import com.web.service.admin.ConfigService;
+import com.web.service.dispatch.ManifestService;
+import com.web.service.event.OutboxService;
+import com.web.service.trip.SeatLayoutCache;
+import com.web.service.trip.TripOccupancyService;
+import com.web.util.KeysetCursor;
 import com.web.util.QrCodeGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,14 +30,20 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 
 @Service
 @RequiredArgsConstructor
 public class TicketServiceImpl implements TicketService {
 
+    private static final LocalDateTime HISTORY_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final TicketRepository ticketRepository;
     private final TripRepository tripRepository;
     private final StopRepository stopRepository;
@@ -41,6 +55,12 @@ public class TicketServiceImpl implements TicketService {
     private final SeatHoldService seatHoldService;
     private final QrCodeGenerator qrCodeGenerator;
     private final ConfigService configService;
+    private final ManifestService manifestService;
+    private final OutboxService outboxService;
+    private final OverbookingService overbookingService;
+    private final RefundLedgerRepository refundLedgerRepository;
+    private final SeatLayoutCache seatLayoutCache;
+    private final TripOccupancyService occupancyService;
 
     @Override
     @Transactional
@@ -64,6 +84,12 @@ public class TicketServiceImpl implements TicketService {
 
         validateSegment(trip, fromStop, toStop);
 
+        // La distribución del bus está en memoria: ni el asiento ni su clase cuestan una consulta
+        Seat.SeatType seatType = seatLayoutCache.layout(trip.getBus()).get(request.seatNumber());
+        if (seatType == null) {
+            throw new SeatNotAvailableException("El asiento " + request.seatNumber() + " no existe en el bus del viaje");
+        }
+
         Optional<SeatHold> activeHold = seatHoldRepository.findActiveHold(
                 request.tripId(),
                 request.seatNumber(),
@@ -78,16 +104,20 @@ public class TicketServiceImpl implements TicketService {
         Boolean isSeatAvailable = ticketRepository.isSeatAvailableForSegment(
                 request.tripId(),
                 request.seatNumber(),
-                request.fromStopId().intValue(),
-                request.toStopId().intValue()
+                fromStop.getOrder(),
+                toStop.getOrder()
         );
 
-        if (!isSeatAvailable) {
+        // Asiento ocupado: solo se vende si el tramo está lleno y queda cupo de sobreventa
+        boolean overbooked = !isSeatAvailable && overbookingService.tryOversell(trip, fromStop, toStop);
+        if (!isSeatAvailable && !overbooked) {
             throw new SeatNotAvailableException(
                     "El asiento " + request.seatNumber() + " no está disponible para el tramo seleccionado");
         }
 
-        BigDecimal finalPrice = calculateFinalPrice(trip, fromStop, toStop, request);
+        // Sin asiento asignado no se cobra la clase del asiento pedido
+        BigDecimal finalPrice = calculateFinalPrice(trip, fromStop, toStop,
+                overbooked ? Seat.SeatType.STANDARD : seatType);
 
         Ticket ticket = ticketMapper.toEntity(request);
         // Establecer las relaciones manualmente
@@ -97,6 +127,12 @@ public class TicketServiceImpl implements TicketService {
         ticket.setToStop(toStop);
         ticket.setPrice(finalPrice);
         ticket.setQrCode(qrCodeGenerator.generateTicketQr());
+        ticket.setOverbooked(overbooked);
+        if (overbooked) {
+            // El asiento pedido ya está vendido: el de sobreventa no recibe número y en puerta
+            // ocupa uno que haya quedado vacío (el abordaje sobre la capacidad genera un incidente)
+            ticket.setSeatNumber(null);
+        }
         ticket = ticketRepository.save(ticket);
 
         if (request.baggage() != null) {
@@ -129,6 +165,14 @@ public class TicketServiceImpl implements TicketService {
 
         }
 
+        manifestService.onTicketChanged(ticket);
+        occupancyService.evictAfterCommit(trip.getId());
+        Map<String, Object> payload = ticketPayload(ticket);
+        payload.put("fromStopId", fromStop.getId());
+        payload.put("toStopId", toStop.getId());
+        payload.put("price", finalPrice);
+        outboxService.record(OutboxEvent.AggregateType.TICKET, ticket.getId(), OutboxEvent.EventType.TICKET_SOLD, payload);
+
         return ticketMapper.toResponse(ticket);
     }
 
@@ -155,8 +199,15 @@ public class TicketServiceImpl implements TicketService {
 
         ticket.setStatus(Ticket.TicketStatus.CANCELLED);
         ticketRepository.save(ticket);
-
-
+        if (refundAmount.signum() > 0) {
+            refundLedgerRepository.record(ticketId, refundAmount, refundPercentage,
+                    RefundLedgerRepository.RefundReason.TICKET_CANCELLED, now);
+        }
+        manifestService.onTicketChanged(ticket);
+        occupancyService.evictAfterCommit(ticket.getTrip().getId());
+        Map<String, Object> payload = ticketPayload(ticket);
+        payload.put("refundAmount", refundAmount);
+        outboxService.record(OutboxEvent.AggregateType.TICKET, ticketId, OutboxEvent.EventType.TICKET_CANCELLED, payload);
 
         return new TicketCancelResponse(
                 ticketId,
@@ -182,27 +233,76 @@ public class TicketServiceImpl implements TicketService {
         return ticketMapper.toResponseList(tickets);
     }
 
-    @Scheduled(cron = "0 */5 * * * *") //Cada 5 minutos HOLD
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<TicketSummaryResponse> getUserTicketHistory(Long userId, boolean upcomingOnly,
+                                                                           String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        LocalDateTime departureAfter = upcomingOnly ? LocalDateTime.now() : HISTORY_START;
+        // Se pide un registro extra para saber si hay página siguiente sin hacer COUNT
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<TicketSummaryResponse> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = ticketRepository.findPassengerHistory(userId, departureAfter, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = ticketRepository.findPassengerHistoryAfter(
+                    userId, departureAfter, after.timestamp(), after.id(), limit);
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        List<TicketSummaryResponse> content = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            TicketSummaryResponse last = content.get(content.size() - 1);
+            nextCursor = new KeysetCursor(last.purchasedAt(), last.id()).encode();
+        }
+
+        return new CursorPageResponse<>(content, pageSize, nextCursor, hasNext);
+    }
+
+    @Scheduled(cron = "0 */5 * * * *") // Cada 5 minutos, sobre viajes que ya salieron
     @Transactional
     public void processNoShows() {
-        LocalDateTime fiveMinutesFromNow = LocalDateTime.now().plusMinutes(5);
-        
+        LocalDateTime now = LocalDateTime.now();
 
-        List<Ticket> allTickets = ticketRepository.findAll();
-        int noShowCount = 0;
-        
-        for (Ticket ticket : allTickets) {
-            if (ticket.getStatus() == Ticket.TicketStatus.SOLD &&
-                ticket.getTrip().getDepartureTime().isBefore(fiveMinutesFromNow) &&
-                ticket.getTrip().getDepartureTime().isAfter(LocalDateTime.now())) {
+        // Solo después de la salida: antes, quien no ha escaneado aún puede llegar a la puerta
+        for (Trip trip : tripRepository.findTripsPendingNoShows(now.minusDays(1), now)) {
+            // El manifiesto sabe quién abordó aunque boarded_at aún no se haya escrito; un viaje ya
+            // llegado no tiene manifiesto en memoria y para entonces el abordaje ya está en la tabla
+            Set<Long> boarded = trip.getStatus() == Trip.TripStatus.DEPARTED
+                    ? manifestService.boardedTicketIds(trip.getId())
+                    : Set.of();
+            List<Ticket> eligible = ticketRepository.findNoShowEligibleTickets(trip.getId(), now);
+            int noShowCount = 0;
+
+            for (Ticket ticket : eligible) {
+                if (boarded.contains(ticket.getId()) || ticket.getBoardedAt() != null) {
+                    continue;
+                }
                 ticket.setStatus(Ticket.TicketStatus.NO_SHOW);
                 ticketRepository.save(ticket);
+                manifestService.onTicketChanged(ticket);
+                outboxService.record(OutboxEvent.AggregateType.TICKET, ticket.getId(), OutboxEvent.EventType.TICKET_NO_SHOW,
+                        ticketPayload(ticket));
                 noShowCount++;
-
             }
+
+            // Estadística incremental: se suma el resultado de este viaje y se marca para no contarlo dos veces
+            overbookingService.recordOutcome(trip, eligible.size(), noShowCount);
+            trip.setNoShowsProcessedAt(now);
         }
-        
+    }
 
+    // Los tickets de sobreventa no tienen asiento (y Map.of no admite null)
+    private Map<String, Object> ticketPayload(Ticket ticket) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("tripId", ticket.getTrip().getId());
+        if (ticket.getSeatNumber() != null) {
+            payload.put("seatNumber", ticket.getSeatNumber());
+        }
+        return payload;
     }
 
     private void validateSegment(Trip trip, Stop fromStop, Stop toStop) {
@@ -216,7 +316,7 @@ public class TicketServiceImpl implements TicketService {
         }
     }
 
-    private BigDecimal calculateFinalPrice(Trip trip, Stop fromStop, Stop toStop, TicketCreateRequest request) {
+    private BigDecimal calculateFinalPrice(Trip trip, Stop fromStop, Stop toStop, Seat.SeatType seatType) {
         // Precio base: primero busca en FareRule, si no existe usa ConfigService
         BigDecimal basePrice = fareRuleRepository.findByRouteIdAndFromStopIdAndToStopId(
                 trip.getRoute().getId(),
@@ -247,6 +347,10 @@ public class TicketServiceImpl implements TicketService {
             );
         }
 
+        if (seatType == Seat.SeatType.PREFERENTIAL) {
+            dynamicMultiplier = dynamicMultiplier.multiply(configService.getTicketPriceMultiplierPreferentialSeat());
+        }
+
         BigDecimal finalPrice = basePrice.multiply(dynamicMultiplier)
                 .setScale(2, RoundingMode.HALF_UP);
 
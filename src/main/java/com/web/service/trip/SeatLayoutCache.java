@@ -0,0 +1,63 @@
+package com.web.service.trip;
+
+import com.web.entity.Bus;
+import com.web.entity.Seat;
+import com.web.repository.SeatRepository;
+import com.web.util.TransactionCallbacks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+// Distribución de asientos por bus (número -> tipo). Casi nunca cambia: una consulta por bus
+// y luego memoria, así la selección de asiento no vuelve a leer la tabla seats.
+@Component
+public class SeatLayoutCache {
+
+    private final SeatRepository seatRepository;
+    private final Map<Long, NavigableMap<Integer, Seat.SeatType>> layouts;
+
+    public SeatLayoutCache(
+            SeatRepository seatRepository,
+            @Value("${trips.seat-layout.cache-size:500}") int cacheSize) {
+        this.seatRepository = seatRepository;
+        this.layouts = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, NavigableMap<Integer, Seat.SeatType>> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    // Ordenada por número de asiento
+    public NavigableMap<Integer, Seat.SeatType> layout(Bus bus) {
+        NavigableMap<Integer, Seat.SeatType> cached = layouts.get(bus.getId());
+        if (cached != null) {
+            return cached;
+        }
+
+        NavigableMap<Integer, Seat.SeatType> layout = new TreeMap<>();
+        for (Seat seat : seatRepository.findByBusIdOrderBySeatNumberAsc(bus.getId())) {
+            layout.put(seat.getSeatNumber(), seat.getSeatType());
+        }
+        // Buses sin asientos registrados: se asumen estándar hasta la capacidad
+        if (layout.isEmpty()) {
+            for (int seatNumber = 1; seatNumber <= bus.getCapacity(); seatNumber++) {
+                layout.put(seatNumber, Seat.SeatType.STANDARD);
+            }
+        }
+
+        NavigableMap<Integer, Seat.SeatType> loaded = Collections.unmodifiableNavigableMap(layout);
+        layouts.put(bus.getId(), loaded);
+        return loaded;
+    }
+
+    // La capacidad define la distribución por defecto: un cambio del bus la invalida
+    public void evict(Long busId) {
+        TransactionCallbacks.afterCommit(() -> layouts.remove(busId));
+    }
+}
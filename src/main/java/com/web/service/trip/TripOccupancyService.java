@@ -0,0 +1,75 @@
+package com.web.service.trip;
+
+import com.web.entity.Seat;
+import com.web.entity.Trip;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+
+public interface TripOccupancyService {
+
+    enum SeatState {
+        AVAILABLE,
+        SOLD,
+        HELD
+    }
+
+    // Ocupación del viaje por asiento y tramo. soldSegments guarda por asiento un bit por tramo vendido
+    // (bit i = parada de orden i -> i+1); los holds cubren todo el viaje.
+    record TripOccupancy(
+            NavigableMap<Integer, Seat.SeatType> layout,
+            Map<Integer, Long> soldSegments,
+            Set<Integer> heldSeatNumbers,
+            List<Integer> availableSeatNumbers) {
+
+        public int capacity() {
+            return layout.size();
+        }
+
+        // Vendidos en algún tramo
+        public int soldSeats() {
+            return soldSegments.size();
+        }
+
+        // Libres en todo el recorrido
+        public int availableSeats() {
+            return availableSeatNumbers.size();
+        }
+
+        public Double occupancyPercentage() {
+            return percentage(soldSeats(), capacity());
+        }
+
+        // Misma prioridad que el mapa de asientos: vendido en el tramo, luego retenido
+        public SeatState stateFor(int seatNumber, int fromStopOrder, int toStopOrder) {
+            if ((soldSegments.getOrDefault(seatNumber, 0L) & segmentMask(fromStopOrder, toStopOrder)) != 0) {
+                return SeatState.SOLD;
+            }
+            return heldSeatNumbers.contains(seatNumber) ? SeatState.HELD : SeatState.AVAILABLE;
+        }
+
+        // Un decimal (87.5); null si el bus no tiene capacidad registrada
+        public static Double percentage(int soldSeats, Integer capacity) {
+            return capacity != null && capacity > 0 ? Math.round(soldSeats * 1000.0 / capacity) / 10.0 : null;
+        }
+
+        // Bits de los tramos entre dos paradas. Rutas de más de 62 paradas se tratan como
+        // tramo completo: el asiento se ve ocupado antes que venderse dos veces
+        public static long segmentMask(int fromStopOrder, int toStopOrder) {
+            if (fromStopOrder < 0 || toStopOrder >= Long.SIZE || fromStopOrder >= toStopOrder) {
+                return -1L;
+            }
+            return ((1L << (toStopOrder - fromStopOrder)) - 1) << fromStopOrder;
+        }
+    }
+
+    // Resumen en caché; el bus del viaje puede venir como proxy sin cargar
+    TripOccupancy getOccupancy(Trip trip);
+
+    void evict(Long tripId);
+
+    // Para las escrituras propias: el cambio se ve al confirmar, sin esperar al relay del outbox
+    void evictAfterCommit(Long tripId);
+}
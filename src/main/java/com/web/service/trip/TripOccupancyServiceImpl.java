@@ -0,0 +1,164 @@
+package com.web.service.trip;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.web.entity.OutboxEvent;
+import com.web.entity.Seat;
+import com.web.entity.Trip;
+import com.web.repository.TicketRepository;
+import com.web.service.catalog.CatalogResponseCache;
+import com.web.service.event.DomainEvent;
+import com.web.util.TransactionCallbacks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+
+// Ocupación por viaje y tramo para el detalle y la selección de asiento: una consulta por carga y luego memoria.
+// Las ventas, cancelaciones y holds llegan por el outbox e invalidan el viaje afectado solo en la
+// instancia que corre el relay; en las demás (y para los holds que vencen antes de la limpieza) el
+// TTL acota la antigüedad, igual que el TTL del detalle en CatalogResponseCache.
+@Slf4j
+@Service
+public class TripOccupancyServiceImpl implements TripOccupancyService {
+
+    private static final Set<OutboxEvent.EventType> OCCUPANCY_EVENTS = EnumSet.of(
+            OutboxEvent.EventType.TICKET_SOLD,
+            OutboxEvent.EventType.TICKET_CANCELLED,
+            OutboxEvent.EventType.TICKET_NO_SHOW,
+            OutboxEvent.EventType.SEAT_HELD,
+            OutboxEvent.EventType.SEAT_HOLD_CONVERTED,
+            OutboxEvent.EventType.SEAT_HOLDS_EXPIRED,
+            OutboxEvent.EventType.TICKETS_REFUNDED);
+
+    private record CachedOccupancy(TripOccupancy occupancy, LocalDateTime loadedAt) {}
+
+    private final TicketRepository ticketRepository;
+    private final CatalogResponseCache responseCache;
+    private final SeatLayoutCache seatLayoutCache;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Map<Long, CachedOccupancy> entries;
+    // Cambia con cada invalidación: una carga que empezó antes no se guarda
+    private long generation;
+
+    public TripOccupancyServiceImpl(
+            TicketRepository ticketRepository,
+            CatalogResponseCache responseCache,
+            SeatLayoutCache seatLayoutCache,
+            ObjectMapper objectMapper,
+            @Value("${trips.occupancy.cache-size:2000}") int cacheSize,
+            @Value("${trips.occupancy.cache-ttl-seconds:30}") long ttlSeconds) {
+        this.ticketRepository = ticketRepository;
+        this.responseCache = responseCache;
+        this.seatLayoutCache = seatLayoutCache;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedOccupancy> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    @Override
+    public TripOccupancy getOccupancy(Trip trip) {
+        LocalDateTime now = LocalDateTime.now();
+        CachedOccupancy cached = entries.get(trip.getId());
+        if (cached != null && cached.loadedAt().plus(ttl).isAfter(now)) {
+            return cached.occupancy();
+        }
+
+        long startedAt;
+        synchronized (entries) {
+            startedAt = generation;
+        }
+        TripOccupancy occupancy = load(trip, now);
+        synchronized (entries) {
+            if (generation == startedAt) {
+                entries.put(trip.getId(), new CachedOccupancy(occupancy, now));
+            }
+        }
+        return occupancy;
+    }
+
+    @Override
+    public void evict(Long tripId) {
+        synchronized (entries) {
+            generation++;
+            entries.remove(tripId);
+        }
+    }
+
+    @Override
+    public void evictAfterCommit(Long tripId) {
+        TransactionCallbacks.afterCommit(() -> evict(tripId));
+    }
+
+    @EventListener
+    public void onDomainEvent(DomainEvent event) {
+        if (!OCCUPANCY_EVENTS.contains(event.eventType())) {
+            return;
+        }
+        Long tripId = tripIdOf(event);
+        if (tripId == null) {
+            return;
+        }
+        evict(tripId);
+        // El detalle publicado con ETag lleva la ocupación: se invalida junto con el resumen
+        responseCache.evictTrip(tripId);
+    }
+
+    private TripOccupancy load(Trip trip, LocalDateTime now) {
+        NavigableMap<Integer, Seat.SeatType> layout = seatLayoutCache.layout(trip.getBus());
+
+        Map<Integer, Long> soldSegments = new HashMap<>();
+        Set<Integer> held = new HashSet<>();
+        for (TicketRepository.SeatOccupancy row : ticketRepository.findSeatOccupancy(trip.getId(), now)) {
+            if (row.getFromOrder() == null) {
+                held.add(row.getSeatNumber());
+            } else {
+                soldSegments.merge(row.getSeatNumber(),
+                        TripOccupancy.segmentMask(row.getFromOrder(), row.getToOrder()), (a, b) -> a | b);
+            }
+        }
+
+        List<Integer> available = new ArrayList<>(layout.size());
+        for (Integer seatNumber : layout.keySet()) {
+            if (!soldSegments.containsKey(seatNumber) && !held.contains(seatNumber)) {
+                available.add(seatNumber);
+            }
+        }
+        return new TripOccupancy(layout, Map.copyOf(soldSegments), Set.copyOf(held), List.copyOf(available));
+    }
+
+    // La expiración masiva y los reembolsos de un viaje cancelado se publican con el viaje como agregado;
+    // el resto trae tripId en el payload
+    private Long tripIdOf(DomainEvent event) {
+        if (event.aggregateType() == OutboxEvent.AggregateType.TRIP) {
+            return event.aggregateId();
+        }
+        try {
+            JsonNode tripId = objectMapper.readTree(event.payload()).path("tripId");
+            return tripId.isNumber() ? tripId.asLong() : null;
+        } catch (JsonProcessingException e) {
+            log.warn("Payload ilegible en el evento {}: {}", event.id(), e.getMessage());
+            return null;
+        }
+    }
+}
@@ -3,8 +3,9 @@ package com.web.service.trip;
 import com.web.dto.trip.TripCreateRequest;
 import com.web.dto.trip.TripDetailResponse;
 import com.web.dto.trip.TripResponse;
-import com.web.dto.trip.SeatAvailabilityResponse;
-import com.web.dto.trip.SeatStatusResponse;
+import com.web.dto.ticket.reservations.SeatStatusResponse;
+import com.web.dto.trip.SeatMapResponse;
+import com.web.entity.Seat;
 import com.web.entity.Trip;
 
 import java.time.LocalDate;
@@ -19,6 +20,12 @@ public interface TripService {
     TripDetailResponse getTripById(Long id);
     
     List<SeatStatusResponse> getSeatAvailability(Long tripId, Long fromStopId, Long toStopId);
+
+    // Misma información que getSeatAvailability en forma columnar (un carácter por asiento)
+    SeatMapResponse getSeatMap(Long tripId, Long fromStopId, Long toStopId);
+
+    // Mejor asiento libre de la clase pedida para el tramo, resuelto en memoria
+    SeatStatusResponse findBestSeat(Long tripId, Long fromStopId, Long toStopId, Seat.SeatType seatType);
     
     TripResponse updateTripStatus(Long id, Trip.TripStatus status);
     
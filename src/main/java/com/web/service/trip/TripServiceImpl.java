@@ -3,41 +3,66 @@ package com.web.service.trip;
 import com.web.dto.trip.TripCreateRequest;
 import com.web.dto.trip.TripDetailResponse;
 import com.web.dto.trip.TripResponse;
-import com.web.dto.trip.SeatAvailabilityResponse;
-import com.web.dto.trip.SeatStatusResponse;
+import com.web.dto.ticket.reservations.SeatStatusResponse;
+import com.web.dto.trip.SeatMapResponse;
 import com.web.dto.trip.mapper.TripMapper;
 import com.web.entity.Bus;
+import com.web.entity.OutboxEvent;
 import com.web.entity.Route;
+import com.web.entity.Seat;
 import com.web.entity.Stop;
 import com.web.entity.Trip;
 import com.web.exception.BusinessException;
 import com.web.exception.ResourceNotFoundException;
 import com.web.repository.BusRepository;
+import com.web.repository.RefundLedgerRepository;
 import com.web.repository.RouteRepository;
+import com.web.repository.SeatHoldRepository;
 import com.web.repository.StopRepository;
 import com.web.repository.TicketRepository;
 import com.web.repository.TripRepository;
+import com.web.service.catalog.CatalogResponseCache;
+import com.web.service.dispatch.ManifestService;
+import com.web.service.event.OutboxService;
+import com.web.service.parcel.CargoLedgerService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 @Service
 @RequiredArgsConstructor
 public class TripServiceImpl implements TripService {
 
+    // Cancelación por parte de la empresa: se devuelve el valor completo del tiquete
+    private static final BigDecimal TRIP_CANCELLATION_REFUND_PERCENTAGE = BigDecimal.valueOf(100);
+
     private final TripRepository tripRepository;
     private final RouteRepository routeRepository;
     private final BusRepository busRepository;
     private final StopRepository stopRepository;
     private final TicketRepository ticketRepository;
+    private final SeatHoldRepository seatHoldRepository;
     private final TripMapper tripMapper;
+    private final ManifestService manifestService;
+    private final OutboxService outboxService;
+    private final CargoLedgerService cargoLedgerService;
+    private final CatalogResponseCache responseCache;
+    private final TripOccupancyService occupancyService;
+    private final RefundLedgerRepository refundLedgerRepository;
 
     @Override
     @Transactional
@@ -45,20 +70,32 @@ public class TripServiceImpl implements TripService {
         Route route = routeRepository.findById(request.routeId())
                 .orElseThrow(() -> new ResourceNotFoundException("Ruta", request.routeId()));
 
-        Bus bus = busRepository.findById(request.busId())
+        // Bloqueo del bus: dos despachadores no pueden programarlo a la vez en horarios cruzados
+        Bus bus = busRepository.lockById(request.busId())
                 .orElseThrow(() -> new ResourceNotFoundException("Bus", request.busId()));
 
         if (bus.getStatus() != Bus.BusStatus.ACTIVE) {
             throw new BusinessException("El bus no está disponible", HttpStatus.BAD_REQUEST, "BUS_NOT_AVAILABLE");
         }
 
+        if (!request.arrivalEta().isAfter(request.departureTime())) {
+            throw new BusinessException("La llegada debe ser posterior a la salida", HttpStatus.BAD_REQUEST, "INVALID_SCHEDULE");
+        }
+
+        busRepository.findConflictingTripId(bus.getId(), request.departureTime(), request.arrivalEta())
+                .ifPresent(conflictingTripId -> {
+                    throw new BusinessException("El bus ya está programado en el viaje " + conflictingTripId
+                            + " en ese horario", HttpStatus.CONFLICT, "BUS_SCHEDULE_CONFLICT");
+                });
+
         Trip trip = tripMapper.toEntity(request);
         // Establecer las relaciones manualmente
         trip.setRoute(route);
         trip.setBus(bus);
         
         Trip savedTrip = tripRepository.save(trip);
-
+        outboxService.record(OutboxEvent.AggregateType.TRIP, savedTrip.getId(), OutboxEvent.EventType.TRIP_CREATED,
+                Map.of("routeId", route.getId(), "busId", bus.getId(), "departureTime", savedTrip.getDepartureTime()));
 
         return tripMapper.toResponse(savedTrip);
     }
@@ -71,38 +108,138 @@ public class TripServiceImpl implements TripService {
         if (routeId != null && date != null) {
             trips = tripRepository.findByRouteIdAndTripDate(routeId, date);
         } else if (routeId != null) {
-            trips = tripRepository.findAll().stream()
-                    .filter(t -> t.getRoute().getId().equals(routeId))
-                    .toList();
+            trips = tripRepository.findByRouteIdOrderByDepartureTime(routeId);
         } else if (date != null) {
-            trips = tripRepository.findAll().stream()
-                    .filter(t -> t.getTripDate().equals(date))
-                    .toList();
+            trips = tripRepository.findByTripDateOrderByDepartureTime(date);
         } else {
-            trips = tripRepository.findAll();
+            trips = tripRepository.findAllByOrderByDepartureTime();
+        }
+
+        return withOccupancy(trips, tripMapper.toResponseList(trips));
+    }
+
+    // Ocupación de toda la lista con una consulta agrupada, no una por viaje
+    private List<TripResponse> withOccupancy(List<Trip> trips, List<TripResponse> responses) {
+        if (trips.isEmpty()) {
+            return responses;
+        }
+
+        Map<Long, Long> soldByTrip = new HashMap<>();
+        for (Object[] row : ticketRepository.countSoldSeatsByTripIds(trips.stream().map(Trip::getId).toList())) {
+            soldByTrip.put((Long) row[0], (Long) row[1]);
         }
 
-        return tripMapper.toResponseList(trips);
+        return responses.stream()
+                .map(response -> {
+                    int soldSeats = soldByTrip.getOrDefault(response.id(), 0L).intValue();
+                    Integer capacity = response.busCapacity();
+                    Double occupancy = TripOccupancyService.TripOccupancy.percentage(soldSeats, capacity);
+                    return new TripResponse(response.id(), response.routeId(), response.routeName(),
+                            response.routeOrigin(), response.routeDestination(), response.busId(),
+                            response.busPlate(), capacity, response.tripDate(), response.departureTime(),
+                            response.arrivalEta(), response.status(), soldSeats, occupancy);
+                })
+                .toList();
     }
 
+    // Sin readOnly: estas lecturas llenan cachés compartidos (detalle, ocupación) y van al primario;
+    // una réplica atrasada los dejaría con datos viejos justo después de una invalidación
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
     public TripDetailResponse getTripById(Long id) {
         Trip trip = tripRepository.findByIdWithDetails(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Viaje", id));
-        return tripMapper.toDetailResponse(trip);
+        TripDetailResponse detail = tripMapper.toDetailResponse(trip);
+
+        // El mapper ignora la ocupación: sale del resumen en caché, sin consultas extra por asiento
+        TripOccupancyService.TripOccupancy occupancy = occupancyService.getOccupancy(trip);
+        return new TripDetailResponse(detail.id(), detail.route(), detail.bus(), detail.tripDate(),
+                detail.departureTime(), detail.arrivalEta(), detail.status(), detail.assignment(),
+                occupancy.soldSeats(), occupancy.availableSeats(), occupancy.occupancyPercentage(),
+                occupancy.availableSeatNumbers());
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
     public List<SeatStatusResponse> getSeatAvailability(Long tripId, Long fromStopId, Long toStopId) {
+        SeatInventory inventory = loadSeatInventory(tripId, fromStopId, toStopId);
+
+        List<SeatStatusResponse> seatStatuses = new ArrayList<>(inventory.layout().size());
+        inventory.layout().forEach((seatNumber, seatType) -> seatStatuses.add(new SeatStatusResponse(
+                seatNumber, inventory.stateFor(seatNumber).name(), seatType.name())));
+
+        return seatStatuses;
+    }
+
+    @Override
+    @Transactional
+    public SeatMapResponse getSeatMap(Long tripId, Long fromStopId, Long toStopId) {
+        SeatInventory inventory = loadSeatInventory(tripId, fromStopId, toStopId);
+
+        int capacity = inventory.layout().size();
+        StringBuilder status = new StringBuilder(capacity);
+        StringBuilder seatTypes = new StringBuilder(capacity);
+        int availableCount = 0;
+        for (Map.Entry<Integer, Seat.SeatType> seat : inventory.layout().entrySet()) {
+            switch (inventory.stateFor(seat.getKey())) {
+                case SOLD -> status.append(SeatMapResponse.SOLD);
+                case HELD -> status.append(SeatMapResponse.HELD);
+                case AVAILABLE -> {
+                    status.append(SeatMapResponse.AVAILABLE);
+                    availableCount++;
+                }
+            }
+            seatTypes.append(seat.getValue() == Seat.SeatType.PREFERENTIAL
+                    ? SeatMapResponse.PREFERENTIAL : SeatMapResponse.STANDARD);
+        }
+
+        return new SeatMapResponse(tripId, fromStopId, toStopId, capacity,
+                status.toString(), seatTypes.toString(), availableCount);
+    }
+
+    @Override
+    @Transactional
+    public SeatStatusResponse findBestSeat(Long tripId, Long fromStopId, Long toStopId, Seat.SeatType seatType) {
+        SeatInventory inventory = loadSeatInventory(tripId, fromStopId, toStopId);
+
+        // Asientos numerados por pares (1-2, 3-4...): primero uno con el vecino también libre,
+        // si no, el primero libre de la clase pedida
+        Integer firstAvailable = null;
+        for (Map.Entry<Integer, Seat.SeatType> seat : inventory.layout().entrySet()) {
+            int seatNumber = seat.getKey();
+            if (seat.getValue() != seatType || inventory.stateFor(seatNumber) != TripOccupancyService.SeatState.AVAILABLE) {
+                continue;
+            }
+            int neighbour = seatNumber % 2 == 1 ? seatNumber + 1 : seatNumber - 1;
+            if (inventory.layout().containsKey(neighbour)
+                    && inventory.stateFor(neighbour) == TripOccupancyService.SeatState.AVAILABLE) {
+                return new SeatStatusResponse(seatNumber, TripOccupancyService.SeatState.AVAILABLE.name(), seatType.name());
+            }
+            if (firstAvailable == null) {
+                firstAvailable = seatNumber;
+            }
+        }
+
+        if (firstAvailable == null) {
+            throw new BusinessException("No hay asientos " + seatType + " libres para el tramo",
+                    HttpStatus.CONFLICT, "NO_SEAT_AVAILABLE");
+        }
+        return new SeatStatusResponse(firstAvailable, TripOccupancyService.SeatState.AVAILABLE.name(), seatType.name());
+    }
+
+    // Viaje y paradas (dos consultas); distribución y ocupación salen de memoria salvo en la primera carga.
+    // TripServiceQueryBudgetTest lo verifica
+    private SeatInventory loadSeatInventory(Long tripId, Long fromStopId, Long toStopId) {
         Trip trip = tripRepository.findById(tripId)
                 .orElseThrow(() -> new ResourceNotFoundException("Viaje", tripId));
 
-        Stop fromStop = stopRepository.findById(fromStopId)
+        Map<Long, Stop> stops = stopRepository.findAllById(List.of(fromStopId, toStopId)).stream()
+                .collect(Collectors.toMap(Stop::getId, Function.identity()));
+
+        Stop fromStop = Optional.ofNullable(stops.get(fromStopId))
                 .orElseThrow(() -> new ResourceNotFoundException("Parada origen", fromStopId));
 
-        Stop toStop = stopRepository.findById(toStopId)
+        Stop toStop = Optional.ofNullable(stops.get(toStopId))
                 .orElseThrow(() -> new ResourceNotFoundException("Parada destino", toStopId));
 
         if (!fromStop.getRoute().getId().equals(trip.getRoute().getId()) ||
@@ -114,21 +251,18 @@ public class TripServiceImpl implements TripService {
             throw new BusinessException("La parada de origen debe ser anterior a la de destino", HttpStatus.BAD_REQUEST, "INVALID_SEGMENT");
         }
 
-        Integer capacity = trip.getBus().getCapacity();
-        List<SeatStatusResponse> seatStatuses = new ArrayList<>();
+        return new SeatInventory(occupancyService.getOccupancy(trip), fromStop.getOrder(), toStop.getOrder());
+    }
 
-        for (Integer seatNumber = 1; seatNumber <= capacity; seatNumber++) {
-            Boolean isAvailable = ticketRepository.isSeatAvailableForSegment(
-                    tripId, seatNumber, fromStopId.intValue(), toStopId.intValue());
+    private record SeatInventory(TripOccupancyService.TripOccupancy occupancy, int fromStopOrder, int toStopOrder) {
 
-            seatStatuses.add(new SeatStatusResponse(
-                    seatNumber,
-                    isAvailable,
-                    isAvailable ? "AVAILABLE" : "OCCUPIED"
-            ));
+        Map<Integer, Seat.SeatType> layout() {
+            return occupancy.layout();
         }
 
-        return seatStatuses;
+        TripOccupancyService.SeatState stateFor(int seatNumber) {
+            return occupancy.stateFor(seatNumber, fromStopOrder, toStopOrder);
+        }
     }
 
     @Override
@@ -137,11 +271,27 @@ public class TripServiceImpl implements TripService {
         Trip trip = tripRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Viaje", id));
 
-        validateStatusTransition(trip.getStatus(), status);
+        Trip.TripStatus previousStatus = trip.getStatus();
+        validateStatusTransition(previousStatus, status);
+
+        // Cancelar no es solo un cambio de estado: tickets, reembolsos y holds van por cancelTrip
+        if (status == Trip.TripStatus.CANCELLED) {
+            cancelTrip(id);
+            return tripMapper.toResponse(trip);
+        }
 
         trip.setStatus(status);
         Trip updatedTrip = tripRepository.save(trip);
-
+        responseCache.evictTrip(id);
+        outboxService.record(OutboxEvent.AggregateType.TRIP, id, OutboxEvent.EventType.TRIP_STATUS_CHANGED,
+                Map.of("from", previousStatus, "to", status));
+
+        if (status == Trip.TripStatus.BOARDING) {
+            manifestService.buildManifest(id);
+        } else if (status == Trip.TripStatus.ARRIVED) {
+            manifestService.evict(id);
+            cargoLedgerService.evict(id);
+        }
 
         return tripMapper.toResponse(updatedTrip);
     }
@@ -157,10 +307,27 @@ public class TripServiceImpl implements TripService {
             throw new BusinessException("No se puede cancelar un viaje que ya partió o llegó", HttpStatus.BAD_REQUEST, "INVALID_CANCEL");
         }
 
+        Trip.TripStatus previousStatus = trip.getStatus();
         trip.setStatus(Trip.TripStatus.CANCELLED);
         tripRepository.save(trip);
 
-
+        // Tickets, reembolsos y holds en bloque: unas pocas sentencias sin importar cuántos asientos se vendieron
+        LocalDateTime now = LocalDateTime.now();
+        RefundLedgerRepository.RefundBatch refunds = refundLedgerRepository.cancelTripTickets(
+                id, TRIP_CANCELLATION_REFUND_PERCENTAGE, now);
+        int releasedHolds = seatHoldRepository.expireHoldsByTrip(id);
+
+        manifestService.evict(id);
+        cargoLedgerService.evict(id);
+        responseCache.evictTrip(id);
+        // Los tickets y holds se liberaron en bloque: la ocupación en caché ya no vale
+        occupancyService.evictAfterCommit(id);
+        outboxService.record(OutboxEvent.AggregateType.TRIP, id, OutboxEvent.EventType.TRIP_CANCELLED,
+                Map.of("previousStatus", previousStatus));
+        // Un solo evento por el lote de reembolsos en lugar de uno por ticket
+        outboxService.record(OutboxEvent.AggregateType.TRIP, id, OutboxEvent.EventType.TICKETS_REFUNDED,
+                Map.of("refundedTickets", refunds.tickets(), "totalAmount", refunds.totalAmount(),
+                        "refundPercentage", TRIP_CANCELLATION_REFUND_PERCENTAGE, "releasedHolds", releasedHolds));
     }
 
     private void validateStatusTransition(Trip.TripStatus currentStatus, Trip.TripStatus newStatus) {
@@ -17,6 +17,9 @@ public interface UserService {
     UserResponse updateUser(Long id, UserUpdateRequest request);
     
     void deleteUser(Long id);
+
+    // Reactiva una cuenta desactivada: sus tokens vuelven a ser válidos
+    void activateUser(Long id);
     
     List<UserResponse> getUsersByRole(User.Role role);
 }
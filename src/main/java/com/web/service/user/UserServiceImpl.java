@@ -6,6 +6,8 @@ import com.web.dto.auth.User.mapper.UserMapper;
 import com.web.entity.User;
 import com.web.exception.ResourceNotFoundException;
 import com.web.repository.UserRepository;
+import com.web.security.TokenRevocationCache;
+import com.web.util.TransactionCallbacks;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -20,6 +22,7 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final TokenRevocationCache tokenRevocationCache;
 
     @Override
     @Transactional(readOnly = true)
@@ -68,9 +71,24 @@ public class UserServiceImpl implements UserService {
         user.setStatus(User.Status.INACTIVE);
         userRepository.save(user);
 
+        // Los tokens ya emitidos llevan status ACTIVE en sus claims
+        tokenRevocationCache.revoke(id);
 
     }
 
+    @Override
+    @Transactional
+    public void activateUser(Long id) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario", id));
+
+        user.setStatus(User.Status.ACTIVE);
+        userRepository.save(user);
+
+        // Solo si el cambio de estado se confirma; si no, la revocación sigue vigente
+        TransactionCallbacks.afterCommit(() -> tokenRevocationCache.restore(id));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<UserResponse> getUsersByRole(User.Role role) {
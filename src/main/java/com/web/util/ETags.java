@@ -0,0 +1,45 @@
+package com.web.util;
+
+public final class ETags {
+
+    private ETags() {
+    }
+
+    // If-None-Match puede traer una lista, "*" o etiquetas débiles (W/"..."); para un GET
+    // la comparación es débil: basta con que coincida el valor entre comillas
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || eTag == null) {
+            return false;
+        }
+        String expected = opaque(eTag);
+        int i = 0;
+        int length = ifNoneMatch.length();
+        while (i < length) {
+            char c = ifNoneMatch.charAt(i);
+            if (c == ',' || Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '*') {
+                return true;
+            } else if (ifNoneMatch.startsWith("W/\"", i) || c == '"') {
+                int start = ifNoneMatch.indexOf('"', i);
+                int end = ifNoneMatch.indexOf('"', start + 1);
+                if (end < 0) {
+                    return false;
+                }
+                if (ifNoneMatch.substring(start, end + 1).equals(expected)) {
+                    return true;
+                }
+                i = end + 1;
+            } else {
+                // Etiqueta mal formada: se descarta hasta la siguiente coma
+                int comma = ifNoneMatch.indexOf(',', i);
+                i = comma < 0 ? length : comma + 1;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+}
@@ -0,0 +1,132 @@
+package com.web.util;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.web.entity.User;
+import com.web.security.AuthenticatedUser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+
+@Component
+public class JwtTokenProvider {
+
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_ROLE = "role";
+    private static final String CLAIM_STATUS = "status";
+    private static final String CLAIM_TYPE = "typ";
+    private static final String TYPE_ACCESS = "access";
+    private static final String TYPE_REFRESH = "refresh";
+
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+    private final long expirationMs;
+    private final long refreshExpirationMs;
+
+    public JwtTokenProvider(
+            @Value("${jwt.secret}") String secret,
+            @Value("${jwt.expiration.ms:86400000}") long expirationMs,
+            @Value("${jwt.refresh-expiration.ms:604800000}") long refreshExpirationMs) {
+        this.algorithm = Algorithm.HMAC256(secret);
+        this.verifier = JWT.require(algorithm).build();
+        this.expirationMs = expirationMs;
+        this.refreshExpirationMs = refreshExpirationMs;
+    }
+
+    // Token con id, rol y estado como claims para no consultar la BD en cada request
+    public String generateToken(User user) {
+        return generateToken(principalOf(user), TYPE_ACCESS, expirationMs);
+    }
+
+    // Emite un access token nuevo a partir de otro principal ya verificado (refresh sin BD ni BCrypt)
+    public String generateToken(AuthenticatedUser user) {
+        return generateToken(user, TYPE_ACCESS, expirationMs);
+    }
+
+    // Cada refresh token lleva un jti propio: se canjea una sola vez y cada sesión encadena los suyos
+    public String generateRefreshToken(User user) {
+        Date now = new Date();
+        return JWT.create()
+                .withSubject(user.getEmail())
+                .withClaim(CLAIM_USER_ID, user.getId())
+                .withClaim(CLAIM_TYPE, TYPE_REFRESH)
+                .withJWTId(UUID.randomUUID().toString())
+                .withIssuedAt(now)
+                .withExpiresAt(new Date(now.getTime() + refreshExpirationMs))
+                .sign(algorithm);
+    }
+
+    public long getExpirationMs() {
+        return expirationMs;
+    }
+
+    public boolean validateToken(String token) {
+        return decode(token).isPresent();
+    }
+
+    public String getEmailFromToken(String token) {
+        return verifier.verify(token).getSubject();
+    }
+
+    // Reconstruye el principal solo con los claims; vacío si el token es inválido o antiguo
+    public Optional<AuthenticatedUser> getAuthenticatedUser(String token) {
+        return decode(token, TYPE_ACCESS);
+    }
+
+    // Solo identifica al usuario y la rotación; estado y rol se leen de la BD al refrescar
+    public Optional<RefreshClaims> getRefreshClaims(String refreshToken) {
+        return decode(refreshToken)
+                .filter(jwt -> !jwt.getClaim(CLAIM_USER_ID).isMissing())
+                .filter(jwt -> TYPE_REFRESH.equals(jwt.getClaim(CLAIM_TYPE).asString()))
+                .filter(jwt -> jwt.getId() != null)
+                .map(jwt -> new RefreshClaims(jwt.getClaim(CLAIM_USER_ID).asLong(), jwt.getId(),
+                        LocalDateTime.ofInstant(jwt.getExpiresAtAsInstant(), ZoneId.systemDefault())));
+    }
+
+    private String generateToken(AuthenticatedUser user, String type, long ttlMs) {
+        Date now = new Date();
+        return JWT.create()
+                .withSubject(user.email())
+                .withClaim(CLAIM_USER_ID, user.id())
+                .withClaim(CLAIM_ROLE, user.role().name())
+                .withClaim(CLAIM_STATUS, user.status().name())
+                .withClaim(CLAIM_TYPE, type)
+                .withIssuedAt(now)
+                .withExpiresAt(new Date(now.getTime() + ttlMs))
+                .sign(algorithm);
+    }
+
+    private Optional<AuthenticatedUser> decode(String token, String expectedType) {
+        return decode(token)
+                .filter(jwt -> !jwt.getClaim(CLAIM_USER_ID).isMissing())
+                .filter(jwt -> expectedType.equals(jwt.getClaim(CLAIM_TYPE).asString()))
+                .map(jwt -> new AuthenticatedUser(
+                        jwt.getClaim(CLAIM_USER_ID).asLong(),
+                        jwt.getSubject(),
+                        User.Role.valueOf(jwt.getClaim(CLAIM_ROLE).asString()),
+                        User.Status.valueOf(jwt.getClaim(CLAIM_STATUS).asString())));
+    }
+
+    private AuthenticatedUser principalOf(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole(), user.getStatus());
+    }
+
+    public record RefreshClaims(Long userId, String tokenId, LocalDateTime expiresAt) {
+    }
+
+    private Optional<DecodedJWT> decode(String token) {
+        try {
+            return Optional.of(verifier.verify(token));
+        } catch (JWTVerificationException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.web.util;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Registrado con hibernate.session_factory.statement_inspector: cuenta cada sentencia sin modificarla
+public class QueryCountInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryCounter.increment();
+        return sql;
+    }
+}
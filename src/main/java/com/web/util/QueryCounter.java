@@ -0,0 +1,23 @@
+package com.web.util;
+
+// Sentencias SQL de Hibernate ejecutadas en el hilo actual (lo alimenta QueryCountInspector).
+// Lo usan el histograma por endpoint y los tests de presupuesto de consultas.
+public final class QueryCounter {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    private QueryCounter() {
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static int count() {
+        return COUNT.get()[0];
+    }
+
+    static void increment() {
+        COUNT.get()[0]++;
+    }
+}
@@ -0,0 +1,16 @@
+-- Libro de reembolsos: un registro por ticket cancelado con monto a devolver.
+-- Las cancelaciones de viaje completo se insertan en lote desde la misma sentencia que cancela los tickets.
+CREATE TABLE refunds (
+    id BIGSERIAL PRIMARY KEY,
+    ticket_id BIGINT NOT NULL UNIQUE REFERENCES tickets(id),
+    trip_id BIGINT NOT NULL REFERENCES trips(id),
+    passenger_id BIGINT NOT NULL REFERENCES users(id),
+    amount DECIMAL(10,2) NOT NULL CHECK (amount >= 0),
+    percentage DECIMAL(5,2) NOT NULL,
+    reason VARCHAR(20) NOT NULL CHECK (reason IN ('TICKET_CANCELLED', 'TRIP_CANCELLED')),
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING' CHECK (status IN ('PENDING', 'PAID')),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_refunds_trip ON refunds(trip_id);
+CREATE INDEX idx_refunds_pending ON refunds(created_at) WHERE status = 'PENDING';
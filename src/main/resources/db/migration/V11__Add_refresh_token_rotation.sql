@@ -0,0 +1,2 @@
+-- Identificador del refresh token vigente. Cada refresh lo rota: un token ya usado deja de servir
+ALTER TABLE users ADD COLUMN refresh_token_id VARCHAR(36);
@@ -0,0 +1,2 @@
+-- releaseHold convierte la retención en venta; los eventos pendientes pasan al nombre nuevo
+UPDATE outbox_events SET event_type = 'SEAT_HOLD_CONVERTED' WHERE event_type = 'SEAT_HOLD_RELEASED';
@@ -0,0 +1,5 @@
+-- Un ticket de sobreventa no toma el número de un asiento ya vendido: viaja sin número de asiento.
+-- En puerta aborda como cualquier otro y la tripulación lo ubica en un asiento que quedó vacío;
+-- si abordan más pasajeros que asientos, el escaneo registra un incidente OVERBOOK
+ALTER TABLE tickets ALTER COLUMN seat_number DROP NOT NULL;
+ALTER TABLE tickets ADD CONSTRAINT chk_tickets_seat_or_overbooked CHECK (seat_number IS NOT NULL OR overbooked);
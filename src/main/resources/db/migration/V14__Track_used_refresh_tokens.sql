@@ -0,0 +1,12 @@
+-- Refresh tokens por sesión: cada login abre su propia cadena de tokens y no escribe nada.
+-- Cada /refresh consume el jti recibido una sola vez; la fila vive hasta que ese token expira
+CREATE TABLE used_refresh_tokens (
+    jti VARCHAR(36) PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(id),
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_used_refresh_tokens_expires_at ON used_refresh_tokens (expires_at);
+
+-- El jti único por usuario invalidaba la sesión de otro dispositivo en cada login
+ALTER TABLE users DROP COLUMN refresh_token_id;
@@ -0,0 +1,16 @@
+-- Contadores por hora y tipo de incidente, actualizados en la misma transacción que el insert:
+-- todas las instancias ven los mismos totales
+CREATE TABLE incident_hourly_counts (
+    hour TIMESTAMP NOT NULL,
+    incident_type VARCHAR(30) NOT NULL,
+    incident_count BIGINT NOT NULL,
+    PRIMARY KEY (hour, incident_type)
+);
+
+INSERT INTO incident_hourly_counts (hour, incident_type, incident_count)
+SELECT date_trunc('hour', created_at), incident_type, COUNT(*)
+FROM incidents
+GROUP BY 1, 2;
+
+-- Las fracciones de hora en los extremos del rango se cuentan sobre incidents
+CREATE INDEX idx_incidents_created_at ON incidents(created_at);
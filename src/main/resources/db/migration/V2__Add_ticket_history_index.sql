@@ -0,0 +1,2 @@
+-- Historial de tickets por pasajero: keyset sobre (purchased_at, id)
+CREATE INDEX idx_tickets_passenger_purchased ON tickets(passenger_id, purchased_at DESC, id DESC);
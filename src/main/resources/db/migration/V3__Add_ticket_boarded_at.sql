@@ -0,0 +1,2 @@
+-- Registro de abordaje por escaneo de QR (se persiste en lote desde la puerta)
+ALTER TABLE tickets ADD COLUMN boarded_at TIMESTAMP;
@@ -0,0 +1,14 @@
+-- Outbox transaccional: los eventos de dominio se escriben en la misma transacción que el cambio
+CREATE TABLE outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_type VARCHAR(20) NOT NULL CHECK (aggregate_type IN ('TICKET', 'SEAT_HOLD', 'TRIP', 'PARCEL')),
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(40) NOT NULL,
+    payload TEXT NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP
+);
+
+-- El relay solo recorre los pendientes, en orden de inserción
+CREATE INDEX idx_outbox_events_pending ON outbox_events(id) WHERE published_at IS NULL;
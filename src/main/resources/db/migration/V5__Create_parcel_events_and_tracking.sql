@@ -0,0 +1,45 @@
+-- Historial append-only de estados de encomiendas
+CREATE TABLE parcel_events (
+    id BIGSERIAL PRIMARY KEY,
+    parcel_id BIGINT NOT NULL REFERENCES parcels(id),
+    status VARCHAR(20) NOT NULL CHECK (status IN ('CREATED', 'IN_TRANSIT', 'DELIVERED', 'FAILED')),
+    location VARCHAR(100),
+    notes VARCHAR(255),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_parcel_events_parcel ON parcel_events(parcel_id, id);
+
+-- Modelo de lectura para el rastreo público: una fila por código con el historial desnormalizado
+CREATE TABLE parcel_tracking (
+    code VARCHAR(50) PRIMARY KEY,
+    parcel_id BIGINT NOT NULL UNIQUE REFERENCES parcels(id),
+    status VARCHAR(20) NOT NULL CHECK (status IN ('CREATED', 'IN_TRANSIT', 'DELIVERED', 'FAILED')),
+    current_location VARCHAR(100),
+    estimated_delivery TIMESTAMP,
+    timeline TEXT NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Encomiendas existentes: se siembra el modelo con su estado actual
+INSERT INTO parcel_events (parcel_id, status, location, notes, created_at)
+SELECT p.id, p.status,
+       CASE WHEN p.status IN ('DELIVERED', 'FAILED') THEN ts.name ELSE fs.name END,
+       'Estado al migrar',
+       COALESCE(p.delivered_at, p.created_at)
+FROM parcels p
+JOIN stops fs ON fs.id = p.from_stop_id
+JOIN stops ts ON ts.id = p.to_stop_id;
+
+INSERT INTO parcel_tracking (code, parcel_id, status, current_location, estimated_delivery, timeline, updated_at)
+SELECT p.code, p.id, p.status, e.location, t.arrival_eta,
+       json_build_array(json_build_object(
+           'status', e.status,
+           'location', e.location,
+           'timestamp', to_char(e.created_at, 'YYYY-MM-DD"T"HH24:MI:SS'),
+           'notes', e.notes))::text,
+       CURRENT_TIMESTAMP
+FROM parcels p
+JOIN trips t ON t.id = p.trip_id
+JOIN parcel_events e ON e.parcel_id = p.id;
@@ -0,0 +1,10 @@
+-- Capacidad de bodega por bus y carga comprometida por tramo de cada viaje
+ALTER TABLE buses ADD COLUMN cargo_capacity_kg DECIMAL(8,2) NOT NULL DEFAULT 500.00;
+
+-- Un registro por tramo (parada de inicio -> siguiente parada), igual que la ocupación de asientos
+CREATE TABLE trip_cargo_ledger (
+    trip_id BIGINT NOT NULL REFERENCES trips(id),
+    segment_order INTEGER NOT NULL,
+    committed_kg DECIMAL(10,2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (trip_id, segment_order)
+);
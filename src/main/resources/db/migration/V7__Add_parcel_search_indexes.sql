@@ -0,0 +1,9 @@
+-- Búsqueda de mostrador por fragmentos de código, teléfono o nombre.
+-- Los índices trigrama GIN resuelven LIKE/ILIKE '%texto%' sin recorrer la tabla.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_parcels_code_trgm ON parcels USING GIN (code gin_trgm_ops);
+CREATE INDEX idx_parcels_sender_phone_trgm ON parcels USING GIN (sender_phone gin_trgm_ops);
+CREATE INDEX idx_parcels_receiver_phone_trgm ON parcels USING GIN (receiver_phone gin_trgm_ops);
+CREATE INDEX idx_parcels_sender_name_trgm ON parcels USING GIN (sender_name gin_trgm_ops);
+CREATE INDEX idx_parcels_receiver_name_trgm ON parcels USING GIN (receiver_name gin_trgm_ops);
@@ -0,0 +1,13 @@
+-- Conflictos de horario de buses y conductores: rango del viaje indexado con GiST.
+-- Extremos inclusivos: un viaje que llega a la misma hora en que sale otro cuenta como conflicto.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE trips ADD COLUMN schedule tsrange
+    GENERATED ALWAYS AS (tsrange(departure_time, COALESCE(arrival_eta, departure_time), '[]')) STORED;
+
+-- Solo los viajes que aún ocupan bus y conductor
+CREATE INDEX idx_trips_bus_schedule ON trips USING GIST (bus_id, schedule)
+    WHERE status NOT IN ('ARRIVED', 'CANCELLED');
+
+-- Los viajes del conductor se alcanzan por sus asignaciones
+CREATE INDEX idx_assignments_driver ON assignments(driver_id);
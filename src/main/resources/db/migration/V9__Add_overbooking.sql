@@ -0,0 +1,17 @@
+-- Historial de no-show por ruta y hora de salida. Se acumula viaje a viaje al procesar
+-- los no-show, nunca se recalcula desde los tickets.
+CREATE TABLE route_no_show_stats (
+    route_id BIGINT NOT NULL REFERENCES routes(id),
+    departure_hour SMALLINT NOT NULL CHECK (departure_hour BETWEEN 0 AND 23),
+    tickets_total BIGINT NOT NULL DEFAULT 0,
+    no_shows BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (route_id, departure_hour)
+);
+
+-- Cada viaje aporta a la estadística una sola vez
+ALTER TABLE trips ADD COLUMN no_shows_processed_at TIMESTAMP;
+
+CREATE INDEX idx_trips_no_show_pending ON trips(departure_time) WHERE no_shows_processed_at IS NULL;
+
+-- Tickets vendidos sobre un tramo ya lleno, a cuenta de los no-show esperados
+ALTER TABLE tickets ADD COLUMN overbooked BOOLEAN NOT NULL DEFAULT false;
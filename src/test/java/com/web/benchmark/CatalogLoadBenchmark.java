@@ -0,0 +1,98 @@
+package com.web.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Carga de consultas públicas (búsqueda, detalle, asientos) contra una instancia levantada.
+// Comparar antes/después: correr una vez con el perfil por defecto y otra con --spring.profiles.active=prod.
+// Uso: CatalogLoadBenchmark <baseUrl> <routeId> <tripId> <fromStopId> <toStopId> [fecha=hoy] [concurrencia=64] [segundos=60]
+public class CatalogLoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 5) {
+            System.out.println("Uso: CatalogLoadBenchmark <baseUrl> <routeId> <tripId> <fromStopId> <toStopId> [fecha] [concurrencia] [segundos]");
+            return;
+        }
+
+        String baseUrl = args[0] + "/api/v1";
+        String routeId = args[1];
+        String tripId = args[2];
+        LocalDate date = args.length > 5 ? LocalDate.parse(args[5]) : LocalDate.now();
+        int concurrency = args.length > 6 ? Integer.parseInt(args[6]) : 64;
+        int seconds = args.length > 7 ? Integer.parseInt(args[7]) : 60;
+
+        // Mezcla aproximada del tráfico de pasajeros: la búsqueda y los asientos dominan
+        List<String> paths = List.of(
+                "/trips?routeId=" + routeId + "&date=" + date,
+                "/trips?routeId=" + routeId + "&date=" + date,
+                "/trips?date=" + date,
+                "/trips/" + tripId + "/seats?fromStopId=" + args[3] + "&toStopId=" + args[4],
+                "/trips/" + tripId + "/seats?fromStopId=" + args[3] + "&toStopId=" + args[4],
+                "/trips/" + tripId,
+                "/routes/" + routeId);
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        List<HttpRequest> requests = paths.stream()
+                .map(path -> HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build())
+                .toList();
+
+        LongAdder ok = new LongAdder();
+        LongAdder failed = new LongAdder();
+        ConcurrentLinkedQueue<long[]> latencies = new ConcurrentLinkedQueue<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            int offset = i;
+            clients.submit(() -> {
+                List<Long> own = new ArrayList<>();
+                int next = offset;
+                while (System.nanoTime() < deadline) {
+                    HttpRequest request = requests.get(next++ % requests.size());
+                    long startedAt = System.nanoTime();
+                    try {
+                        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        if (status == 200) {
+                            ok.increment();
+                            own.add(System.nanoTime() - startedAt);
+                        } else {
+                            failed.increment();
+                        }
+                    } catch (Exception e) {
+                        failed.increment();
+                    }
+                }
+                latencies.add(own.stream().mapToLong(Long::longValue).toArray());
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(seconds + 30L, TimeUnit.SECONDS);
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("OK: %d, errores: %d%n", ok.sum(), failed.sum());
+        System.out.printf("req/s: %.1f%n", ok.sum() / (double) seconds);
+        if (all.length > 0) {
+            System.out.printf("latencia p50: %.1f ms  p95: %.1f ms  p99: %.1f ms%n",
+                    percentile(all, 0.50), percentile(all, 0.95), percentile(all, 0.99));
+        }
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,143 @@
+package com.web.benchmark;
+
+import com.web.dto.auth.Login.LoginRequest;
+import com.web.dto.auth.Login.LoginResponse;
+import com.web.dto.auth.User.mapper.UserMapper;
+import com.web.entity.User;
+import com.web.repository.UsedRefreshTokenRepository;
+import com.web.repository.UserRepository;
+import com.web.security.TokenRevocationCache;
+import com.web.service.auth.AuthServiceImpl;
+import com.web.util.JwtTokenProvider;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Pipeline de login sin BD (repositorio simulado): costo de BCrypt vs emisión de tokens vs refresh.
+// Ejecutar: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.web.benchmark.LoginBenchmark
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class LoginBenchmark {
+
+    private static final String PASSWORD = "Secreta123!";
+
+    @Param({"8", "10", "12"})
+    public int bcryptStrength;
+
+    private AuthServiceImpl authService;
+    private JwtTokenProvider jwtTokenProvider;
+    private LoginRequest loginRequest;
+    private User user;
+    private final Map<Long, User> refreshUsers = new ConcurrentHashMap<>();
+    private final Set<String> usedTokenIds = ConcurrentHashMap.newKeySet();
+    private final AtomicLong nextUserId = new AtomicLong(1000);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(bcryptStrength);
+        jwtTokenProvider = new JwtTokenProvider("benchmark-secret", 900000, 604800000);
+
+        user = User.builder()
+                .id(1L)
+                .name("Laura Pasajera")
+                .email("laura@example.com")
+                .role(User.Role.PASSENGER)
+                .status(User.Status.ACTIVE)
+                .passwordHash(passwordEncoder.encode(PASSWORD))
+                .build();
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(user));
+        when(userRepository.findById(anyLong())).thenAnswer(inv -> Optional.ofNullable(refreshUsers.get(inv.<Long>getArgument(0))));
+        UsedRefreshTokenRepository usedRefreshTokenRepository = mock(UsedRefreshTokenRepository.class);
+        when(usedRefreshTokenRepository.consume(anyString(), anyLong(), any()))
+                .thenAnswer(inv -> usedTokenIds.add(inv.getArgument(0)));
+
+        authService = new AuthServiceImpl(
+                userRepository,
+                Mappers.getMapper(UserMapper.class),
+                passwordEncoder,
+                jwtTokenProvider,
+                new TokenRevocationCache(604800000),
+                usedRefreshTokenRepository);
+
+        loginRequest = new LoginRequest(user.getEmail(), PASSWORD);
+    }
+
+    // El refresh rota el token: cada hilo encadena su propio usuario y token
+    @State(Scope.Thread)
+    public static class RefreshState {
+        String refreshToken;
+
+        @Setup(Level.Trial)
+        public void setUp(LoginBenchmark benchmark) {
+            long id = benchmark.nextUserId.incrementAndGet();
+            User user = User.builder()
+                    .id(id)
+                    .email("pasajero" + id + "@example.com")
+                    .role(User.Role.PASSENGER)
+                    .status(User.Status.ACTIVE)
+                    .build();
+            benchmark.refreshUsers.put(user.getId(), user);
+            refreshToken = benchmark.jwtTokenProvider.generateRefreshToken(user);
+        }
+    }
+
+    @Benchmark
+    public Object login() {
+        return authService.login(loginRequest);
+    }
+
+    @Benchmark
+    public Object refresh(RefreshState state) {
+        LoginResponse response = authService.refresh(state.refreshToken);
+        state.refreshToken = response.refreshToken();
+        return response;
+    }
+
+    @Benchmark
+    public Object tokenIssuance() {
+        return jwtTokenProvider.generateToken(user);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(LoginBenchmark.class.getSimpleName())
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%n%-15s %-8s %15s %15s%n", "benchmark", "bcrypt", "ops/s", "ops/s/core");
+        for (RunResult result : results) {
+            double score = result.getPrimaryResult().getScore();
+            System.out.printf("%-15s %-8s %15.1f %15.1f%n",
+                    result.getParams().getBenchmark().replaceAll(".*\\.", ""),
+                    result.getParams().getParam("bcryptStrength"),
+                    score,
+                    score / cores);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.web.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Prueba de carga contra una instancia levantada: POST /api/v1/auth/login con N clientes concurrentes.
+// Uso: LoginLoadBenchmark <baseUrl> <email> <password> [concurrencia=32] [segundos=30] [coresServidor]
+public class LoginLoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.out.println("Uso: LoginLoadBenchmark <baseUrl> <email> <password> [concurrencia] [segundos] [coresServidor]");
+            return;
+        }
+
+        String baseUrl = args[0];
+        String body = String.format("{\"email\":\"%s\",\"password\":\"%s\"}", args[1], args[2]);
+        int concurrency = args.length > 3 ? Integer.parseInt(args[3]) : 32;
+        int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 30;
+        int serverCores = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        LongAdder ok = new LongAdder();
+        LongAdder busy = new LongAdder();
+        LongAdder failed = new LongAdder();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            clients.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    try {
+                        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        if (status == 200) {
+                            ok.increment();
+                        } else if (status == 503) {
+                            busy.increment();
+                        } else {
+                            failed.increment();
+                        }
+                    } catch (Exception e) {
+                        failed.increment();
+                    }
+                }
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(seconds + 30L, TimeUnit.SECONDS);
+
+        double loginsPerSecond = ok.sum() / (double) seconds;
+        System.out.printf("logins OK: %d, 503 (LOGIN_BUSY): %d, errores: %d%n", ok.sum(), busy.sum(), failed.sum());
+        System.out.printf("logins/s: %.1f  logins/s/core (%d cores): %.1f%n",
+                loginsPerSecond, serverCores, loginsPerSecond / serverCores);
+    }
+}
@@ -0,0 +1,242 @@
+package com.web.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.web.dto.catalog.Bus.BusResponse;
+import com.web.dto.catalog.Route.RouteDetailResponse;
+import com.web.dto.catalog.Route.RouteResponse;
+import com.web.dto.catalog.Stop.StopResponse;
+import com.web.dto.common.CursorPageResponse;
+import com.web.dto.dispatch.Assignment.AssignmentResponse;
+import com.web.dto.dispatch.Board.DispatchBoardResponse;
+import com.web.dto.dispatch.Board.DispatchBoardRow;
+import com.web.dto.dispatch.Manifest.ManifestParcelEntry;
+import com.web.dto.dispatch.Manifest.ManifestStopEntry;
+import com.web.dto.dispatch.Manifest.ManifestTicketEntry;
+import com.web.dto.dispatch.Manifest.TripManifestResponse;
+import com.web.dto.dispatch.Schedule.DriverScheduleEntry;
+import com.web.dto.parcel.ParcelEventResponse;
+import com.web.dto.parcel.ParcelTrackingResponse;
+import com.web.dto.ticket.reservations.SeatStatusResponse;
+import com.web.dto.trip.SeatMapResponse;
+import com.web.dto.trip.TripDetailResponse;
+import com.web.dto.trip.TripResponse;
+import com.web.entity.Bus;
+import com.web.entity.Parcel;
+import com.web.entity.Ticket;
+import com.web.entity.Trip;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Tamaño y costo de serialización de las respuestas más pedidas: JSON vs CBOR, con y sin gzip.
+// Datos sintéticos con el volumen típico (44 asientos, 12 paradas, 50 filas por página).
+// Ejecutar: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.web.benchmark.WireFormatBenchmark
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    private static final int SEATS = 44;
+    private static final int STOPS = 12;
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2025, 3, 14, 6, 30);
+
+    @Param({"routes", "routeDetail", "tripSearch", "tripDetail", "seats", "seatMap",
+            "manifest", "dispatchBoard", "driverSchedule", "parcelTracking"})
+    public String endpoint;
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private Object payload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mapper = mapperFor(format);
+        payload = payloads().get(endpoint);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public byte[] serializeGzip() throws IOException {
+        return gzip(mapper.writeValueAsBytes(payload));
+    }
+
+    // Mismo builder que usa Spring MVC para cada formato
+    private static ObjectMapper mapperFor(String format) {
+        return "cbor".equals(format)
+                ? Jackson2ObjectMapperBuilder.cbor().build()
+                : Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    private static byte[] gzip(byte[] raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(raw);
+        }
+        return out.toByteArray();
+    }
+
+    static Map<String, Object> payloads() {
+        List<StopResponse> stops = new ArrayList<>();
+        for (int i = 1; i <= STOPS; i++) {
+            stops.add(new StopResponse((long) i, "Parada " + i, i,
+                    new BigDecimal("4.7110").add(BigDecimal.valueOf(i, 3)),
+                    new BigDecimal("-74.0721").add(BigDecimal.valueOf(i, 3))));
+        }
+
+        List<RouteResponse> routes = new ArrayList<>();
+        for (int i = 1; i <= 40; i++) {
+            routes.add(new RouteResponse((long) i, "R-" + i, "Ruta " + i, "Bogotá", "Tunja",
+                    new BigDecimal("147.50"), 180, true));
+        }
+
+        RouteResponse route = routes.get(0);
+        RouteDetailResponse routeDetail = new RouteDetailResponse(route.id(), route.code(), route.name(),
+                route.origin(), route.destination(), route.distanceKm(), route.durationMin(), true, stops);
+
+        List<TripResponse> trips = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            trips.add(new TripResponse((long) i, route.id(), route.name(), route.origin(), route.destination(),
+                    (long) i, "ABC" + (100 + i), SEATS, DEPARTURE.toLocalDate(), DEPARTURE.plusMinutes(30L * i),
+                    DEPARTURE.plusMinutes(30L * i + 180), Trip.TripStatus.SCHEDULED, 20 + i % 20, 45.5 + i));
+        }
+
+        List<Integer> availableSeatNumbers = new ArrayList<>();
+        List<SeatStatusResponse> seats = new ArrayList<>();
+        StringBuilder status = new StringBuilder();
+        StringBuilder seatTypes = new StringBuilder();
+        for (int seat = 1; seat <= SEATS; seat++) {
+            boolean sold = seat % 3 == 0;
+            boolean preferential = seat <= 4;
+            if (!sold) {
+                availableSeatNumbers.add(seat);
+            }
+            seats.add(new SeatStatusResponse(seat, sold ? "SOLD" : "AVAILABLE", preferential ? "PREFERENTIAL" : "STANDARD"));
+            status.append(sold ? SeatMapResponse.SOLD : SeatMapResponse.AVAILABLE);
+            seatTypes.append(preferential ? SeatMapResponse.PREFERENTIAL : SeatMapResponse.STANDARD);
+        }
+        SeatMapResponse seatMap = new SeatMapResponse(1L, 1L, (long) STOPS, SEATS,
+                status.toString(), seatTypes.toString(), availableSeatNumbers.size());
+
+        AssignmentResponse assignment = new AssignmentResponse(1L, 1L, 7L, "Carlos Conductor", "3001234567",
+                3L, "Diana Despacho", true, DEPARTURE.minusHours(12));
+        TripDetailResponse tripDetail = new TripDetailResponse(1L, route,
+                new BusResponse(1L, "ABC101", SEATS, new BigDecimal("800.00"), Map.of("wifi", true, "ac", true),
+                        Bus.BusStatus.ACTIVE),
+                DEPARTURE.toLocalDate(), DEPARTURE, DEPARTURE.plusHours(3), Trip.TripStatus.SCHEDULED, assignment,
+                SEATS - availableSeatNumbers.size(), availableSeatNumbers.size(),
+                100.0 * (SEATS - availableSeatNumbers.size()) / SEATS, availableSeatNumbers);
+
+        List<ManifestStopEntry> manifestStops = new ArrayList<>();
+        long ticketId = 1;
+        long parcelId = 1;
+        for (int order = 1; order <= STOPS; order++) {
+            List<ManifestTicketEntry> boarding = new ArrayList<>();
+            for (int i = 0; i < SEATS / STOPS; i++, ticketId++) {
+                boarding.add(new ManifestTicketEntry(ticketId, (int) ticketId, (long) order, order,
+                        Math.min(STOPS, order + 3), "%064x".formatted(ticketId * 7919), Ticket.TicketStatus.SOLD, 1L));
+            }
+            List<ManifestParcelEntry> deliveries = new ArrayList<>();
+            if (order > 1 && order % 2 == 0) {
+                for (int i = 0; i < 3; i++, parcelId++) {
+                    deliveries.add(new ManifestParcelEntry(parcelId, "PKG-" + (10000 + parcelId), 1L, (long) order,
+                            Parcel.ParcelStatus.IN_TRANSIT, 1L));
+                }
+            }
+            manifestStops.add(new ManifestStopEntry((long) order, "Parada " + order, order, boarding, deliveries));
+        }
+        TripManifestResponse manifest = new TripManifestResponse(1L, 1L, 1L, DEPARTURE.minusMinutes(30), SEATS, manifestStops);
+
+        List<DispatchBoardRow> boardRows = new ArrayList<>();
+        for (int i = 1; i <= 60; i++) {
+            boolean assigned = i % 4 != 0;
+            boardRows.add(new DispatchBoardRow((long) i, "R-" + (i % 8 + 1), "ABC" + (100 + i),
+                    DEPARTURE.plusMinutes(20L * i), DEPARTURE.plusMinutes(20L * i + 180), Trip.TripStatus.SCHEDULED,
+                    assigned ? (long) (i % 15 + 1) : null, assigned ? "Conductor " + (i % 15 + 1) : null,
+                    assigned ? i % 3 != 0 : null, (long) (i % SEATS), SEATS, (long) (i % 6)));
+        }
+        DispatchBoardResponse board = new DispatchBoardResponse("\"" + "%032x".formatted(42) + "\"",
+                DEPARTURE.plusHours(24), boardRows);
+
+        List<DriverScheduleEntry> schedule = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            schedule.add(new DriverScheduleEntry((long) i, (long) i, "R-" + (i % 8 + 1), "Ruta " + (i % 8 + 1),
+                    "ABC" + (100 + i % 10), DEPARTURE.plusHours(8L * i), DEPARTURE.plusHours(8L * i + 3),
+                    Trip.TripStatus.SCHEDULED, false));
+        }
+        CursorPageResponse<DriverScheduleEntry> schedulePage = new CursorPageResponse<>(schedule, 50,
+                "MjAyNS0wMy0zMVQwNjozMDo1MA", true);
+
+        List<ParcelEventResponse> events = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            events.add(new ParcelEventResponse(i == 0 ? Parcel.ParcelStatus.CREATED : Parcel.ParcelStatus.IN_TRANSIT,
+                    "Parada " + (i + 1), DEPARTURE.plusMinutes(25L * i), i == 0 ? "Recibida en taquilla" : null));
+        }
+        ParcelTrackingResponse tracking = new ParcelTrackingResponse("PKG-10001", Parcel.ParcelStatus.IN_TRANSIT,
+                "Parada 8", DEPARTURE.plusHours(4), events);
+
+        Map<String, Object> payloads = new LinkedHashMap<>();
+        payloads.put("routes", routes);
+        payloads.put("routeDetail", routeDetail);
+        payloads.put("tripSearch", trips);
+        payloads.put("tripDetail", tripDetail);
+        payloads.put("seats", seats);
+        payloads.put("seatMap", seatMap);
+        payloads.put("manifest", manifest);
+        payloads.put("dispatchBoard", board);
+        payloads.put("driverSchedule", schedulePage);
+        payloads.put("parcelTracking", tracking);
+        return payloads;
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Tamaños: deterministas, no necesitan JMH
+        ObjectMapper json = mapperFor("json");
+        ObjectMapper cbor = mapperFor("cbor");
+        System.out.printf("%n%-16s %10s %10s %10s %10s%n", "endpoint", "json", "json+gz", "cbor", "cbor+gz");
+        for (Map.Entry<String, Object> entry : payloads().entrySet()) {
+            byte[] jsonBytes = json.writeValueAsBytes(entry.getValue());
+            byte[] cborBytes = cbor.writeValueAsBytes(entry.getValue());
+            System.out.printf("%-16s %10d %10d %10d %10d%n", entry.getKey(),
+                    jsonBytes.length, gzip(jsonBytes).length, cborBytes.length, gzip(cborBytes).length);
+        }
+
+        Options options = new OptionsBuilder()
+                .include(WireFormatBenchmark.class.getSimpleName())
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        System.out.printf("%n%-16s %-14s %-6s %15s%n", "endpoint", "benchmark", "format", "ops/s");
+        for (RunResult result : results) {
+            System.out.printf("%-16s %-14s %-6s %15.1f%n",
+                    result.getParams().getParam("endpoint"),
+                    result.getParams().getBenchmark().replaceAll(".*\\.", ""),
+                    result.getParams().getParam("format"),
+                    result.getPrimaryResult().getScore());
+        }
+    }
+}
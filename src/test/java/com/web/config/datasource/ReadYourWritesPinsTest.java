@@ -0,0 +1,52 @@
+package com.web.config.datasource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ReadYourWritesPins Unit Tests")
+class ReadYourWritesPinsTest {
+
+    @Test
+    @DisplayName("Debe fijar al usuario durante la ventana")
+    void shouldPinUserWithinWindow() {
+        // Given
+        ReadYourWritesPins pins = new ReadYourWritesPins(60000);
+
+        // When
+        pins.pin(1L);
+
+        // Then
+        assertThat(pins.isPinned(1L)).isTrue();
+        assertThat(pins.isPinned(2L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Debe soltar al usuario vencida la ventana")
+    void shouldReleaseUserAfterWindow() {
+        // Given - ventana vencida apenas se fija
+        ReadYourWritesPins pins = new ReadYourWritesPins(0);
+        pins.pin(1L);
+
+        // When
+        pins.purgeExpired();
+
+        // Then
+        assertThat(pins.isPinned(1L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Debe conservar en la purga a los usuarios con la ventana vigente")
+    void shouldKeepActivePinsOnPurge() {
+        // Given
+        ReadYourWritesPins pins = new ReadYourWritesPins(60000);
+        pins.pin(1L);
+
+        // When
+        pins.purgeExpired();
+
+        // Then
+        assertThat(pins.isPinned(1L)).isTrue();
+    }
+}
@@ -0,0 +1,46 @@
+package com.web.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ReplicaDataSourceConfig Unit Tests")
+class ReplicaDataSourceConfigTest {
+
+    @Test
+    @DisplayName("Debe aplicar a las réplicas los spring.datasource.hikari.* del primario")
+    void shouldBindPrimaryHikariPropertiesToReplica() throws Exception {
+        // Given
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl("jdbc:postgresql://primary:5432/ProyectoFinalDB");
+        properties.setUsername("app");
+        properties.setPassword("secret");
+        properties.afterPropertiesSet();
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.connection-timeout", "3000")
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "20")
+                .withProperty("spring.datasource.hikari.data-source-properties.prepareThreshold", "3")
+                .withProperty("spring.datasource.hikari.data-source-properties.preparedStatementCacheQueries", "512");
+
+        // When - el pool no se abre hasta la primera conexión
+        try (HikariDataSource replica = ReplicaDataSourceConfig.replicaDataSource(properties, Binder.get(environment),
+                "jdbc:postgresql://replica-1:5432/ProyectoFinalDB", "replica-0", 10)) {
+
+            // Then
+            assertThat(replica.getJdbcUrl()).isEqualTo("jdbc:postgresql://replica-1:5432/ProyectoFinalDB");
+            assertThat(replica.getUsername()).isEqualTo("app");
+            assertThat(replica.getConnectionTimeout()).isEqualTo(3000);
+            assertThat(replica.getDataSourceProperties())
+                    .containsEntry("prepareThreshold", "3")
+                    .containsEntry("preparedStatementCacheQueries", "512");
+            assertThat(replica.getMaximumPoolSize()).isEqualTo(10);
+            assertThat(replica.getPoolName()).isEqualTo("replica-0");
+            assertThat(replica.isReadOnly()).isTrue();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.web.config.datasource;
+
+import com.web.entity.User;
+import com.web.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Elección de primario o réplica según la transacción del hilo, el usuario y las réplicas en rotación
+@DisplayName("ReplicaRoutingDataSource Unit Tests")
+class ReplicaRoutingDataSourceTest {
+
+    private static final Long USER_ID = 7L;
+
+    private ReplicaLagMonitor lagMonitor;
+    private ReadYourWritesPins pins;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        lagMonitor = mock(ReplicaLagMonitor.class);
+        when(lagMonitor.healthyReplicas()).thenReturn(List.of("replica-0", "replica-1"));
+        pins = new ReadYourWritesPins(60000);
+        routing = new ReplicaRoutingDataSource(lagMonitor, pins);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Debe ir al primario sin transacción activa")
+    void shouldUsePrimaryWithoutTransaction() {
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("Debe ir al primario en escritura y fijar al usuario solo tras el commit")
+    void shouldUsePrimaryForWritesAndPinAfterCommit() {
+        // Given
+        authenticate();
+        beginTransaction(false);
+
+        // When
+        Object key = routing.determineCurrentLookupKey();
+
+        // Then
+        assertThat(key).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+        assertThat(pins.isPinned(USER_ID)).isFalse();
+
+        // When
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Then
+        assertThat(pins.isPinned(USER_ID)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Debe leer del primario si el usuario acaba de escribir")
+    void shouldUsePrimaryForPinnedUser() {
+        // Given
+        authenticate();
+        pins.pin(USER_ID);
+        beginTransaction(true);
+
+        // When / Then
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("Debe leer del primario si no hay réplicas en rotación")
+    void shouldUsePrimaryWithoutHealthyReplica() {
+        // Given
+        when(lagMonitor.healthyReplicas()).thenReturn(List.of());
+        beginTransaction(true);
+
+        // When / Then
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("Debe repartir las lecturas entre las réplicas en rotación")
+    void shouldRoundRobinReadsOverHealthyReplicas() {
+        // Given
+        beginTransaction(true);
+
+        // When / Then
+        assertThat(List.of(
+                routing.determineCurrentLookupKey(),
+                routing.determineCurrentLookupKey(),
+                routing.determineCurrentLookupKey()))
+                .containsExactly("replica-0", "replica-1", "replica-0");
+    }
+
+    private static void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static void authenticate() {
+        AuthenticatedUser user = new AuthenticatedUser(USER_ID, "ana@example.com", User.Role.PASSENGER, User.Status.ACTIVE);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+}
@@ -1,11 +1,13 @@
 package com.web.repository;
 
+import com.web.dto.dispatch.Schedule.DriverScheduleEntry;
 import com.web.entity.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -362,4 +364,54 @@ class AssignmentRepositoryTest extends BaseRepositoryTest {
         // Then
         assertThat(assignments).isEmpty();
     }
+
+    @Test
+    @DisplayName("Debe listar las asignaciones vigentes de un rango de fechas")
+    void shouldFindActiveAssignmentsBetweenDates() {
+        // Given - trip1 y trip3 asignados; trip2 asignado pero cancelado
+        trip2.setStatus(Trip.TripStatus.CANCELLED);
+        entityManager.persist(Assignment.builder().trip(trip1).driver(driver1).dispatcher(dispatcher).build());
+        entityManager.persist(Assignment.builder().trip(trip2).driver(driver1).dispatcher(dispatcher).build());
+        entityManager.persist(Assignment.builder().trip(trip3).driver(driver2).dispatcher(dispatcher).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<Assignment> today = assignmentRepository.findActiveAssignmentsBetween(LocalDate.now(), LocalDate.now());
+        List<Assignment> twoDays = assignmentRepository.findActiveAssignmentsBetween(
+                LocalDate.now(), LocalDate.now().plusDays(1));
+
+        // Then
+        assertThat(today).extracting(assignment -> assignment.getTrip().getId())
+                .containsExactly(trip1.getId());
+        assertThat(twoDays).extracting(assignment -> assignment.getTrip().getId())
+                .containsExactlyInAnyOrder(trip1.getId(), trip3.getId());
+    }
+
+    @Test
+    @DisplayName("Debe paginar la agenda del conductor dentro de una ventana de fechas")
+    void shouldPageDriverScheduleWithinDateWindow() {
+        // Given - driver1 con tres viajes: dos hoy y uno mañana
+        entityManager.persist(Assignment.builder().trip(trip1).driver(driver1).dispatcher(dispatcher).build());
+        entityManager.persist(Assignment.builder().trip(trip2).driver(driver1).dispatcher(dispatcher).build());
+        entityManager.persist(Assignment.builder().trip(trip3).driver(driver1).dispatcher(dispatcher).build());
+        entityManager.flush();
+
+        // When
+        List<DriverScheduleEntry> firstPage = assignmentRepository.findDriverSchedule(
+                driver1.getId(), LocalDate.now(), LocalDate.now().plusDays(1), Limit.of(2));
+        DriverScheduleEntry last = firstPage.get(firstPage.size() - 1);
+        List<DriverScheduleEntry> nextPage = assignmentRepository.findDriverScheduleAfter(
+                driver1.getId(), LocalDate.now(), LocalDate.now().plusDays(1),
+                last.departureTime(), last.tripId(), Limit.of(2));
+        List<DriverScheduleEntry> todayOnly = assignmentRepository.findDriverSchedule(
+                driver1.getId(), LocalDate.now(), LocalDate.now(), Limit.of(10));
+
+        // Then
+        assertThat(firstPage).extracting(DriverScheduleEntry::tripId)
+                .containsExactly(trip1.getId(), trip2.getId());
+        assertThat(firstPage.get(0).busPlate()).isEqualTo("ABC123");
+        assertThat(nextPage).extracting(DriverScheduleEntry::tripId).containsExactly(trip3.getId());
+        assertThat(todayOnly).hasSize(2);
+    }
 }
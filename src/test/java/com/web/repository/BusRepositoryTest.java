@@ -167,6 +167,56 @@ class BusRepositoryTest extends BaseRepositoryTest {
         assertThat(availableBuses.get(0).getPlate()).isEqualTo("DEF456");
     }
 
+    @Test
+    @DisplayName("Debe detectar el viaje activo que se cruza con un horario del bus")
+    void shouldFindConflictingTripForBus() {
+        // Given - bus1 programado de 8:00 a 15:00 y un viaje cancelado en la tarde
+        Route route = Route.builder()
+                .code("BOG-TUN")
+                .name("Bogotá - Tunja")
+                .origin("Bogotá")
+                .destination("Tunja")
+                .distanceKm(new BigDecimal("140.00"))
+                .durationMin(180)
+                .isActive(true)
+                .build();
+        entityManager.persist(route);
+
+        LocalDateTime morning = LocalDateTime.of(2024, 6, 15, 8, 0);
+        Trip scheduled = Trip.builder()
+                .route(route)
+                .bus(bus1)
+                .tripDate(LocalDate.of(2024, 6, 15))
+                .departureTime(morning)
+                .arrivalEta(morning.plusHours(7))
+                .status(Trip.TripStatus.SCHEDULED)
+                .build();
+        Trip cancelled = Trip.builder()
+                .route(route)
+                .bus(bus1)
+                .tripDate(LocalDate.of(2024, 6, 15))
+                .departureTime(morning.plusHours(9))
+                .arrivalEta(morning.plusHours(12))
+                .status(Trip.TripStatus.CANCELLED)
+                .build();
+        entityManager.persist(scheduled);
+        entityManager.persist(cancelled);
+        entityManager.flush();
+
+        // When
+        Optional<Long> overlapping = busRepository.findConflictingTripId(
+                bus1.getId(), morning.plusHours(6), morning.plusHours(10));
+        Optional<Long> afterwards = busRepository.findConflictingTripId(
+                bus1.getId(), morning.plusHours(9), morning.plusHours(12));
+        Optional<Long> otherBus = busRepository.findConflictingTripId(
+                bus2.getId(), morning, morning.plusHours(7));
+
+        // Then - el viaje cancelado ya no ocupa el bus
+        assertThat(overlapping).contains(scheduled.getId());
+        assertThat(afterwards).isEmpty();
+        assertThat(otherBus).isEmpty();
+    }
+
     @Test
     @DisplayName("Debe obtener bus con sus asientos (fetch join)")
     void shouldFindBusByIdWithSeats() {
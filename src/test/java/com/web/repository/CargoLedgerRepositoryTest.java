@@ -0,0 +1,124 @@
+package com.web.repository;
+
+import com.web.entity.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("CargoLedgerRepository Integration Tests")
+class CargoLedgerRepositoryTest extends BaseRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private CargoLedgerRepository cargoLedgerRepository;
+    private Trip trip;
+    private Stop stopBogota;
+    private Stop stopTunja;
+
+    @BeforeEach
+    void setUp() {
+        cargoLedgerRepository = new CargoLedgerRepository(jdbcTemplate);
+
+        Route route = Route.builder()
+                .code("BOG-BGA")
+                .name("Bogotá - Bucaramanga")
+                .origin("Bogotá")
+                .destination("Bucaramanga")
+                .distanceKm(new BigDecimal("400.00"))
+                .durationMin(480)
+                .isActive(true)
+                .build();
+        entityManager.persist(route);
+
+        stopBogota = Stop.builder().route(route).name("Terminal Bogotá").order(1)
+                .latitude(new BigDecimal("4.6097")).longitude(new BigDecimal("-74.0817")).build();
+        stopTunja = Stop.builder().route(route).name("Terminal Tunja").order(2)
+                .latitude(new BigDecimal("5.5353")).longitude(new BigDecimal("-73.3678")).build();
+        Stop stopBucaramanga = Stop.builder().route(route).name("Terminal Bucaramanga").order(3)
+                .latitude(new BigDecimal("7.1193")).longitude(new BigDecimal("-73.1227")).build();
+        entityManager.persist(stopBogota);
+        entityManager.persist(stopTunja);
+        entityManager.persist(stopBucaramanga);
+
+        Bus bus = Bus.builder()
+                .plate("CRG123")
+                .capacity(40)
+                .amenities(new HashMap<>())
+                .status(Bus.BusStatus.ACTIVE)
+                .build();
+        entityManager.persist(bus);
+
+        trip = Trip.builder()
+                .route(route)
+                .bus(bus)
+                .tripDate(LocalDate.now())
+                .departureTime(LocalDateTime.now().plusDays(1))
+                .arrivalEta(LocalDateTime.now().plusDays(1).plusHours(8))
+                .status(Trip.TripStatus.SCHEDULED)
+                .build();
+        entityManager.persist(trip);
+
+        entityManager.persist(Parcel.builder()
+                .code("PCL-CRG-1")
+                .trip(trip)
+                .senderName("Ana")
+                .senderPhone("3001111111")
+                .receiverName("Luis")
+                .receiverPhone("3002222222")
+                .fromStop(stopBogota)
+                .toStop(stopTunja)
+                .price(new BigDecimal("15000.00"))
+                .weightKg(new BigDecimal("30.00"))
+                .status(Parcel.ParcelStatus.CREATED)
+                .deliveryOtp("123456")
+                .build());
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Debe calcular la siembra en lectura sin persistirla")
+    void shouldSeedWithoutPersistingOnRead() {
+        // When
+        Map<Integer, BigDecimal> segments = cargoLedgerRepository.findOrSeed(trip.getId());
+
+        // Then
+        assertThat(segments).hasSize(2);
+        assertThat(segments.get(1)).isEqualByComparingTo("30.00");
+        assertThat(segments.get(2)).isEqualByComparingTo("0");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM trip_cargo_ledger WHERE trip_id = ?", Integer.class, trip.getId()))
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("Debe sumar solo en los tramos que caben en la capacidad")
+    void shouldAddOnlyWithinCapacity() {
+        // Given
+        cargoLedgerRepository.loadOrInitialize(trip.getId());
+
+        // When - 80 kg no caben en el tramo 1 (ya tiene 30 de 100) pero sí en el 2
+        var rejected = cargoLedgerRepository.addWithinCapacity(trip.getId(),
+                Map.of(1, new BigDecimal("80.00"), 2, new BigDecimal("80.00")), new BigDecimal("100.00"));
+
+        // Then
+        assertThat(rejected).containsExactly(1);
+        Map<Integer, BigDecimal> segments = cargoLedgerRepository.loadOrInitialize(trip.getId());
+        assertThat(segments.get(1)).isEqualByComparingTo("30.00");
+        assertThat(segments.get(2)).isEqualByComparingTo("80.00");
+    }
+}
@@ -0,0 +1,87 @@
+package com.web.repository;
+
+import com.web.entity.OutboxEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("OutboxEventRepository Integration Tests")
+class OutboxEventRepositoryTest extends BaseRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private OutboxEvent sold;
+    private OutboxEvent cancelled;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.clear();
+
+        sold = event(1L, OutboxEvent.EventType.TICKET_SOLD);
+        cancelled = event(1L, OutboxEvent.EventType.TICKET_CANCELLED);
+        OutboxEvent published = event(2L, OutboxEvent.EventType.TICKET_SOLD);
+        published.setPublishedAt(LocalDateTime.now().minusMinutes(1));
+        OutboxEvent deadLetter = event(3L, OutboxEvent.EventType.TICKET_SOLD);
+        deadLetter.setAttempts(5);
+
+        entityManager.persist(sold);
+        entityManager.persist(cancelled);
+        entityManager.persist(published);
+        entityManager.persist(deadLetter);
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Debe bloquear solo eventos pendientes en orden de inserción")
+    void shouldLockPendingEventsInOrder() {
+        // When
+        List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(10, 5);
+
+        // Then - se excluyen los publicados y los que agotaron reintentos
+        assertThat(batch).extracting(OutboxEvent::getId)
+                .containsExactly(sold.getId(), cancelled.getId());
+    }
+
+    @Test
+    @DisplayName("Debe respetar el tamaño del lote")
+    void shouldLimitBatchSize() {
+        // When
+        List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(1, 5);
+
+        // Then
+        assertThat(batch).extracting(OutboxEvent::getId).containsExactly(sold.getId());
+    }
+
+    @Test
+    @DisplayName("Debe marcar eventos como publicados")
+    void shouldMarkEventsAsPublished() {
+        // When
+        int updated = outboxEventRepository.markPublished(List.of(sold.getId()), LocalDateTime.now());
+        entityManager.clear();
+
+        // Then
+        assertThat(updated).isEqualTo(1);
+        assertThat(outboxEventRepository.lockNextBatch(10, 5)).extracting(OutboxEvent::getId)
+                .containsExactly(cancelled.getId());
+    }
+
+    private OutboxEvent event(Long ticketId, OutboxEvent.EventType type) {
+        return OutboxEvent.builder()
+                .aggregateType(OutboxEvent.AggregateType.TICKET)
+                .aggregateId(ticketId)
+                .eventType(type)
+                .payload("{\"tripId\":10}")
+                .build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.web.repository;
+
+import com.web.entity.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ParcelEventRepository Integration Tests")
+class ParcelEventRepositoryTest extends BaseRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ParcelEventRepository parcelEventRepository;
+
+    private Parcel parcel;
+    private Parcel otherParcel;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.clear();
+
+        Route route = Route.builder()
+                .code("BOG-TUN")
+                .name("Bogotá - Tunja")
+                .origin("Bogotá")
+                .destination("Tunja")
+                .distanceKm(new BigDecimal("140.00"))
+                .durationMin(180)
+                .isActive(true)
+                .build();
+        entityManager.persist(route);
+
+        Stop stopBogota = Stop.builder()
+                .route(route)
+                .name("Terminal Bogotá")
+                .order(1)
+                .build();
+        Stop stopTunja = Stop.builder()
+                .route(route)
+                .name("Terminal Tunja")
+                .order(2)
+                .build();
+        entityManager.persist(stopBogota);
+        entityManager.persist(stopTunja);
+
+        Bus bus = Bus.builder()
+                .plate("GHI789")
+                .capacity(40)
+                .amenities(new HashMap<>())
+                .status(Bus.BusStatus.ACTIVE)
+                .build();
+        entityManager.persist(bus);
+
+        Trip trip = Trip.builder()
+                .route(route)
+                .bus(bus)
+                .tripDate(LocalDate.now())
+                .departureTime(LocalDateTime.now().plusHours(2))
+                .arrivalEta(LocalDateTime.now().plusHours(5))
+                .status(Trip.TripStatus.SCHEDULED)
+                .build();
+        entityManager.persist(trip);
+
+        parcel = parcel(trip, stopBogota, stopTunja, "PARC-E1");
+        otherParcel = parcel(trip, stopBogota, stopTunja, "PARC-E2");
+        entityManager.persist(parcel);
+        entityManager.persist(otherParcel);
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Debe retornar el historial de una encomienda en orden cronológico")
+    void shouldFindEventsByParcelInOrder() {
+        // Given
+        entityManager.persist(event(parcel, Parcel.ParcelStatus.CREATED, "Terminal Bogotá"));
+        entityManager.persist(event(otherParcel, Parcel.ParcelStatus.CREATED, "Terminal Bogotá"));
+        entityManager.persist(event(parcel, Parcel.ParcelStatus.IN_TRANSIT, "Terminal Bogotá"));
+        entityManager.persist(event(parcel, Parcel.ParcelStatus.DELIVERED, "Terminal Tunja"));
+        entityManager.flush();
+
+        // When
+        List<ParcelEvent> events = parcelEventRepository.findByParcelIdOrderByIdAsc(parcel.getId());
+
+        // Then
+        assertThat(events).extracting(ParcelEvent::getStatus)
+                .containsExactly(Parcel.ParcelStatus.CREATED, Parcel.ParcelStatus.IN_TRANSIT,
+                        Parcel.ParcelStatus.DELIVERED);
+        assertThat(events.get(2).getLocation()).isEqualTo("Terminal Tunja");
+    }
+
+    private Parcel parcel(Trip trip, Stop from, Stop to, String code) {
+        return Parcel.builder()
+                .code(code)
+                .trip(trip)
+                .senderName("Juan")
+                .senderPhone("3001234567")
+                .receiverName("María")
+                .receiverPhone("3007654321")
+                .fromStop(from)
+                .toStop(to)
+                .price(new BigDecimal("20000.00"))
+                .status(Parcel.ParcelStatus.CREATED)
+                .deliveryOtp("123456")
+                .build();
+    }
+
+    private ParcelEvent event(Parcel parcel, Parcel.ParcelStatus status, String location) {
+        return ParcelEvent.builder()
+                .parcel(parcel)
+                .status(status)
+                .location(location)
+                .build();
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -472,6 +473,193 @@ class ParcelRepositoryTest extends BaseRepositoryTest {
         assertThat(result).isEmpty();
     }
 
+    @Test
+    @DisplayName("Debe encontrar encomiendas pendientes con sus paradas para el manifiesto")
+    void shouldFindPendingParcelsWithStops() {
+        // Given
+        Parcel created = Parcel.builder()
+                .code("PARC-M1")
+                .trip(trip)
+                .senderName("Juan")
+                .senderPhone("3001234567")
+                .receiverName("María")
+                .receiverPhone("3007654321")
+                .fromStop(stopBogota)
+                .toStop(stopBucaramanga)
+                .price(new BigDecimal("30000.00"))
+                .status(Parcel.ParcelStatus.CREATED)
+                .deliveryOtp("111111")
+                .build();
+
+        Parcel inTransit = Parcel.builder()
+                .code("PARC-M2")
+                .trip(trip)
+                .senderName("Pedro")
+                .senderPhone("3002345678")
+                .receiverName("Ana")
+                .receiverPhone("3008765432")
+                .fromStop(stopBogota)
+                .toStop(stopTunja)
+                .price(new BigDecimal("20000.00"))
+                .status(Parcel.ParcelStatus.IN_TRANSIT)
+                .deliveryOtp("222222")
+                .build();
+
+        Parcel delivered = Parcel.builder()
+                .code("PARC-M3")
+                .trip(trip)
+                .senderName("Carlos")
+                .senderPhone("3003456789")
+                .receiverName("Laura")
+                .receiverPhone("3009876543")
+                .fromStop(stopBogota)
+                .toStop(stopTunja)
+                .price(new BigDecimal("20000.00"))
+                .status(Parcel.ParcelStatus.DELIVERED)
+                .deliveryOtp("333333")
+                .build();
+
+        entityManager.persist(created);
+        entityManager.persist(inTransit);
+        entityManager.persist(delivered);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<Parcel> pending = parcelRepository.findPendingParcelsWithStops(trip.getId());
+
+        // Then - ordenadas por parada de entrega y con las paradas ya cargadas
+        assertThat(pending).extracting(Parcel::getCode)
+                .containsExactly("PARC-M2", "PARC-M1");
+        assertThat(pending.get(0).getToStop().getName()).isEqualTo("Terminal Tunja");
+    }
+
+    @Test
+    @DisplayName("Debe cargar en bloque las encomiendas de una parada de origen")
+    void shouldTransitionParcelsLoadedAtStop() {
+        // Given
+        Parcel atBogota1 = Parcel.builder()
+                .code("PARC-B1")
+                .trip(trip)
+                .senderName("Juan")
+                .senderPhone("3001234567")
+                .receiverName("María")
+                .receiverPhone("3007654321")
+                .fromStop(stopBogota)
+                .toStop(stopTunja)
+                .price(new BigDecimal("20000.00"))
+                .status(Parcel.ParcelStatus.CREATED)
+                .deliveryOtp("111111")
+                .build();
+
+        Parcel atBogota2 = Parcel.builder()
+                .code("PARC-B2")
+                .trip(trip)
+                .senderName("Pedro")
+                .senderPhone("3002345678")
+                .receiverName("Ana")
+                .receiverPhone("3008765432")
+                .fromStop(stopBogota)
+                .toStop(stopBucaramanga)
+                .price(new BigDecimal("30000.00"))
+                .status(Parcel.ParcelStatus.CREATED)
+                .deliveryOtp("222222")
+                .build();
+
+        Parcel atTunja = Parcel.builder()
+                .code("PARC-B3")
+                .trip(trip)
+                .senderName("Carlos")
+                .senderPhone("3003456789")
+                .receiverName("Laura")
+                .receiverPhone("3009876543")
+                .fromStop(stopTunja)
+                .toStop(stopBucaramanga)
+                .price(new BigDecimal("25000.00"))
+                .status(Parcel.ParcelStatus.CREATED)
+                .deliveryOtp("333333")
+                .build();
+
+        entityManager.persist(atBogota1);
+        entityManager.persist(atBogota2);
+        entityManager.persist(atTunja);
+        entityManager.flush();
+
+        // When
+        List<Parcel> toLoad = parcelRepository.lockParcelsToLoadAtStop(trip.getId(), stopBogota.getId());
+        int updated = parcelRepository.updateStatusByIds(
+                toLoad.stream().map(Parcel::getId).toList(), Parcel.ParcelStatus.IN_TRANSIT, null);
+
+        // Then
+        assertThat(toLoad).extracting(Parcel::getCode).containsExactly("PARC-B1", "PARC-B2");
+        assertThat(updated).isEqualTo(2);
+        assertThat(parcelRepository.findInTransitParcelsByTrip(trip.getId()))
+                .extracting(Parcel::getCode)
+                .containsExactlyInAnyOrder("PARC-B1", "PARC-B2");
+    }
+
+    @Test
+    @DisplayName("Debe buscar por fragmento con coincidencias exactas primero")
+    void shouldSearchParcelsByFragmentOrderedByRelevance() {
+        // Given
+        Parcel exact = Parcel.builder()
+                .code("PARC-S1")
+                .trip(trip)
+                .senderName("Juan")
+                .senderPhone("3105550000")
+                .receiverName("María")
+                .receiverPhone("3007654321")
+                .fromStop(stopBogota)
+                .toStop(stopBucaramanga)
+                .price(new BigDecimal("20000.00"))
+                .status(Parcel.ParcelStatus.CREATED)
+                .build();
+
+        Parcel fragment = Parcel.builder()
+                .code("PARC-S2")
+                .trip(trip)
+                .senderName("Pedro")
+                .senderPhone("3203105550000")
+                .receiverName("Ana")
+                .receiverPhone("3008765432")
+                .fromStop(stopBogota)
+                .toStop(stopTunja)
+                .price(new BigDecimal("15000.00"))
+                .status(Parcel.ParcelStatus.CREATED)
+                .build();
+
+        Parcel unrelated = Parcel.builder()
+                .code("PARC-S3")
+                .trip(trip)
+                .senderName("Carlos")
+                .senderPhone("3001112233")
+                .receiverName("Laura")
+                .receiverPhone("3009876543")
+                .fromStop(stopTunja)
+                .toStop(stopBucaramanga)
+                .price(new BigDecimal("25000.00"))
+                .status(Parcel.ParcelStatus.CREATED)
+                .build();
+
+        entityManager.persist(fragment);
+        entityManager.persist(exact);
+        entityManager.persist(unrelated);
+        entityManager.flush();
+
+        // When
+        List<ParcelRepository.ParcelSearchHit> hits = parcelRepository.searchParcels(
+                "3105550000", "3105550000%", "%3105550000%", Limit.of(10));
+
+        // Then
+        assertThat(hits).extracting(ParcelRepository.ParcelSearchHit::getId)
+                .containsExactly(exact.getId(), fragment.getId());
+        assertThat(hits).extracting(ParcelRepository.ParcelSearchHit::getRank)
+                .containsExactly(0, 2);
+        assertThat(parcelRepository.findWithDetailsByIdIn(List.of(exact.getId())))
+                .extracting(Parcel::getCode)
+                .containsExactly("PARC-S1");
+    }
+
     @Test
     @DisplayName("Debe retornar lista vacía cuando no hay encomiendas en el viaje")
     void shouldReturnEmptyListWhenNoParcelsinTrip() {
@@ -0,0 +1,139 @@
+package com.web.repository;
+
+import com.web.entity.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RefundLedgerRepository Integration Tests")
+class RefundLedgerRepositoryTest extends BaseRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private RefundLedgerRepository refundLedgerRepository;
+    private Trip trip;
+    private User passenger;
+    private Stop stopBogota;
+    private Stop stopTunja;
+
+    @BeforeEach
+    void setUp() {
+        refundLedgerRepository = new RefundLedgerRepository(jdbcTemplate);
+
+        Route route = Route.builder()
+                .code("BOG-TUN")
+                .name("Bogotá - Tunja")
+                .origin("Bogotá")
+                .destination("Tunja")
+                .distanceKm(new BigDecimal("140.00"))
+                .durationMin(150)
+                .isActive(true)
+                .build();
+        entityManager.persist(route);
+
+        stopBogota = Stop.builder().route(route).name("Terminal Bogotá").order(1)
+                .latitude(new BigDecimal("4.6097")).longitude(new BigDecimal("-74.0817")).build();
+        stopTunja = Stop.builder().route(route).name("Terminal Tunja").order(2)
+                .latitude(new BigDecimal("5.5353")).longitude(new BigDecimal("-73.3678")).build();
+        entityManager.persist(stopBogota);
+        entityManager.persist(stopTunja);
+
+        Bus bus = Bus.builder()
+                .plate("REF123")
+                .capacity(40)
+                .amenities(new HashMap<>())
+                .status(Bus.BusStatus.ACTIVE)
+                .build();
+        entityManager.persist(bus);
+
+        passenger = User.builder()
+                .name("Laura Pasajera")
+                .email("laura@example.com")
+                .phone("3009876543")
+                .role(User.Role.PASSENGER)
+                .status(User.Status.ACTIVE)
+                .passwordHash("$2a$10$hashedpassword")
+                .build();
+        entityManager.persist(passenger);
+
+        trip = Trip.builder()
+                .route(route)
+                .bus(bus)
+                .tripDate(LocalDate.now())
+                .departureTime(LocalDateTime.now().plusDays(1))
+                .arrivalEta(LocalDateTime.now().plusDays(1).plusHours(3))
+                .status(Trip.TripStatus.SCHEDULED)
+                .build();
+        entityManager.persist(trip);
+    }
+
+    @Test
+    @DisplayName("Debe cancelar los tickets vendidos del viaje y reembolsarlos en una sentencia")
+    void shouldCancelTripTicketsAndRecordRefunds() {
+        // Given - dos vendidos y uno ya cancelado (no se reembolsa de nuevo)
+        entityManager.persist(ticket(1, "40000.00", Ticket.TicketStatus.SOLD, "QR-R1"));
+        entityManager.persist(ticket(2, "35000.50", Ticket.TicketStatus.SOLD, "QR-R2"));
+        entityManager.persist(ticket(3, "40000.00", Ticket.TicketStatus.CANCELLED, "QR-R3"));
+        entityManager.flush();
+
+        // When
+        RefundLedgerRepository.RefundBatch batch = refundLedgerRepository.cancelTripTickets(
+                trip.getId(), BigDecimal.valueOf(100), LocalDateTime.now());
+
+        // Then
+        assertThat(batch.tickets()).isEqualTo(2);
+        assertThat(batch.totalAmount()).isEqualByComparingTo("75000.50");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tickets WHERE trip_id = ? AND status = 'SOLD'", Integer.class, trip.getId()))
+                .isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM refunds WHERE trip_id = ? AND reason = 'TRIP_CANCELLED'", Integer.class, trip.getId()))
+                .isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Debe registrar el reembolso de un ticket con el porcentaje aplicado")
+    void shouldRecordTicketRefund() {
+        // Given
+        Ticket ticket = ticket(1, "40000.00", Ticket.TicketStatus.CANCELLED, "QR-R4");
+        entityManager.persist(ticket);
+        entityManager.flush();
+
+        // When
+        refundLedgerRepository.record(ticket.getId(), new BigDecimal("36000.00"), BigDecimal.valueOf(90),
+                RefundLedgerRepository.RefundReason.TICKET_CANCELLED, LocalDateTime.now());
+
+        // Then
+        BigDecimal amount = jdbcTemplate.queryForObject(
+                "SELECT amount FROM refunds WHERE ticket_id = ?", BigDecimal.class, ticket.getId());
+        assertThat(amount).isEqualByComparingTo("36000.00");
+    }
+
+    private Ticket ticket(int seatNumber, String price, Ticket.TicketStatus status, String qrCode) {
+        return Ticket.builder()
+                .trip(trip)
+                .passenger(passenger)
+                .seatNumber(seatNumber)
+                .fromStop(stopBogota)
+                .toStop(stopTunja)
+                .price(new BigDecimal(price))
+                .paymentMethod(Ticket.PaymentMethod.CASH)
+                .status(status)
+                .qrCode(qrCode)
+                .build();
+    }
+}
@@ -6,6 +6,8 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import com.web.dto.ticket.TicketSummaryResponse;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -335,6 +337,100 @@ class TicketRepositoryTest extends BaseRepositoryTest {
         assertThat(count).isEqualTo(5);
     }
 
+    @Test
+    @DisplayName("Debe contar asientos vendidos de varios viajes en una consulta")
+    void shouldCountSoldSeatsByTripIds() {
+        // Given - 3 vendidos y 1 cancelado; el asiento 1 se vende en dos tramos pero cuenta una vez
+        for (int i = 1; i <= 4; i++) {
+            Ticket ticket = Ticket.builder()
+                    .trip(trip)
+                    .passenger(passenger1)
+                    .seatNumber(i == 4 ? 1 : i)
+                    .fromStop(i == 4 ? stopTunja : stopBogota)
+                    .toStop(i == 4 ? stopBucaramanga : stopTunja)
+                    .price(new BigDecimal("30000.00"))
+                    .paymentMethod(Ticket.PaymentMethod.CASH)
+                    .status(i == 3 ? Ticket.TicketStatus.CANCELLED : Ticket.TicketStatus.SOLD)
+                    .qrCode("QR-G" + i)
+                    .build();
+            entityManager.persist(ticket);
+        }
+        entityManager.flush();
+
+        // When
+        List<Object[]> rows = ticketRepository.countSoldSeatsByTripIds(List.of(trip.getId(), -1L));
+
+        // Then - los viajes sin ventas no aparecen
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0)[0]).isEqualTo(trip.getId());
+        assertThat(rows.get(0)[1]).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Debe contar solo las sobreventas vendidas que se cruzan con el tramo")
+    void shouldCountOverbookedForSegment() {
+        // Given - sobreventa Bogotá-Tunja, sobreventa cancelada y venta normal
+        for (int i = 1; i <= 3; i++) {
+            entityManager.persist(Ticket.builder()
+                    .trip(trip)
+                    .passenger(passenger1)
+                    .seatNumber(1)
+                    .fromStop(stopBogota)
+                    .toStop(stopTunja)
+                    .price(new BigDecimal("30000.00"))
+                    .paymentMethod(Ticket.PaymentMethod.CASH)
+                    .status(i == 2 ? Ticket.TicketStatus.CANCELLED : Ticket.TicketStatus.SOLD)
+                    .overbooked(i < 3)
+                    .qrCode("QR-OB" + i)
+                    .build());
+        }
+        entityManager.flush();
+
+        // When
+        long firstSegment = ticketRepository.countOverbookedForSegment(trip.getId(), 1, 2);
+        long secondSegment = ticketRepository.countOverbookedForSegment(trip.getId(), 2, 3);
+
+        // Then
+        assertThat(firstSegment).isEqualTo(1);
+        assertThat(secondSegment).isZero();
+    }
+
+    @Test
+    @DisplayName("Debe traer tramos vendidos y holds vigentes de un viaje en una consulta")
+    void shouldFindSeatOccupancy() {
+        // Given - asiento 1 vendido Bogotá-Tunja, asiento 2 retenido, asiento 3 con hold vencido
+        entityManager.persist(Ticket.builder()
+                .trip(trip)
+                .passenger(passenger1)
+                .seatNumber(1)
+                .fromStop(stopBogota)
+                .toStop(stopTunja)
+                .price(new BigDecimal("30000.00"))
+                .paymentMethod(Ticket.PaymentMethod.CASH)
+                .status(Ticket.TicketStatus.SOLD)
+                .qrCode("QR-O1")
+                .build());
+        LocalDateTime now = LocalDateTime.now();
+        for (int seatNumber = 2; seatNumber <= 3; seatNumber++) {
+            entityManager.persist(SeatHold.builder()
+                    .trip(trip)
+                    .seatNumber(seatNumber)
+                    .user(passenger2)
+                    .expiresAt(seatNumber == 3 ? now.minusMinutes(1) : now.plusMinutes(10))
+                    .status(SeatHold.HoldStatus.HOLD)
+                    .build());
+        }
+        entityManager.flush();
+
+        // When
+        List<TicketRepository.SeatOccupancy> rows = ticketRepository.findSeatOccupancy(trip.getId(), now);
+
+        // Then - el tramo vendido trae los órdenes de parada, el hold no
+        assertThat(rows).hasSize(2);
+        assertThat(rows).anyMatch(row -> row.getSeatNumber() == 1 && row.getFromOrder() == 1 && row.getToOrder() == 2);
+        assertThat(rows).anyMatch(row -> row.getSeatNumber() == 2 && row.getFromOrder() == null);
+    }
+
     @Test
     @DisplayName("Debe encontrar tickets en una parada específica")
     void shouldFindTicketsAtStop() {
@@ -605,4 +701,92 @@ class TicketRepositoryTest extends BaseRepositoryTest {
         assertThat(noShowTickets).hasSize(1);
         assertThat(noShowTickets.get(0).getSeatNumber()).isEqualTo(5);
     }
+
+    @Test
+    @DisplayName("Debe paginar el historial del pasajero por keyset, más reciente primero")
+    void shouldPagePassengerHistoryByKeyset() {
+        // Given - 3 tickets del pasajero1 comprados en momentos distintos
+        LocalDateTime base = LocalDateTime.now().minusDays(1);
+        for (int i = 1; i <= 3; i++) {
+            Ticket ticket = Ticket.builder()
+                    .trip(trip)
+                    .passenger(passenger1)
+                    .seatNumber(i)
+                    .fromStop(stopBogota)
+                    .toStop(stopBucaramanga)
+                    .price(new BigDecimal("50000.00"))
+                    .paymentMethod(Ticket.PaymentMethod.CASH)
+                    .status(Ticket.TicketStatus.SOLD)
+                    .qrCode("QR-HIST-" + i)
+                    .purchasedAt(base.plusHours(i))
+                    .build();
+            entityManager.persist(ticket);
+        }
+        entityManager.flush();
+        LocalDateTime allHistory = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+        // When
+        List<TicketSummaryResponse> firstPage = ticketRepository.findPassengerHistory(
+                passenger1.getId(), allHistory, Limit.of(2));
+        TicketSummaryResponse last = firstPage.get(1);
+        List<TicketSummaryResponse> secondPage = ticketRepository.findPassengerHistoryAfter(
+                passenger1.getId(), allHistory, last.purchasedAt(), last.id(), Limit.of(2));
+
+        // Then
+        assertThat(firstPage).extracting(TicketSummaryResponse::seatNumber).containsExactly(3, 2);
+        assertThat(firstPage.get(0).routeName()).isEqualTo("Bogotá - Bucaramanga");
+        assertThat(firstPage.get(0).fromStopName()).isEqualTo("Terminal Bogotá");
+        assertThat(secondPage).extracting(TicketSummaryResponse::seatNumber).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("Debe filtrar solo viajes próximos en el historial del pasajero")
+    void shouldFilterUpcomingPassengerHistory() {
+        // Given - un ticket en viaje pasado y otro en viaje futuro
+        Trip pastTrip = Trip.builder()
+                .route(route)
+                .bus(trip.getBus())
+                .tripDate(LocalDate.now().minusDays(3))
+                .departureTime(LocalDateTime.now().minusDays(3))
+                .arrivalEta(LocalDateTime.now().minusDays(3).plusHours(7))
+                .status(Trip.TripStatus.ARRIVED)
+                .build();
+        entityManager.persist(pastTrip);
+
+        Ticket pastTicket = Ticket.builder()
+                .trip(pastTrip)
+                .passenger(passenger1)
+                .seatNumber(7)
+                .fromStop(stopBogota)
+                .toStop(stopTunja)
+                .price(new BigDecimal("25000.00"))
+                .paymentMethod(Ticket.PaymentMethod.CARD)
+                .status(Ticket.TicketStatus.SOLD)
+                .qrCode("QR-PAST")
+                .build();
+
+        Ticket upcomingTicket = Ticket.builder()
+                .trip(trip)
+                .passenger(passenger1)
+                .seatNumber(8)
+                .fromStop(stopBogota)
+                .toStop(stopTunja)
+                .price(new BigDecimal("25000.00"))
+                .paymentMethod(Ticket.PaymentMethod.CARD)
+                .status(Ticket.TicketStatus.SOLD)
+                .qrCode("QR-UPCOMING")
+                .build();
+
+        entityManager.persist(pastTicket);
+        entityManager.persist(upcomingTicket);
+        entityManager.flush();
+
+        // When
+        List<TicketSummaryResponse> upcoming = ticketRepository.findPassengerHistory(
+                passenger1.getId(), LocalDateTime.now(), Limit.of(10));
+
+        // Then
+        assertThat(upcoming).hasSize(1);
+        assertThat(upcoming.get(0).qrCode()).isEqualTo("QR-UPCOMING");
+    }
 }
@@ -1,6 +1,8 @@
 package com.web.repository;
 
+import com.web.dto.dispatch.Board.DispatchBoardRow;
 import com.web.entity.*;
+import com.web.util.QueryCounter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -10,6 +12,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
@@ -444,4 +447,88 @@ class TripRepositoryTest extends BaseRepositoryTest {
         // Then
         assertThat(avgOccupancy).isEqualTo(0.0);
     }
+
+    @Test
+    @DisplayName("Debe armar el tablero del despachador con asignación y conteos por viaje")
+    void shouldBuildDispatchBoard() {
+        // Given - trip1 asignado con 3 tickets vendidos y 1 cancelado
+        User passenger = User.builder()
+                .name("Laura Pasajera")
+                .email("laura@example.com")
+                .phone("3004567890")
+                .role(User.Role.PASSENGER)
+                .status(User.Status.ACTIVE)
+                .passwordHash("$2a$10$hashedpassword")
+                .build();
+        entityManager.persist(passenger);
+
+        for (int i = 1; i <= 4; i++) {
+            Ticket ticket = Ticket.builder()
+                    .trip(trip1)
+                    .passenger(passenger)
+                    .seatNumber(i)
+                    .fromStop(stopBogota)
+                    .toStop(stopBucaramanga)
+                    .price(new BigDecimal("50000.00"))
+                    .paymentMethod(Ticket.PaymentMethod.CASH)
+                    .status(i <= 3 ? Ticket.TicketStatus.SOLD : Ticket.TicketStatus.CANCELLED)
+                    .qrCode("QR-B" + i)
+                    .build();
+            entityManager.persist(ticket);
+        }
+        entityManager.persist(Assignment.builder().trip(trip1).driver(driver).dispatcher(dispatcher).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        // When - ventana de 3 horas: trip2 sale después
+        List<DispatchBoardRow> board = tripRepository.findDispatchBoard(
+                LocalDate.now().minusDays(1), LocalDateTime.now().plusHours(3));
+
+        // Then
+        assertThat(board).hasSize(1);
+        DispatchBoardRow row = board.get(0);
+        assertThat(row.tripId()).isEqualTo(trip1.getId());
+        assertThat(row.driverName()).isEqualTo(driver.getName());
+        assertThat(row.checklistOk()).isFalse();
+        assertThat(row.soldTickets()).isEqualTo(3L);
+        assertThat(row.pendingParcels()).isZero();
+        assertThat(tripRepository.findDispatchBoardChangeMarker()).isNotBlank();
+    }
+
+    @Test
+    @DisplayName("La búsqueda por ruta y fecha trae ruta y bus en la misma consulta")
+    void shouldLoadRouteAndBusWithTripList() {
+        // Given
+        entityManager.clear();
+
+        // When
+        QueryCounter.reset();
+        List<Trip> trips = tripRepository.findByRouteIdAndTripDate(route.getId(), LocalDate.now());
+        List<String> summary = trips.stream()
+                .map(trip -> trip.getRoute().getName() + " " + trip.getBus().getPlate() + " " + trip.getBus().getCapacity())
+                .toList();
+
+        // Then - lo que lee TripMapper.toResponse no genera consultas adicionales
+        assertThat(summary).hasSize(2);
+        assertThat(QueryCounter.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("El listado sin filtros también trae ruta y bus en la misma consulta")
+    void shouldLoadRouteAndBusWithUnfilteredTripList() {
+        // Given
+        entityManager.clear();
+
+        // When
+        QueryCounter.reset();
+        List<Trip> trips = tripRepository.findAllByOrderByDepartureTime();
+        List<String> summary = trips.stream()
+                .map(trip -> trip.getRoute().getName() + " " + trip.getBus().getPlate())
+                .toList();
+
+        // Then
+        assertThat(summary).isNotEmpty();
+        assertThat(trips).isSortedAccordingTo(Comparator.comparing(Trip::getDepartureTime));
+        assertThat(QueryCounter.count()).isEqualTo(1);
+    }
 }
@@ -0,0 +1,70 @@
+package com.web.repository;
+
+import com.web.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("UsedRefreshTokenRepository Integration Tests")
+class UsedRefreshTokenRepositoryTest extends BaseRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UsedRefreshTokenRepository usedRefreshTokenRepository;
+    private User passenger;
+
+    @BeforeEach
+    void setUp() {
+        usedRefreshTokenRepository = new UsedRefreshTokenRepository(jdbcTemplate);
+
+        passenger = User.builder()
+                .name("Laura Pasajera")
+                .email("laura@example.com")
+                .phone("3009876543")
+                .role(User.Role.PASSENGER)
+                .status(User.Status.ACTIVE)
+                .passwordHash("$2a$10$hashedpassword")
+                .build();
+        entityManager.persist(passenger);
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Debe canjear cada jti una sola vez y sin afectar otras sesiones")
+    void shouldConsumeEachTokenIdOnce() {
+        // Given
+        LocalDateTime expiresAt = LocalDateTime.now().plusDays(7);
+
+        // When / Then
+        assertThat(usedRefreshTokenRepository.consume("jti-movil", passenger.getId(), expiresAt)).isTrue();
+        assertThat(usedRefreshTokenRepository.consume("jti-movil", passenger.getId(), expiresAt)).isFalse();
+        assertThat(usedRefreshTokenRepository.consume("jti-web", passenger.getId(), expiresAt)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Debe borrar solo los registros de tokens expirados")
+    void shouldDeleteExpiredTokenIds() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        usedRefreshTokenRepository.consume("jti-vencido", passenger.getId(), now.minusMinutes(1));
+        usedRefreshTokenRepository.consume("jti-vigente", passenger.getId(), now.plusDays(1));
+
+        // When
+        int deleted = usedRefreshTokenRepository.deleteExpiredBefore(now);
+
+        // Then
+        assertThat(deleted).isEqualTo(1);
+        assertThat(usedRefreshTokenRepository.consume("jti-vigente", passenger.getId(), now.plusDays(1))).isFalse();
+    }
+}
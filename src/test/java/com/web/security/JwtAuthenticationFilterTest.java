@@ -0,0 +1,89 @@
+package com.web.security;
+
+import com.web.entity.User;
+import com.web.util.JwtTokenProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("JwtAuthenticationFilter Unit Tests")
+class JwtAuthenticationFilterTest {
+
+    private final JwtTokenProvider jwtTokenProvider = new JwtTokenProvider("test-secret", 900000, 604800000);
+    private final TokenRevocationCache tokenRevocationCache = new TokenRevocationCache(60000);
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtTokenProvider, tokenRevocationCache);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Debe autenticar con el rol de los claims sin consultar la BD")
+    void shouldAuthenticateActiveUser() throws Exception {
+        // When
+        Authentication authentication = filter(jwtTokenProvider.generateToken(user(User.Status.ACTIVE)));
+
+        // Then
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_CLERK");
+    }
+
+    @Test
+    @DisplayName("No debe autenticar un token emitido con estado inactivo")
+    void shouldNotAuthenticateInactiveUser() throws Exception {
+        // When / Then
+        assertThat(filter(jwtTokenProvider.generateToken(user(User.Status.INACTIVE)))).isNull();
+    }
+
+    @Test
+    @DisplayName("No debe autenticar a un usuario desactivado después de emitir su token")
+    void shouldNotAuthenticateRevokedUser() throws Exception {
+        // Given
+        String token = jwtTokenProvider.generateToken(user(User.Status.ACTIVE));
+        tokenRevocationCache.revoke(7L);
+
+        // When / Then
+        assertThat(filter(token)).isNull();
+    }
+
+    @Test
+    @DisplayName("No debe autenticar con un token inválido y debe seguir la cadena")
+    void shouldContinueChainWithInvalidToken() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer no-es-un-jwt");
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+
+    private Authentication filter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static User user(User.Status status) {
+        return User.builder()
+                .id(7L)
+                .email("carlos@example.com")
+                .role(User.Role.CLERK)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,44 @@
+package com.web.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TokenRevocationCache Unit Tests")
+class TokenRevocationCacheTest {
+
+    @Test
+    @DisplayName("Debe revocar y restaurar un usuario")
+    void shouldRevokeAndRestore() {
+        // Given
+        TokenRevocationCache cache = new TokenRevocationCache(60000);
+
+        // When
+        cache.revoke(7L);
+
+        // Then
+        assertThat(cache.isRevoked(7L)).isTrue();
+        assertThat(cache.isRevoked(8L)).isFalse();
+
+        // When
+        cache.restore(7L);
+
+        // Then
+        assertThat(cache.isRevoked(7L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Debe dejar de revocar cuando los tokens ya expiraron")
+    void shouldExpireRevocationWithTokenTtl() {
+        // Given - los tokens emitidos ya habrían expirado
+        TokenRevocationCache cache = new TokenRevocationCache(-1);
+        cache.revoke(7L);
+
+        // When
+        cache.purgeExpired();
+
+        // Then
+        assertThat(cache.isRevoked(7L)).isFalse();
+    }
+}
@@ -0,0 +1,156 @@
+package com.web.service.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.web.dto.catalog.Route.RouteDetailResponse;
+import com.web.dto.catalog.Route.RouteResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Caché de respuestas del catálogo sin transacción activa: las invalidaciones se aplican de inmediato
+@DisplayName("CatalogResponseCache Unit Tests")
+class CatalogResponseCacheTest {
+
+    private CatalogResponseCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = cache(300);
+    }
+
+    @Test
+    @DisplayName("Debe servir desde el caché y responder 304 si el cliente ya tiene la versión")
+    void shouldServeFromCacheAndAnswerNotModified() {
+        // When
+        ResponseEntity<List<RouteResponse>> first = cache.routes(this::loadRoutes)
+                .toResponse(null, null, cache.routesCacheControl());
+        String eTag = first.getHeaders().getETag();
+        ResponseEntity<List<RouteResponse>> second = cache.routes(this::loadRoutes)
+                .toResponse(eTag, null, cache.routesCacheControl());
+
+        // Then
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getBody()).hasSize(1);
+        assertThat(eTag).startsWith("\"");
+        assertThat(first.getHeaders().getCacheControl()).contains("max-age=300");
+        assertThat(first.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT);
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(second.getBody()).isNull();
+        assertThat(second.getHeaders().getETag()).isEqualTo(eTag);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Debe usar un ETag distinto para JSON y CBOR")
+    void shouldUseOneETagPerRepresentation() {
+        // Given
+        CatalogResponseCache.CachedResponse<List<RouteResponse>> cached = cache.routes(this::loadRoutes);
+
+        // When
+        ResponseEntity<List<RouteResponse>> json = cached.toResponse(null, "application/json", cache.routesCacheControl());
+        ResponseEntity<List<RouteResponse>> cbor = cached.toResponse(null, "application/cbor", cache.routesCacheControl());
+        ResponseEntity<List<RouteResponse>> cborWithJsonETag = cached.toResponse(
+                json.getHeaders().getETag(), "application/cbor", cache.routesCacheControl());
+
+        // Then - el ETag de una representación no valida la otra
+        assertThat(json.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(cbor.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(cbor.getHeaders().getETag()).isNotEqualTo(json.getHeaders().getETag());
+        assertThat(cborWithJsonETag.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    @DisplayName("Debe elegir CBOR solo cuando el cliente lo prefiere")
+    void shouldNegotiateRepresentation() {
+        assertThat(CatalogResponseCache.negotiate(null)).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(CatalogResponseCache.negotiate("*/*")).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(CatalogResponseCache.negotiate("application/cbor")).isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(CatalogResponseCache.negotiate("application/json;q=0.5, application/cbor"))
+                .isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(CatalogResponseCache.negotiate("application/cbor;q=0.5, application/json"))
+                .isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(CatalogResponseCache.negotiate("no es un tipo")).isEqualTo(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    @DisplayName("Debe recargar tras invalidar y conservar las rutas no afectadas")
+    void shouldReloadAfterEviction() {
+        // Given
+        cache.routes(this::loadRoutes);
+        cache.route(1L, () -> loadRoute(1L));
+        cache.route(2L, () -> loadRoute(2L));
+
+        // When
+        cache.evictRoute(1L);
+        cache.routes(this::loadRoutes);
+        cache.route(1L, () -> loadRoute(1L));
+        cache.route(2L, () -> loadRoute(2L));
+
+        // Then - se recargan el listado y la ruta 1; la ruta 2 sigue en caché
+        assertThat(loads).hasValue(5);
+    }
+
+    @Test
+    @DisplayName("Debe descartar una carga que empezó antes de una invalidación")
+    void shouldNotStoreLoadStartedBeforeEviction() {
+        // Given - la escritura se confirma mientras se carga la versión anterior
+        cache.routes(() -> {
+            List<RouteResponse> stale = loadRoutes();
+            cache.evictRoutes();
+            return stale;
+        });
+
+        // When
+        cache.routes(this::loadRoutes);
+
+        // Then
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Debe recargar las rutas vencido el TTL aunque no haya invalidación")
+    void shouldExpireRoutesAfterTtl() {
+        // Given - otra instancia escribió: aquí no llega la invalidación
+        CatalogResponseCache expiring = cache(0);
+
+        // When
+        expiring.routes(this::loadRoutes);
+        expiring.routes(this::loadRoutes);
+
+        // Then
+        assertThat(loads).hasValue(2);
+    }
+
+    private List<RouteResponse> loadRoutes() {
+        loads.incrementAndGet();
+        return List.of(route(1L));
+    }
+
+    private RouteDetailResponse loadRoute(Long id) {
+        loads.incrementAndGet();
+        return new RouteDetailResponse(id, "BOG-BGA", "Bogotá - Bucaramanga", "Bogotá", "Bucaramanga",
+                new BigDecimal("400.00"), 480, true, List.of());
+    }
+
+    private static RouteResponse route(Long id) {
+        return new RouteResponse(id, "BOG-BGA", "Bogotá - Bucaramanga", "Bogotá", "Bucaramanga",
+                new BigDecimal("400.00"), 480, true);
+    }
+
+    private static CatalogResponseCache cache(long routeTtlSeconds) {
+        return new CatalogResponseCache(new ObjectMapper(), new MappingJackson2CborHttpMessageConverter(),
+                100, 300, routeTtlSeconds, 30);
+    }
+}
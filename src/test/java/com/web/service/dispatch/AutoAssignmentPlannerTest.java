@@ -0,0 +1,117 @@
+package com.web.service.dispatch;
+
+import com.web.service.dispatch.AutoAssignmentPlanner.Slot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Greedy best-fit por día: descanso mínimo de 60 min y tope de 600 min de conducción diaria
+@DisplayName("AutoAssignmentPlanner Unit Tests")
+class AutoAssignmentPlannerTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2026, 11, 2, 0, 0);
+
+    private final AutoAssignmentPlanner planner = new AutoAssignmentPlanner(Duration.ofMinutes(60), 600);
+
+    @Test
+    @DisplayName("Debe dar cada viaje al conductor libre más tarde que respeta el descanso")
+    void shouldAssignBestFitDriver() {
+        // Given
+        List<Slot> trips = List.of(
+                slot(1L, 6, 0, 120),     // 06:00 - 08:00
+                slot(2L, 6, 30, 150),    // 06:30 - 09:00
+                slot(3L, 10, 0, 120));   // 10:00 - 12:00
+
+        // When
+        Map<Long, Long> plan = planner.plan(trips, List.of(100L, 200L), Map.of());
+
+        // Then - el viaje 3 va al conductor libre desde las 09:00, no al libre desde las 08:00
+        assertThat(plan).containsExactlyInAnyOrderEntriesOf(Map.of(1L, 100L, 2L, 200L, 3L, 200L));
+    }
+
+    @Test
+    @DisplayName("Debe dejar sin asignar un viaje que no respeta el descanso mínimo")
+    void shouldRespectMinimumRest() {
+        // Given
+        List<Slot> trips = List.of(
+                slot(1L, 6, 0, 120),     // 06:00 - 08:00
+                slot(2L, 8, 30, 90),     // 30 min de descanso
+                slot(3L, 9, 0, 60));     // justo 60 min de descanso
+
+        // When
+        Map<Long, Long> plan = planner.plan(trips, List.of(100L), Map.of());
+
+        // Then
+        assertThat(plan).containsExactlyInAnyOrderEntriesOf(Map.of(1L, 100L, 3L, 100L));
+    }
+
+    @Test
+    @DisplayName("Debe respetar el tope diario sumando los viajes ya asignados")
+    void shouldRespectDailyDrivingCap() {
+        // Given - 300 + 300 min ya llenan el día del único conductor
+        List<Slot> trips = List.of(
+                slot(1L, 5, 0, 300),
+                slot(2L, 11, 0, 300),
+                slot(3L, 18, 0, 60));
+
+        // When
+        Map<Long, Long> plan = planner.plan(trips, List.of(100L), Map.of());
+
+        // Then
+        assertThat(plan).containsOnlyKeys(1L, 2L);
+
+        // Given - el conductor 100 ya tiene 480 min asignados ese día
+        Map<Long, List<Slot>> committed = Map.of(100L, List.of(slot(90L, 0, 0, 480)));
+
+        // When
+        Map<Long, Long> withCommitted = planner.plan(List.of(slot(4L, 12, 0, 180)), List.of(100L, 200L), committed);
+
+        // Then
+        assertThat(withCommitted).containsExactlyEntriesOf(Map.of(4L, 200L));
+    }
+
+    @Test
+    @DisplayName("Debe descartar conductores con un viaje ya asignado que choca, incluso del día anterior")
+    void shouldSkipDriversWithClashingCommittedTrips() {
+        // Given - el 100 maneja de 10:00 a 12:00 y el 200 llega a la 01:00 de un viaje nocturno
+        Map<Long, List<Slot>> committed = Map.of(
+                100L, List.of(slot(90L, 10, 0, 120)),
+                200L, List.of(new Slot(91L, DAY.minusHours(2), DAY.plusHours(1))));
+        List<Slot> trips = List.of(
+                slot(1L, 1, 30, 90),     // 01:30, sin descanso para el 200
+                slot(2L, 12, 30, 60));   // 12:30, sin descanso para el 100
+
+        // When - el 200 se evalúa primero en ambos viajes
+        Map<Long, Long> plan = planner.plan(trips, List.of(200L, 100L), committed);
+
+        // Then
+        assertThat(plan).containsExactlyInAnyOrderEntriesOf(Map.of(1L, 100L, 2L, 200L));
+    }
+
+    @Test
+    @DisplayName("Debe liberar el viaje del día siguiente que choca con uno que termina después de medianoche")
+    void shouldReconcileTripsEndingAfterMidnight() {
+        // Given - el viaje 1 sale a las 22:00 y llega a las 02:00 del día siguiente
+        List<Slot> trips = List.of(
+                new Slot(1L, DAY.plusHours(22), DAY.plusDays(1).plusHours(2)),
+                new Slot(2L, DAY.plusDays(1).plusHours(2).plusMinutes(30), DAY.plusDays(1).plusHours(4)),
+                new Slot(3L, DAY.plusDays(1).plusHours(5), DAY.plusDays(1).plusHours(6)));
+
+        // When - cada día se planifica por separado y el 100 recibe los tres
+        Map<Long, Long> plan = planner.plan(trips, List.of(100L), Map.of());
+
+        // Then - el 2 sale sin descanso tras el nocturno; el 3 sí lo respeta
+        assertThat(plan).containsExactlyInAnyOrderEntriesOf(Map.of(1L, 100L, 3L, 100L));
+    }
+
+    private static Slot slot(Long tripId, int hour, int minute, int durationMinutes) {
+        LocalDateTime start = DAY.plusHours(hour).plusMinutes(minute);
+        return new Slot(tripId, start, start.plusMinutes(durationMinutes));
+    }
+}
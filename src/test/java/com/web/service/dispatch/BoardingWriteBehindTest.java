@@ -0,0 +1,152 @@
+package com.web.service.dispatch;
+
+import com.web.entity.Incident;
+import com.web.service.incident.IncidentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Escritura en lote de boarded_at: ciclos acotados, corte ante fallos y abordajes repetidos entre instancias
+@DisplayName("BoardingWriteBehind Unit Tests")
+class BoardingWriteBehindTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private IncidentService incidentService;
+    private BoardingWriteBehind writeBehind;
+    private final List<Integer> writtenBatchSizes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        incidentService = mock(IncidentService.class);
+        writeBehind = new BoardingWriteBehind(jdbcTemplate, incidentService);
+    }
+
+    @Test
+    @DisplayName("Debe escribir en lotes de 500 todo lo encolado")
+    void shouldWriteInBatches() {
+        // Given
+        acceptAll();
+        enqueue(1, 1200);
+
+        // When
+        writeBehind.flush();
+
+        // Then
+        assertThat(writtenBatchSizes).containsExactly(500, 500, 200);
+    }
+
+    @Test
+    @DisplayName("Debe dejar para el siguiente ciclo lo encolado durante la escritura")
+    void shouldNotDrainScansQueuedDuringFlush() {
+        // Given - cada escritura trae un escaneo nuevo, como una puerta que no para
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    Collection<?> batch = invocation.getArgument(1);
+                    writtenBatchSizes.add(batch.size());
+                    writeBehind.enqueue(9000L + writtenBatchSizes.size(), LocalDateTime.now());
+                    return counts(batch.size());
+                });
+        enqueue(1, 3);
+
+        // When
+        writeBehind.flush();
+
+        // Then - el ciclo termina con lo que había al empezar
+        assertThat(writtenBatchSizes).containsExactly(3);
+
+        // When
+        writeBehind.flush();
+
+        // Then
+        assertThat(writtenBatchSizes).containsExactly(3, 1);
+    }
+
+    @Test
+    @DisplayName("Debe cortar el ciclo en el primer lote fallido y conservar lo pendiente")
+    void shouldStopOnFailedBatchAndRetryLater() {
+        // Given - la BD cae en el primer lote
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    writtenBatchSizes.add(((Collection<?>) invocation.getArgument(1)).size());
+                    throw new DataAccessResourceFailureException("BD no disponible");
+                });
+        enqueue(1, 1200);
+
+        // When
+        writeBehind.flush();
+
+        // Then - un solo intento en este ciclo
+        assertThat(writtenBatchSizes).containsExactly(500);
+
+        // When - la BD vuelve
+        writtenBatchSizes.clear();
+        acceptAll();
+        writeBehind.flush();
+
+        // Then - no se perdió ningún escaneo
+        assertThat(writtenBatchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(1200);
+    }
+
+    @Test
+    @DisplayName("Debe reportar un incidente si el ticket ya estaba abordado por otra instancia")
+    void shouldReportTicketBoardedOnAnotherInstance() {
+        // Given - el segundo ticket ya tenía boarded_at con otro valor
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{1, 0}});
+        writeBehind.enqueue(1L, LocalDateTime.now());
+        writeBehind.enqueue(2L, LocalDateTime.now());
+
+        // When
+        writeBehind.flush();
+
+        // Then
+        verify(incidentService).record(eq(Incident.EntityType.TICKET), eq(2L), eq(Incident.IncidentType.SECURITY),
+                contains("ya estaba registrado"), isNull());
+        verify(incidentService, never()).record(any(), eq(1L), any(), any(), any());
+    }
+
+    private void acceptAll() {
+        doAnswer(invocation -> {
+            Collection<?> batch = invocation.getArgument(1);
+            writtenBatchSizes.add(batch.size());
+            return counts(batch.size());
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    private void enqueue(long firstTicketId, int count) {
+        LocalDateTime now = LocalDateTime.now();
+        for (long id = firstTicketId; id < firstTicketId + count; id++) {
+            writeBehind.enqueue(id, now);
+        }
+    }
+
+    private static int[][] counts(int size) {
+        int[] chunk = new int[size];
+        Arrays.fill(chunk, 1);
+        return new int[][]{chunk};
+    }
+}
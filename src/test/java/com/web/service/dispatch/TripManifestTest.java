@@ -0,0 +1,105 @@
+package com.web.service.dispatch;
+
+import com.web.dto.dispatch.Manifest.ManifestTicketEntry;
+import com.web.entity.Stop;
+import com.web.entity.Ticket;
+import com.web.exception.BusinessException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Validación del escaneo en puerta contra el manifiesto en memoria
+@DisplayName("TripManifest Unit Tests")
+class TripManifestTest {
+
+    private static final Long ORIGIN_STOP_ID = 10L;
+    private static final Long MIDDLE_STOP_ID = 11L;
+
+    private TripManifest manifest;
+
+    @BeforeEach
+    void setUp() {
+        List<Stop> stops = List.of(
+                Stop.builder().id(ORIGIN_STOP_ID).name("Bogotá").order(1).build(),
+                Stop.builder().id(MIDDLE_STOP_ID).name("Tunja").order(2).build(),
+                Stop.builder().id(12L).name("Bucaramanga").order(3).build());
+        manifest = new TripManifest(1L, 2, stops);
+        manifest.loadTicket(ticket(100L, "qr-100", ORIGIN_STOP_ID, 1, Ticket.TicketStatus.SOLD), null);
+        manifest.loadTicket(ticket(101L, "qr-101", ORIGIN_STOP_ID, 1, Ticket.TicketStatus.SOLD), null);
+        manifest.loadTicket(ticket(102L, "qr-102", ORIGIN_STOP_ID, 1, Ticket.TicketStatus.SOLD), null);
+        manifest.loadTicket(ticket(103L, "qr-103", MIDDLE_STOP_ID, 2, Ticket.TicketStatus.CANCELLED), null);
+    }
+
+    @Test
+    @DisplayName("Debe registrar el abordaje y rechazar un segundo escaneo del mismo QR")
+    void shouldRejectDuplicateScan() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+
+        // When
+        ManifestTicketEntry entry = manifest.board("qr-100", ORIGIN_STOP_ID, now);
+
+        // Then
+        assertThat(entry.ticketId()).isEqualTo(100L);
+        assertThat(manifest.boardedTicketIds()).containsExactly(100L);
+        assertThatThrownBy(() -> manifest.board("qr-100", ORIGIN_STOP_ID, now.plusMinutes(1)))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("ya abordó");
+    }
+
+    @Test
+    @DisplayName("Debe considerar abordados los tickets cargados con boarded_at")
+    void shouldRejectScanOfTicketLoadedAsBoarded() {
+        // Given - tras un reinicio el manifiesto se reconstruye con lo ya persistido
+        manifest.loadTicket(ticket(104L, "qr-104", ORIGIN_STOP_ID, 1, Ticket.TicketStatus.SOLD),
+                LocalDateTime.now().minusMinutes(5));
+
+        // When / Then
+        assertThatThrownBy(() -> manifest.board("qr-104", ORIGIN_STOP_ID, LocalDateTime.now()))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("ya abordó");
+    }
+
+    @Test
+    @DisplayName("Debe rechazar QR ajenos, tickets no vendidos y paradas equivocadas sin marcar abordaje")
+    void shouldRejectInvalidScans() {
+        // When / Then
+        assertThatThrownBy(() -> manifest.board("qr-otro-viaje", ORIGIN_STOP_ID, LocalDateTime.now()))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("no corresponde");
+        assertThatThrownBy(() -> manifest.board("qr-103", MIDDLE_STOP_ID, LocalDateTime.now()))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("no es válido");
+        assertThatThrownBy(() -> manifest.board("qr-101", MIDDLE_STOP_ID, LocalDateTime.now()))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("no aborda en esta parada");
+        assertThat(manifest.boardedTicketIds()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Debe contar los abordados por encima de la capacidad del bus")
+    void shouldReportExcessLoad() {
+        // Given - bus de 2 asientos
+        LocalDateTime now = LocalDateTime.now();
+        manifest.board("qr-100", ORIGIN_STOP_ID, now);
+        manifest.board("qr-101", ORIGIN_STOP_ID, now);
+        assertThat(manifest.excessLoad(1)).isZero();
+
+        // When
+        manifest.board("qr-102", ORIGIN_STOP_ID, now);
+
+        // Then
+        assertThat(manifest.excessLoad(1)).isEqualTo(1);
+    }
+
+    private static ManifestTicketEntry ticket(Long id, String qrHash, Long fromStopId, int fromStopOrder,
+                                              Ticket.TicketStatus status) {
+        return new ManifestTicketEntry(id, id.intValue() - 99, fromStopId, fromStopOrder, 3, qrHash, status, 0L);
+    }
+}
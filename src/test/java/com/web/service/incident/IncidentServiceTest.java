@@ -0,0 +1,174 @@
+package com.web.service.incident;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.web.dto.admin.IncidentCountResponse;
+import com.web.entity.Incident;
+import com.web.repository.BaseRepositoryTest;
+import com.web.repository.IncidentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Cola, fallback síncrono, respaldo en archivo y contadores por hora contra la BD real.
+// Cada lote se confirma en su propia transacción: el test no corre dentro de una y limpia al final
+@DisplayName("IncidentService Integration Tests")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IncidentServiceTest extends BaseRepositoryTest {
+
+    @Autowired
+    private IncidentRepository incidentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM incidents");
+        jdbcTemplate.update("DELETE FROM incident_hourly_counts");
+    }
+
+    @Test
+    @DisplayName("Debe encolar sin escribir y escribir incidentes y contadores al vaciar")
+    void shouldQueueAndWriteOnFlush() {
+        // Given
+        IncidentServiceImpl incidentService = service(jdbcTemplate, 10);
+
+        // When
+        incidentService.record(Incident.EntityType.TRIP, 1L, Incident.IncidentType.OVERBOOK, "Sobrecupo", null);
+        incidentService.record(Incident.EntityType.TRIP, 2L, Incident.IncidentType.OVERBOOK, "Sobrecupo", null);
+        incidentService.record(Incident.EntityType.PARCEL, 3L, Incident.IncidentType.DELIVERY_FAIL, "OTP inválido", null);
+
+        // Then - nada llega a la BD hasta el flush
+        assertThat(countIncidents()).isZero();
+
+        // When
+        incidentService.flush();
+
+        // Then
+        assertThat(countIncidents()).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT SUM(incident_count) FROM incident_hourly_counts WHERE incident_type = 'OVERBOOK'", Long.class))
+                .isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Debe insertar de forma síncrona cuando la cola sigue llena tras la espera")
+    void shouldInsertSynchronouslyWhenQueueIsFull() {
+        // Given - cola de un solo lugar
+        IncidentServiceImpl incidentService = service(jdbcTemplate, 1);
+        incidentService.record(Incident.EntityType.TRIP, 1L, Incident.IncidentType.VEHICLE, "Llanta", null);
+
+        // When
+        incidentService.record(Incident.EntityType.TRIP, 2L, Incident.IncidentType.VEHICLE, "Frenos", null);
+
+        // Then - el segundo no esperó al flush
+        assertThat(countIncidents()).isEqualTo(1);
+        incidentService.flush();
+        assertThat(countIncidents()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Debe guardar el lote en archivo si la BD falla y reprocesarlo en el siguiente ciclo")
+    void shouldSpoolOnFailureAndReplay() throws SQLException {
+        // Given - una instancia sin BD y otra con BD que comparten el archivo de respaldo
+        DataSource unavailable = mock(DataSource.class);
+        when(unavailable.getConnection()).thenThrow(new SQLException("BD no disponible"));
+        IncidentServiceImpl failing = service(new JdbcTemplate(unavailable), 10);
+        IncidentServiceImpl healthy = service(jdbcTemplate, 10);
+        failing.record(Incident.EntityType.TRIP, 1L, Incident.IncidentType.SECURITY, "Puerta forzada", null);
+
+        // When
+        failing.flush();
+
+        // Then
+        assertThat(countIncidents()).isZero();
+        assertThat(spoolFile()).exists();
+
+        // When
+        healthy.flush();
+
+        // Then
+        assertThat(countIncidents()).isEqualTo(1);
+        assertThat(spoolFile()).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Debe contar horas completas desde los contadores y las fracciones desde incidents")
+    void shouldCountFullHoursFromCountersAndEdgesFromIncidents() throws Exception {
+        // Given - incidentes en horas conocidas, cargados por el respaldo para fijar created_at
+        LocalDateTime day = LocalDate.now().minusDays(2).atStartOfDay();
+        spool(
+                incident(Incident.IncidentType.OVERBOOK, day.plusHours(10).plusMinutes(10)),   // antes del rango
+                incident(Incident.IncidentType.OVERBOOK, day.plusHours(10).plusMinutes(45)),   // fracción inicial
+                incident(Incident.IncidentType.OVERBOOK, day.plusHours(11).plusMinutes(30)),   // hora completa
+                incident(Incident.IncidentType.VEHICLE, day.plusHours(12).plusMinutes(50)),    // hora completa
+                incident(Incident.IncidentType.VEHICLE, day.plusHours(13).plusMinutes(10)),    // fracción final
+                incident(Incident.IncidentType.VEHICLE, day.plusHours(13).plusMinutes(40)));   // después del rango
+        IncidentServiceImpl incidentService = service(jdbcTemplate, 10);
+        incidentService.flush();
+
+        // When
+        IncidentCountResponse response = incidentService.countIncidentsByType(
+                day.plusHours(10).plusMinutes(30), day.plusHours(13).plusMinutes(30));
+
+        // Then
+        assertThat(response.total()).isEqualTo(4L);
+        assertThat(response.countsByType())
+                .containsEntry(Incident.IncidentType.OVERBOOK, 2L)
+                .containsEntry(Incident.IncidentType.VEHICLE, 2L)
+                .containsEntry(Incident.IncidentType.SECURITY, 0L);
+    }
+
+    private IncidentServiceImpl service(JdbcTemplate template, int queueCapacity) {
+        return new IncidentServiceImpl(incidentRepository, template, objectMapper, transactionManager,
+                queueCapacity, 1, 200, spoolFile().toString());
+    }
+
+    private Path spoolFile() {
+        return tempDir.resolve("incidents-spool.jsonl");
+    }
+
+    private void spool(IncidentServiceImpl.PendingIncident... incidents) throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (IncidentServiceImpl.PendingIncident incident : incidents) {
+            lines.add(objectMapper.writeValueAsString(incident));
+        }
+        Files.write(spoolFile(), lines, StandardCharsets.UTF_8);
+    }
+
+    private static IncidentServiceImpl.PendingIncident incident(Incident.IncidentType type, LocalDateTime createdAt) {
+        return new IncidentServiceImpl.PendingIncident(Incident.EntityType.TRIP, 1L, type, null, null, createdAt);
+    }
+
+    private int countIncidents() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM incidents", Integer.class);
+    }
+}
@@ -0,0 +1,143 @@
+package com.web.service.parcel;
+
+import com.web.dto.parcel.CargoSegmentResponse;
+import com.web.entity.Parcel;
+import com.web.entity.Stop;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Lógica pura del libro de carga: tramos [origen, destino), reversa y exceso de capacidad
+@DisplayName("TripCargoLedger Unit Tests")
+class TripCargoLedgerTest {
+
+    private Stop bogota;
+    private Stop tunja;
+    private Stop duitama;
+    private Stop bucaramanga;
+    private TripCargoLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        bogota = stop(10L, "Bogotá", 1);
+        tunja = stop(11L, "Tunja", 2);
+        duitama = stop(12L, "Duitama", 3);
+        bucaramanga = stop(13L, "Bucaramanga", 4);
+        // 100 kg de bodega, con 20 kg ya comprometidos en Tunja -> Duitama
+        ledger = new TripCargoLedger(1L, 5L, new BigDecimal("100.00"),
+                List.of(bogota, tunja, duitama, bucaramanga), Map.of(2, new BigDecimal("20.00")));
+    }
+
+    @Test
+    @DisplayName("Debe sumar el peso solo en los tramos entre origen y destino")
+    void shouldComputeDeltaOverHalfOpenInterval() {
+        // When
+        long[] delta = ledger.deltaFor(List.of(
+                parcel(bogota, duitama, "12.50"),
+                parcel(tunja, bucaramanga, "3.00")));
+
+        // Then - en centésimas de kg; el tramo que termina en el destino no se toca
+        assertThat(delta).containsExactly(1250, 1550, 300);
+        assertThat(ledger.toSegmentDeltas(delta))
+                .containsExactly(
+                        Map.entry(1, new BigDecimal("12.50")),
+                        Map.entry(2, new BigDecimal("15.50")),
+                        Map.entry(3, new BigDecimal("3.00")));
+    }
+
+    @Test
+    @DisplayName("Debe ignorar encomiendas sin peso")
+    void shouldIgnoreParcelsWithoutWeight() {
+        // When
+        long[] delta = ledger.deltaFor(List.of(parcel(bogota, bucaramanga, null)));
+
+        // Then
+        assertThat(ledger.toSegmentDeltas(delta)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Debe detectar paradas que no están en el libro")
+    void shouldNotCoverUnknownStops() {
+        // Given
+        Stop added = stop(99L, "Socorro", 5);
+
+        // When / Then
+        assertThat(ledger.covers(List.of(parcel(bogota, bucaramanga, "1.00")))).isTrue();
+        assertThat(ledger.covers(List.of(parcel(bogota, added, "1.00")))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Debe aplicar el incremento si cabe y revertirlo después")
+    void shouldApplyAndRevert() {
+        // Given
+        long[] delta = ledger.deltaFor(List.of(parcel(bogota, duitama, "80.00")));
+
+        // When
+        boolean fits = ledger.tryApply(delta, false);
+
+        // Then - Tunja -> Duitama queda justo en la capacidad
+        assertThat(fits).isTrue();
+        assertThat(remaining()).containsExactly(
+                new BigDecimal("20.00"), new BigDecimal("0.00"), new BigDecimal("100.00"));
+
+        // When
+        ledger.revert(delta);
+
+        // Then
+        assertThat(remaining()).containsExactly(
+                new BigDecimal("100.00"), new BigDecimal("80.00"), new BigDecimal("100.00"));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar sin aplicar cuando un tramo excede la capacidad")
+    void shouldRejectOverflowWithoutApplying() {
+        // Given - 81 kg no caben en Tunja -> Duitama (quedan 80)
+        long[] delta = ledger.deltaFor(List.of(parcel(bogota, duitama, "81.00")));
+
+        // When
+        boolean fits = ledger.tryApply(delta, false);
+
+        // Then
+        assertThat(fits).isFalse();
+        assertThat(remaining()).containsExactly(
+                new BigDecimal("100.00"), new BigDecimal("80.00"), new BigDecimal("100.00"));
+        assertThat(ledger.tightestSegment(delta)).isEqualTo("Tunja -> Duitama (disponible: 80.00 kg)");
+    }
+
+    @Test
+    @DisplayName("Debe aplicar el exceso cuando la política lo permite")
+    void shouldApplyOverflowWhenAllowed() {
+        // Given
+        long[] delta = ledger.deltaFor(List.of(parcel(tunja, duitama, "90.00")));
+
+        // When
+        boolean fits = ledger.tryApply(delta, true);
+
+        // Then - se informa que no cabía, pero la carga queda comprometida
+        assertThat(fits).isFalse();
+        assertThat(ledger.toResponse().segments().get(1).committedKg()).isEqualByComparingTo("110.00");
+        assertThat(remaining().get(1)).isEqualByComparingTo("-10.00");
+    }
+
+    private List<BigDecimal> remaining() {
+        return ledger.toResponse().segments().stream().map(CargoSegmentResponse::remainingKg).toList();
+    }
+
+    private static Stop stop(Long id, String name, int order) {
+        return Stop.builder().id(id).name(name).order(order).build();
+    }
+
+    private static Parcel parcel(Stop from, Stop to, String weightKg) {
+        return Parcel.builder()
+                .fromStop(from)
+                .toStop(to)
+                .weightKg(weightKg == null ? null : new BigDecimal(weightKg))
+                .build();
+    }
+}
@@ -0,0 +1,154 @@
+package com.web.service.ticket;
+
+import com.web.entity.*;
+import com.web.repository.*;
+import com.web.service.admin.ConfigService;
+import com.web.service.trip.SeatLayoutCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Sobreventa contra la BD real: solo con el tramo lleno y nunca por encima del cupo
+@DisplayName("OverbookingService Integration Tests")
+class OverbookingServiceTest extends BaseRepositoryTest {
+
+    private static final int CAPACITY = 4;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private SeatHoldRepository seatHoldRepository;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    private OverbookingService overbookingService;
+    private Trip trip;
+    private User passenger;
+    private Stop stopBogota;
+    private Stop stopTunja;
+    private int qrSequence;
+
+    @BeforeEach
+    void setUp() {
+        ConfigService configService = mock(ConfigService.class);
+        when(configService.getOverbookingMaxPercentage()).thenReturn(0.5);
+        NoShowStatsRepository noShowStatsRepository = new NoShowStatsRepository(jdbcTemplate);
+        overbookingService = new OverbookingServiceImpl(noShowStatsRepository, tripRepository, ticketRepository,
+                seatHoldRepository, configService, new SeatLayoutCache(seatRepository, 10), 10);
+
+        Route route = Route.builder()
+                .code("BOG-TUN")
+                .name("Bogotá - Tunja")
+                .origin("Bogotá")
+                .destination("Tunja")
+                .distanceKm(new BigDecimal("140.00"))
+                .durationMin(150)
+                .isActive(true)
+                .build();
+        entityManager.persist(route);
+
+        stopBogota = Stop.builder().route(route).name("Terminal Bogotá").order(1)
+                .latitude(new BigDecimal("4.6097")).longitude(new BigDecimal("-74.0817")).build();
+        stopTunja = Stop.builder().route(route).name("Terminal Tunja").order(2)
+                .latitude(new BigDecimal("5.5353")).longitude(new BigDecimal("-73.3678")).build();
+        entityManager.persist(stopBogota);
+        entityManager.persist(stopTunja);
+
+        // Sin asientos registrados: la distribución por defecto es la capacidad
+        Bus bus = Bus.builder()
+                .plate("OVB123")
+                .capacity(CAPACITY)
+                .amenities(new HashMap<>())
+                .status(Bus.BusStatus.ACTIVE)
+                .build();
+        entityManager.persist(bus);
+
+        passenger = User.builder()
+                .name("Laura Pasajera")
+                .email("laura@example.com")
+                .phone("3009876543")
+                .role(User.Role.PASSENGER)
+                .status(User.Status.ACTIVE)
+                .passwordHash("$2a$10$hashedpassword")
+                .build();
+        entityManager.persist(passenger);
+
+        trip = Trip.builder()
+                .route(route)
+                .bus(bus)
+                .tripDate(LocalDate.now().plusDays(1))
+                .departureTime(LocalDate.now().plusDays(1).atTime(8, 0))
+                .arrivalEta(LocalDate.now().plusDays(1).atTime(10, 30))
+                .status(Trip.TripStatus.SCHEDULED)
+                .build();
+        entityManager.persist(trip);
+
+        // Tasa de no-show del 50 % a las 8: cupo de floor(4 * 0.5) = 2 sobreventas
+        noShowStatsRepository.add(route.getId(), 8, 100, 50);
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Debe sobrevender solo con el tramo lleno y hasta agotar el cupo")
+    void shouldOversellOnlyWhenSegmentIsFullAndWithinAllowance() {
+        // Given - queda un asiento libre: se vende ese, no se sobrevende
+        for (int seatNumber = 1; seatNumber < CAPACITY; seatNumber++) {
+            entityManager.persist(ticket(seatNumber, false));
+        }
+        entityManager.flush();
+        assertThat(overbookingService.allowance(trip)).isEqualTo(2);
+        assertThat(overbookingService.tryOversell(trip, stopBogota, stopTunja)).isFalse();
+
+        // When - se vende el último asiento
+        entityManager.persist(ticket(CAPACITY, false));
+        entityManager.flush();
+
+        // Then - con el tramo lleno se acepta la sobreventa
+        assertThat(overbookingService.tryOversell(trip, stopBogota, stopTunja)).isTrue();
+
+        // When - se venden las dos sobreventas del cupo, sin asiento
+        entityManager.persist(ticket(null, true));
+        entityManager.persist(ticket(null, true));
+        entityManager.flush();
+
+        // Then - el cupo está agotado
+        assertThat(overbookingService.tryOversell(trip, stopBogota, stopTunja)).isFalse();
+    }
+
+    private Ticket ticket(Integer seatNumber, boolean overbooked) {
+        return Ticket.builder()
+                .trip(trip)
+                .passenger(passenger)
+                .seatNumber(seatNumber)
+                .fromStop(stopBogota)
+                .toStop(stopTunja)
+                .price(new BigDecimal("40000.00"))
+                .paymentMethod(Ticket.PaymentMethod.CASH)
+                .status(Ticket.TicketStatus.SOLD)
+                .overbooked(overbooked)
+                .qrCode("QR-OVB-" + (++qrSequence))
+                .build();
+    }
+}
@@ -0,0 +1,225 @@
+package com.web.service.trip;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.web.dto.ticket.reservations.SeatStatusResponse;
+import com.web.dto.trip.SeatMapResponse;
+import com.web.dto.trip.mapper.TripMapper;
+import com.web.entity.*;
+import com.web.repository.*;
+import com.web.service.catalog.CatalogResponseCache;
+import com.web.service.dispatch.ManifestService;
+import com.web.service.event.OutboxService;
+import com.web.service.parcel.CargoLedgerService;
+import com.web.util.QueryCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+// Presupuesto de consultas: si un cambio reintroduce una consulta por asiento, falla aquí
+@DisplayName("TripService Query Budget Tests")
+class TripServiceQueryBudgetTest extends BaseRepositoryTest {
+
+    private static final int SEAT_AVAILABILITY_BUDGET = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private BusRepository busRepository;
+
+    @Autowired
+    private StopRepository stopRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private SeatHoldRepository seatHoldRepository;
+
+    private TripServiceImpl tripService;
+    private Trip trip;
+    private Stop stopBogota;
+    private Stop stopTunja;
+    private Stop stopBucaramanga;
+
+    @BeforeEach
+    void setUp() {
+        // Solo se ejercitan lecturas: los colaboradores que no tocan la BD van simulados
+        // La ocupación y la distribución de asientos son reales: su primera carga entra en el presupuesto
+        CatalogResponseCache responseCache = mock(CatalogResponseCache.class);
+        TripOccupancyService occupancyService = new TripOccupancyServiceImpl(ticketRepository, responseCache,
+                new SeatLayoutCache(seatRepository, 10), new ObjectMapper(), 10, 30);
+        tripService = new TripServiceImpl(tripRepository, routeRepository, busRepository, stopRepository,
+                ticketRepository, seatHoldRepository, mock(TripMapper.class),
+                mock(ManifestService.class), mock(OutboxService.class), mock(CargoLedgerService.class),
+                responseCache, occupancyService, mock(RefundLedgerRepository.class));
+
+        Route route = Route.builder()
+                .code("BOG-BGA")
+                .name("Bogotá - Bucaramanga")
+                .origin("Bogotá")
+                .destination("Bucaramanga")
+                .distanceKm(new BigDecimal("398.50"))
+                .durationMin(420)
+                .isActive(true)
+                .build();
+        entityManager.persist(route);
+
+        stopBogota = Stop.builder().route(route).name("Terminal Bogotá").order(1)
+                .latitude(new BigDecimal("4.6097")).longitude(new BigDecimal("-74.0817")).build();
+        stopTunja = Stop.builder().route(route).name("Terminal Tunja").order(2)
+                .latitude(new BigDecimal("5.5353")).longitude(new BigDecimal("-73.3678")).build();
+        stopBucaramanga = Stop.builder().route(route).name("Terminal Bucaramanga").order(3)
+                .latitude(new BigDecimal("7.1193")).longitude(new BigDecimal("-73.1227")).build();
+        entityManager.persist(stopBogota);
+        entityManager.persist(stopTunja);
+        entityManager.persist(stopBucaramanga);
+
+        Bus bus = Bus.builder()
+                .plate("ABC123")
+                .capacity(40)
+                .amenities(new HashMap<>())
+                .status(Bus.BusStatus.ACTIVE)
+                .build();
+        entityManager.persist(bus);
+
+        for (int i = 1; i <= 40; i++) {
+            entityManager.persist(Seat.builder()
+                    .bus(bus)
+                    .seatNumber(i)
+                    .seatType(i <= 36 ? Seat.SeatType.STANDARD : Seat.SeatType.PREFERENTIAL)
+                    .build());
+        }
+
+        User passenger = User.builder()
+                .name("Laura Pasajera")
+                .email("laura@example.com")
+                .phone("3009876543")
+                .role(User.Role.PASSENGER)
+                .status(User.Status.ACTIVE)
+                .passwordHash("$2a$10$hashedpassword")
+                .build();
+        entityManager.persist(passenger);
+
+        trip = Trip.builder()
+                .route(route)
+                .bus(bus)
+                .tripDate(LocalDate.now())
+                .departureTime(LocalDateTime.now().plusHours(2))
+                .arrivalEta(LocalDateTime.now().plusHours(9))
+                .status(Trip.TripStatus.SCHEDULED)
+                .build();
+        entityManager.persist(trip);
+
+        // Vendidos: 1 en Bogotá-Tunja (se cruza con el tramo consultado) y 2 en Tunja-Bucaramanga (no)
+        entityManager.persist(ticket(passenger, 1, stopBogota, stopTunja, "QR-1"));
+        entityManager.persist(ticket(passenger, 2, stopTunja, stopBucaramanga, "QR-2"));
+
+        entityManager.persist(SeatHold.builder()
+                .trip(trip)
+                .seatNumber(3)
+                .user(passenger)
+                .expiresAt(LocalDateTime.now().plusMinutes(10))
+                .status(SeatHold.HoldStatus.HOLD)
+                .build());
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("La disponibilidad de asientos usa un número fijo de consultas")
+    void seatAvailabilityStaysWithinQueryBudget() {
+        // When
+        QueryCounter.reset();
+        List<SeatStatusResponse> seats = tripService.getSeatAvailability(
+                trip.getId(), stopBogota.getId(), stopTunja.getId());
+        int queries = QueryCounter.count();
+
+        // Then
+        assertThat(queries).isLessThanOrEqualTo(SEAT_AVAILABILITY_BUDGET);
+        assertThat(seats).hasSize(40);
+        assertThat(seats.get(0).status()).isEqualTo("SOLD");
+        assertThat(seats.get(1).status()).isEqualTo("AVAILABLE");
+        assertThat(seats.get(2).status()).isEqualTo("HELD");
+        assertThat(seats.get(39).seatType()).isEqualTo("PREFERENTIAL");
+    }
+
+    @Test
+    @DisplayName("El mapa de asientos comparte el mismo presupuesto")
+    void seatMapStaysWithinQueryBudget() {
+        // When
+        QueryCounter.reset();
+        SeatMapResponse seatMap = tripService.getSeatMap(trip.getId(), stopBogota.getId(), stopTunja.getId());
+        int queries = QueryCounter.count();
+
+        // Then
+        assertThat(queries).isLessThanOrEqualTo(SEAT_AVAILABILITY_BUDGET);
+        assertThat(seatMap.status()).startsWith("SAH").hasSize(40);
+        assertThat(seatMap.seatTypes()).endsWith("PPPP");
+        assertThat(seatMap.availableCount()).isEqualTo(38);
+    }
+
+    @Test
+    @DisplayName("Las consultas repetidas del mismo viaje salen de memoria salvo viaje y paradas")
+    void repeatedSeatQueriesOnlyLoadTripAndStops() {
+        // Given - primera carga de distribución y ocupación
+        tripService.getSeatMap(trip.getId(), stopBogota.getId(), stopTunja.getId());
+
+        // When
+        QueryCounter.reset();
+        SeatStatusResponse preferential = tripService.findBestSeat(
+                trip.getId(), stopTunja.getId(), stopBucaramanga.getId(), Seat.SeatType.PREFERENTIAL);
+        int queries = QueryCounter.count();
+
+        // Then
+        assertThat(queries).isLessThanOrEqualTo(2);
+        assertThat(preferential.seatNumber()).isEqualTo(37);
+        assertThat(preferential.seatType()).isEqualTo("PREFERENTIAL");
+    }
+
+    @Test
+    @DisplayName("El mejor asiento prefiere uno con el vecino libre")
+    void bestSeatPrefersFreePair() {
+        // When - tramo Bogotá-Tunja: 1 vendido, 3 retenido; 2 y 4 libres pero sin pareja libre
+        SeatStatusResponse seat = tripService.findBestSeat(
+                trip.getId(), stopBogota.getId(), stopTunja.getId(), Seat.SeatType.STANDARD);
+
+        // Then
+        assertThat(seat.seatNumber()).isEqualTo(5);
+    }
+
+    private Ticket ticket(User passenger, int seatNumber, Stop fromStop, Stop toStop, String qrCode) {
+        return Ticket.builder()
+                .trip(trip)
+                .passenger(passenger)
+                .seatNumber(seatNumber)
+                .fromStop(fromStop)
+                .toStop(toStop)
+                .price(new BigDecimal("50000.00"))
+                .paymentMethod(Ticket.PaymentMethod.CASH)
+                .status(Ticket.TicketStatus.SOLD)
+                .qrCode(qrCode)
+                .build();
+    }
+}
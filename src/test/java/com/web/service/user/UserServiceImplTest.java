@@ -0,0 +1,83 @@
+package com.web.service.user;
+
+import com.web.dto.auth.User.mapper.UserMapper;
+import com.web.entity.User;
+import com.web.repository.UserRepository;
+import com.web.security.TokenRevocationCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Revocación de tokens al desactivar y reactivar usuarios
+@DisplayName("UserService Unit Tests")
+class UserServiceImplTest {
+
+    private UserRepository userRepository;
+    private TokenRevocationCache tokenRevocationCache;
+    private UserServiceImpl userService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        tokenRevocationCache = new TokenRevocationCache(60000);
+        userService = new UserServiceImpl(userRepository, mock(UserMapper.class), tokenRevocationCache);
+
+        user = User.builder()
+                .id(7L)
+                .email("ana@example.com")
+                .role(User.Role.PASSENGER)
+                .status(User.Status.ACTIVE)
+                .build();
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    @DisplayName("Debe revocar los tokens al desactivar y restaurarlos al reactivar")
+    void shouldRevokeOnDeactivateAndRestoreOnActivate() {
+        // When
+        userService.deleteUser(7L);
+
+        // Then
+        assertThat(user.getStatus()).isEqualTo(User.Status.INACTIVE);
+        assertThat(tokenRevocationCache.isRevoked(7L)).isTrue();
+
+        // When
+        userService.activateUser(7L);
+
+        // Then
+        assertThat(user.getStatus()).isEqualTo(User.Status.ACTIVE);
+        assertThat(tokenRevocationCache.isRevoked(7L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Debe mantener la revocación hasta que la reactivación haga commit")
+    void shouldRestoreOnlyAfterCommit() {
+        // Given
+        tokenRevocationCache.revoke(7L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            userService.activateUser(7L);
+
+            // Then - dentro de la transacción sigue revocado (un rollback no lo libera)
+            assertThat(tokenRevocationCache.isRevoked(7L)).isTrue();
+
+            // When
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            // Then
+            assertThat(tokenRevocationCache.isRevoked(7L)).isFalse();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.web.util;
+
+import com.web.entity.User;
+import com.web.security.AuthenticatedUser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("JwtTokenProvider Unit Tests")
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "test-secret";
+
+    private final JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(SECRET, 900000, 604800000);
+
+    @Test
+    @DisplayName("Debe reconstruir id, email, rol y estado desde los claims del access token")
+    void shouldRebuildPrincipalFromAccessTokenClaims() {
+        // Given
+        String token = jwtTokenProvider.generateToken(user(User.Status.ACTIVE));
+
+        // When / Then
+        assertThat(jwtTokenProvider.getAuthenticatedUser(token))
+                .contains(new AuthenticatedUser(7L, "ana@example.com", User.Role.DISPATCHER, User.Status.ACTIVE));
+    }
+
+    @Test
+    @DisplayName("Debe llevar el estado inactivo en los claims")
+    void shouldCarryInactiveStatus() {
+        // Given
+        String token = jwtTokenProvider.generateToken(user(User.Status.INACTIVE));
+
+        // When / Then
+        assertThat(jwtTokenProvider.getAuthenticatedUser(token))
+                .hasValueSatisfying(principal -> assertThat(principal.isActive()).isFalse());
+    }
+
+    @Test
+    @DisplayName("No debe aceptar un refresh token como access token ni al revés")
+    void shouldNotMixTokenTypes() {
+        // Given
+        User user = user(User.Status.ACTIVE);
+        String accessToken = jwtTokenProvider.generateToken(user);
+        String refreshToken = jwtTokenProvider.generateRefreshToken(user);
+
+        // When / Then
+        assertThat(jwtTokenProvider.getAuthenticatedUser(refreshToken)).isEmpty();
+        assertThat(jwtTokenProvider.getRefreshClaims(accessToken)).isEmpty();
+        assertThat(jwtTokenProvider.getRefreshClaims(refreshToken))
+                .hasValueSatisfying(claims -> assertThat(claims.userId()).isEqualTo(7L));
+    }
+
+    @Test
+    @DisplayName("Debe emitir cada refresh token con su propio jti")
+    void shouldIssueDistinctTokenIdPerRefreshToken() {
+        // Given - dos logins del mismo usuario (dos dispositivos)
+        User user = user(User.Status.ACTIVE);
+        String first = jwtTokenProvider.generateRefreshToken(user);
+        String second = jwtTokenProvider.generateRefreshToken(user);
+
+        // When
+        String firstId = jwtTokenProvider.getRefreshClaims(first).orElseThrow().tokenId();
+        String secondId = jwtTokenProvider.getRefreshClaims(second).orElseThrow().tokenId();
+
+        // Then
+        assertThat(firstId).isNotEqualTo(secondId);
+        assertThat(jwtTokenProvider.getRefreshClaims(first).orElseThrow().expiresAt()).isAfter(LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar tokens firmados con otro secreto o expirados")
+    void shouldRejectForeignOrExpiredTokens() {
+        // Given
+        String foreign = new JwtTokenProvider("otro-secreto", 900000, 604800000).generateToken(user(User.Status.ACTIVE));
+        String expired = new JwtTokenProvider(SECRET, -1000, 604800000).generateToken(user(User.Status.ACTIVE));
+
+        // When / Then
+        assertThat(jwtTokenProvider.getAuthenticatedUser(foreign)).isEmpty();
+        assertThat(jwtTokenProvider.getAuthenticatedUser(expired)).isEmpty();
+        assertThat(jwtTokenProvider.validateToken("no-es-un-jwt")).isFalse();
+    }
+
+    private static User user(User.Status status) {
+        return User.builder()
+                .id(7L)
+                .name("Ana Despachadora")
+                .email("ana@example.com")
+                .role(User.Role.DISPATCHER)
+                .status(status)
+                .build();
+    }
+}